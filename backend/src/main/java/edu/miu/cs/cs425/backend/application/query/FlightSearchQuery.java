@@ -1,6 +1,10 @@
 package edu.miu.cs.cs425.backend.application.query;
 
+import edu.miu.cs.cs425.backend.application.search.SearchConstraints;
+
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
 
 public class FlightSearchQuery {
     private String startAirport; // IATA code of the starting airport
@@ -8,6 +12,19 @@ public class FlightSearchQuery {
     private LocalDate startDate; // Departure date
     private LocalDate returnDate; // Optional return date for round trips
     private String filter; // Filter type: "fastest", "cheapest", or null for default
+    private String engine; // Search engine name as listed in SearchEngine, or null for the handler's default
+    private Integer limit; // Maximum number of itineraries to return, or null for all
+    private Integer pageSize; // Itineraries per page, or null for a single unpaged result
+    private String cursor; // Continuation cursor from the previous page
+    private Integer maxStops; // Most stops per direction, or null for the search default
+    private Integer minConnectionMinutes; // Shortest layover allowed, in minutes
+    private Integer maxConnectionMinutes; // Longest layover allowed, in minutes
+    private LocalTime departAfter; // First departure window, inclusive
+    private LocalTime departBefore;
+    private LocalTime arriveAfter; // Final arrival window, inclusive, on the departure day
+    private LocalTime arriveBefore;
+    private List<String> includedAirlines; // Airline codes every leg must be flown by; empty for any
+    private List<String> excludedAirlines; // Airline codes no leg may be flown by
 
     // No-args constructor
     public FlightSearchQuery() {
@@ -54,6 +71,116 @@ public class FlightSearchQuery {
         this.filter = filter;
     }
 
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public Integer getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(Integer pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+
+    public Integer getMaxStops() {
+        return maxStops;
+    }
+
+    public void setMaxStops(Integer maxStops) {
+        this.maxStops = maxStops;
+    }
+
+    public Integer getMinConnectionMinutes() {
+        return minConnectionMinutes;
+    }
+
+    public void setMinConnectionMinutes(Integer minConnectionMinutes) {
+        this.minConnectionMinutes = minConnectionMinutes;
+    }
+
+    public Integer getMaxConnectionMinutes() {
+        return maxConnectionMinutes;
+    }
+
+    public void setMaxConnectionMinutes(Integer maxConnectionMinutes) {
+        this.maxConnectionMinutes = maxConnectionMinutes;
+    }
+
+    public LocalTime getDepartAfter() {
+        return departAfter;
+    }
+
+    public void setDepartAfter(LocalTime departAfter) {
+        this.departAfter = departAfter;
+    }
+
+    public LocalTime getDepartBefore() {
+        return departBefore;
+    }
+
+    public void setDepartBefore(LocalTime departBefore) {
+        this.departBefore = departBefore;
+    }
+
+    public LocalTime getArriveAfter() {
+        return arriveAfter;
+    }
+
+    public void setArriveAfter(LocalTime arriveAfter) {
+        this.arriveAfter = arriveAfter;
+    }
+
+    public LocalTime getArriveBefore() {
+        return arriveBefore;
+    }
+
+    public void setArriveBefore(LocalTime arriveBefore) {
+        this.arriveBefore = arriveBefore;
+    }
+
+    public List<String> getIncludedAirlines() {
+        return includedAirlines;
+    }
+
+    public void setIncludedAirlines(List<String> includedAirlines) {
+        this.includedAirlines = includedAirlines;
+    }
+
+    public List<String> getExcludedAirlines() {
+        return excludedAirlines;
+    }
+
+    public void setExcludedAirlines(List<String> excludedAirlines) {
+        this.excludedAirlines = excludedAirlines;
+    }
+
+    // Constraints pushed down into the search engines; throws IllegalArgumentException when inconsistent
+    public SearchConstraints toSearchConstraints() {
+        return new SearchConstraints(maxStops, minConnectionMinutes, maxConnectionMinutes, departAfter, departBefore,
+                arriveAfter, arriveBefore, includedAirlines, excludedAirlines);
+    }
+
     @Override
     public String toString() {
         return "FlightSearchQuery{" +
@@ -62,6 +189,19 @@ public class FlightSearchQuery {
                 ", startDate=" + startDate +
                 ", returnDate=" + returnDate +
                 ", filter='" + filter + '\'' +
+                ", engine='" + engine + '\'' +
+                ", limit=" + limit +
+                ", pageSize=" + pageSize +
+                ", cursor='" + cursor + '\'' +
+                ", maxStops=" + maxStops +
+                ", minConnectionMinutes=" + minConnectionMinutes +
+                ", maxConnectionMinutes=" + maxConnectionMinutes +
+                ", departAfter=" + departAfter +
+                ", departBefore=" + departBefore +
+                ", arriveAfter=" + arriveAfter +
+                ", arriveBefore=" + arriveBefore +
+                ", includedAirlines=" + includedAirlines +
+                ", excludedAirlines=" + excludedAirlines +
                 '}';
     }
 }
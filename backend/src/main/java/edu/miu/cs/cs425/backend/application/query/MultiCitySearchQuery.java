@@ -0,0 +1,103 @@
+package edu.miu.cs.cs425.backend.application.query;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public class MultiCitySearchQuery {
+    private List<Segment> segments; // Flown in order; each segment must depart after the previous one lands
+    private String filter;
+    private String engine; // Search engine used for every segment, or null for the configured default
+    private Integer limit; // Maximum number of itineraries to return (at most 1000), or null for 100
+
+    // Getters and setters
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    public void setSegments(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public void setFilter(String filter) {
+        this.filter = filter;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public static class Segment {
+        private String startAirport;
+        private String destinationAirport;
+        private LocalDate date;
+        private Integer maxStops; // Maximum number of connections in this segment, or null for any
+        private LocalTime departAfter; // Earliest departure time of the first leg, or null
+        private LocalTime departBefore; // Latest departure time of the first leg, or null
+
+        // Getters and setters
+        public String getStartAirport() {
+            return startAirport;
+        }
+
+        public void setStartAirport(String startAirport) {
+            this.startAirport = startAirport;
+        }
+
+        public String getDestinationAirport() {
+            return destinationAirport;
+        }
+
+        public void setDestinationAirport(String destinationAirport) {
+            this.destinationAirport = destinationAirport;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public Integer getMaxStops() {
+            return maxStops;
+        }
+
+        public void setMaxStops(Integer maxStops) {
+            this.maxStops = maxStops;
+        }
+
+        public LocalTime getDepartAfter() {
+            return departAfter;
+        }
+
+        public void setDepartAfter(LocalTime departAfter) {
+            this.departAfter = departAfter;
+        }
+
+        public LocalTime getDepartBefore() {
+            return departBefore;
+        }
+
+        public void setDepartBefore(LocalTime departBefore) {
+            this.departBefore = departBefore;
+        }
+    }
+}
@@ -1,28 +1,49 @@
 package edu.miu.cs.cs425.backend.application.queryhandler;
 
 import edu.miu.cs.cs425.backend.application.query.FlightSearchQuery;
+import edu.miu.cs.cs425.backend.application.search.FlightNetworkIndex;
+import edu.miu.cs.cs425.backend.application.search.FlightNetworkSnapshot;
+import edu.miu.cs.cs425.backend.application.search.KBestJoin;
+import edu.miu.cs.cs425.backend.application.search.RouteRequest;
+import edu.miu.cs.cs425.backend.application.search.SearchEngineRegistry;
+import edu.miu.cs.cs425.backend.application.search.SearchResultCache;
+import edu.miu.cs.cs425.backend.application.search.SearchResultPager;
+import edu.miu.cs.cs425.backend.application.search.TopKCollector;
 import edu.miu.cs.cs425.backend.data.repository.BookingRepository;
 import edu.miu.cs.cs425.backend.data.repository.FlightRepository;
 import edu.miu.cs.cs425.backend.domain.entity.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class BookingQueryHandler {
 
+    private static final String DIRECT_ENGINE = "direct";
+
     private final FlightRepository flightRepository;
     private final BookingRepository bookingRepository;
+    private final FlightNetworkIndex flightNetworkIndex;
+    private final SearchResultPager searchResultPager;
+    private final SearchResultCache searchResultCache;
+    private final SearchEngineRegistry searchEngineRegistry;
 
     @Autowired
-    public BookingQueryHandler(FlightRepository flightRepository, BookingRepository bookingRepository) {
+    public BookingQueryHandler(FlightRepository flightRepository, BookingRepository bookingRepository,
+                               FlightNetworkIndex flightNetworkIndex, SearchResultPager searchResultPager,
+                               SearchResultCache searchResultCache, SearchEngineRegistry searchEngineRegistry) {
         this.flightRepository = flightRepository;
         this.bookingRepository = bookingRepository;
+        this.flightNetworkIndex = flightNetworkIndex;
+        this.searchResultPager = searchResultPager;
+        this.searchResultCache = searchResultCache;
+        this.searchEngineRegistry = searchEngineRegistry;
     }
 
     public Optional<Flight> getFlight(String flightId) {
@@ -30,20 +51,39 @@ public class BookingQueryHandler {
     }
 
     public FlightSearchResult searchFlights(FlightSearchQuery query) {
-        List<Flight> allFlights = flightRepository.findAll();
+        return searchResultPager.page(query.getCursor(), query.getPageSize(), key(query), flightNetworkIndex.version(),
+                sortMode(query.getFilter()), () -> cachedSearch(query));
+    }
 
-        // Filter outbound flights
-        List<Flight> outboundFlights = allFlights.stream()
-                .filter(flight -> {
-                    boolean matchesStart = query.getStartAirport() == null || flight.getOrigin().getIataCode().equals(query.getStartAirport());
-                    boolean matchesDest = query.getDestinationAirport() == null || flight.getDestination().getIataCode().equals(query.getDestinationAirport());
-                    boolean matchesDate = query.getStartDate() == null || flight.getDeparture().toLocalDate().equals(query.getStartDate());
-                    return matchesStart && matchesDest && matchesDate;
-                })
-                .collect(Collectors.toList());
+    private static String key(FlightSearchQuery query) {
+        return SearchResultCache.key("booking-search", query.getStartAirport(), query.getDestinationAirport(),
+                query.getStartDate(), query.getReturnDate(), query.getFilter(), query.getLimit());
+    }
 
-        // Build one-way itineraries using external Itinerary class
-        List<Itinerary> oneWayItineraries = outboundFlights.stream()
+    private FlightSearchResult cachedSearch(FlightSearchQuery query) {
+        String key = key(query);
+        // Without a start date the search spans every day
+        Set<LocalDate> dates = query.getReturnDate() == null
+                ? SearchResultCache.dates(query.getStartDate())
+                : SearchResultCache.dates(query.getStartDate(), query.getReturnDate());
+        return searchResultCache.get(key, dates, () -> search(query));
+    }
+
+    private FlightSearchResult search(FlightSearchQuery query) {
+        FlightNetworkSnapshot network = flightNetworkIndex.snapshot();
+
+        // Filter outbound flights
+        List<Flight> outboundFlights = matchingFlights(network, query.getStartAirport(), query.getDestinationAirport(), query.getStartDate());
+
+        // Keep the best one-way flights by primitive sort key before building itineraries
+        TopKCollector<Flight> oneWayTopK = new TopKCollector<>(query.getLimit());
+        for (Flight flight : outboundFlights) {
+            double key = sortKey(query.getFilter(), flight.getPrice(), flight.getDuration());
+            if (oneWayTopK.accepts(key)) {
+                oneWayTopK.offer(key, flight);
+            }
+        }
+        List<Itinerary> oneWayItineraries = oneWayTopK.toSortedList().stream()
                 .map(flight -> {
                     Itinerary itinerary = new Itinerary();
                     itinerary.setFlights(List.of(flight));
@@ -56,37 +96,28 @@ public class BookingQueryHandler {
         // Filter return flights (for round trips)
         List<RoundTripItinerary> roundTripItineraries = new ArrayList<>();
         if (query.getReturnDate() != null) {
-            List<Flight> returnFlights = allFlights.stream()
-                    .filter(flight -> {
-                        boolean matchesStart = query.getDestinationAirport() == null || flight.getOrigin().getIataCode().equals(query.getDestinationAirport());
-                        boolean matchesDest = query.getStartAirport() == null || flight.getDestination().getIataCode().equals(query.getStartAirport());
-                        boolean matchesDate = flight.getDeparture().toLocalDate().equals(query.getReturnDate());
-                        return matchesStart && matchesDest && matchesDate;
-                    })
-                    .collect(Collectors.toList());
-
-            // Combine outbound and return flights into round-trip itineraries
-            for (Flight outbound : outboundFlights) {
-                for (Flight returnFlight : returnFlights) {
-                    if (outbound.getArrival().isBefore(returnFlight.getDeparture())) { // Ensure return is after outbound
+            List<Flight> returnFlights = matchingFlights(network, query.getDestinationAirport(), query.getStartAirport(), query.getReturnDate());
+
+            // Combine outbound and return flights in key order, without building the cross product
+            double[] outboundKeys = outboundFlights.stream()
+                    .mapToDouble(flight -> sortKey(query.getFilter(), flight.getPrice(), flight.getDuration()))
+                    .toArray();
+            double[] returnKeys = returnFlights.stream()
+                    .mapToDouble(flight -> sortKey(query.getFilter(), flight.getPrice(), flight.getDuration()))
+                    .toArray();
+            roundTripItineraries = KBestJoin.join(outboundKeys, returnKeys, query.getLimit(),
+                    // Ensure return is after outbound
+                    (o, r) -> outboundFlights.get(o).getArrival().isBefore(returnFlights.get(r).getDeparture()),
+                    (o, r) -> {
+                        Flight outbound = outboundFlights.get(o);
+                        Flight returnFlight = returnFlights.get(r);
                         RoundTripItinerary roundTrip = new RoundTripItinerary();
                         roundTrip.setOutboundFlights(List.of(outbound));
                         roundTrip.setReturnFlights(List.of(returnFlight));
                         roundTrip.setTotalPrice(outbound.getPrice() + returnFlight.getPrice());
                         roundTrip.setTotalDuration(outbound.getDuration() + returnFlight.getDuration());
-                        roundTripItineraries.add(roundTrip);
-                    }
-                }
-            }
-        }
-
-        // Sort based on filter criterion
-        if ("cheapest".equals(query.getFilter())) {
-            oneWayItineraries.sort(Comparator.comparingDouble(Itinerary::getTotalPrice));
-            roundTripItineraries.sort(Comparator.comparingDouble(RoundTripItinerary::getTotalPrice));
-        } else if ("fastest".equals(query.getFilter())) {
-            oneWayItineraries.sort(Comparator.comparingInt(Itinerary::getTotalDuration));
-            roundTripItineraries.sort(Comparator.comparingInt(RoundTripItinerary::getTotalDuration));
+                        return roundTrip;
+                    });
         }
 
         // Build result
@@ -97,6 +128,34 @@ public class BookingQueryHandler {
         return result;
     }
 
+    // Non-stop flights in departure order; a null airport or date matches any
+    private List<Flight> matchingFlights(FlightNetworkSnapshot network, String origin, String destination, LocalDate date) {
+        if (origin != null && destination != null) {
+            List<Flight> flights = new ArrayList<>();
+            for (List<Flight> path : searchEngineRegistry.engine(DIRECT_ENGINE).search(network, new RouteRequest(origin, destination, date, 1))) {
+                flights.add(path.get(0));
+            }
+            return flights;
+        }
+        return network.flightsDepartingOn(date).stream()
+                .filter(flight -> origin == null || flight.getOrigin().getIataCode().equals(origin))
+                .filter(flight -> destination == null || flight.getDestination().getIataCode().equals(destination))
+                .collect(Collectors.toList());
+    }
+
+    private static String sortMode(String filter) {
+        if ("cheapest".equals(filter)) return SearchResultPager.BY_PRICE;
+        if ("fastest".equals(filter)) return SearchResultPager.BY_DURATION;
+        return SearchResultPager.UNSORTED;
+    }
+
+    // Without a filter every candidate gets the same key, so the search order is kept
+    private static double sortKey(String filter, double price, int duration) {
+        if ("cheapest".equals(filter)) return price;
+        if ("fastest".equals(filter)) return duration;
+        return 0;
+    }
+
     public List<Booking> getBookingsByUserId(String userId) {
         return bookingRepository.findByUserId(userId);
     }
@@ -1,120 +1,126 @@
 package edu.miu.cs.cs425.backend.application.queryhandler;
 
 import edu.miu.cs.cs425.backend.application.query.FlightRouteSearchQuery;
-import edu.miu.cs.cs425.backend.data.repository.FlightRepository;
+import edu.miu.cs.cs425.backend.application.search.FlightNetworkIndex;
+import edu.miu.cs.cs425.backend.application.search.FlightNetworkSnapshot;
+import edu.miu.cs.cs425.backend.application.search.KBestJoin;
+import edu.miu.cs.cs425.backend.application.search.RouteRequest;
+import edu.miu.cs.cs425.backend.application.search.SearchBudget;
+import edu.miu.cs.cs425.backend.application.search.SearchBudgetFactory;
+import edu.miu.cs.cs425.backend.application.search.SearchConstraints;
+import edu.miu.cs.cs425.backend.application.search.SearchEngineRegistry;
+import edu.miu.cs.cs425.backend.application.search.SearchResultCache;
+import edu.miu.cs.cs425.backend.application.search.TopKCollector;
 import edu.miu.cs.cs425.backend.domain.entity.Flight;
 import edu.miu.cs.cs425.backend.domain.entity.FlightSearchResult;
 import edu.miu.cs.cs425.backend.domain.entity.Itinerary;
 import edu.miu.cs.cs425.backend.domain.entity.RoundTripItinerary;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 public class FlightRouteSearchQueryHandler {
 
-    private final FlightRepository flightRepository;
+    // Direct flights and one stop with a 30 minute to 6 hour layover, unless the query names another engine.
+    // The query's constraints can change the number of stops and narrow the layover window.
+    private static final String DEFAULT_ENGINE = "connections";
+    private static final int MAX_LEGS = 2;
 
-    public FlightRouteSearchQueryHandler(FlightRepository flightRepository) {
-        this.flightRepository = flightRepository;
+    private final FlightNetworkIndex flightNetworkIndex;
+
+    private final SearchResultCache searchResultCache;
+    private final SearchEngineRegistry searchEngineRegistry;
+    private final SearchBudgetFactory searchBudgetFactory;
+
+    public FlightRouteSearchQueryHandler(FlightNetworkIndex flightNetworkIndex, SearchResultCache searchResultCache,
+                                         SearchEngineRegistry searchEngineRegistry, SearchBudgetFactory searchBudgetFactory) {
+        this.flightNetworkIndex = flightNetworkIndex;
+        this.searchResultCache = searchResultCache;
+        this.searchEngineRegistry = searchEngineRegistry;
+        this.searchBudgetFactory = searchBudgetFactory;
     }
 
     public FlightSearchResult handle(FlightRouteSearchQuery query) {
-        FlightSearchResult result = new FlightSearchResult();
-
         // Validate required parameters
         if (query.getStartAirport() == null || query.getDestinationAirport() == null || query.getStartDate() == null) {
             throw new IllegalArgumentException("Start airport, destination airport, and start date are required");
         }
 
-        LocalDateTime startOfDay = query.getStartDate().atStartOfDay();
-        LocalDateTime endOfDay = query.getStartDate().atTime(23, 59, 59);
+        String engine = query.getEngine() != null ? query.getEngine() : DEFAULT_ENGINE;
+        SearchConstraints constraints = query.toSearchConstraints();
+        String key = SearchResultCache.key("route-search", query.getStartAirport(), query.getDestinationAirport(),
+                query.getStartDate(), query.getEndDate(), query.getFilter(), engine, query.getLimit(), constraints);
+        Set<LocalDate> dates = query.getEndDate() == null
+                ? SearchResultCache.dates(query.getStartDate())
+                : SearchResultCache.dates(query.getStartDate(), query.getEndDate());
+        return searchResultCache.get(key, dates, () -> search(query, engine, constraints, searchBudgetFactory.newBudget()));
+    }
+
+    private FlightSearchResult search(FlightRouteSearchQuery query, String engine, SearchConstraints constraints,
+                                      SearchBudget budget) {
+        FlightSearchResult result = new FlightSearchResult();
+        FlightNetworkSnapshot network = flightNetworkIndex.snapshot();
 
-        // Find outbound itineraries
-        List<Itinerary> outboundItineraries = findItineraries(query.getStartAirport(), query.getDestinationAirport(), startOfDay, endOfDay);
-        validateItineraries(outboundItineraries, query.getStartAirport(), query.getDestinationAirport());
+        // Find outbound paths
+        List<List<Flight>> outboundPaths = findPaths(network, engine, query.getStartAirport(), query.getDestinationAirport(), query.getStartDate(), constraints, budget);
+        validatePaths(outboundPaths, query.getStartAirport(), query.getDestinationAirport());
 
         if (query.getEndDate() == null) {
-            // One-way trip: Sort outbound itineraries by filter criterion
-            applySorting(outboundItineraries, query.getFilter());
-            result.setOneWayItineraries(outboundItineraries);
+            // One-way trip: keep the best itineraries by filter criterion
+            result.setOneWayItineraries(selectOneWay(outboundPaths, query.getFilter(), query.getLimit()));
         } else {
-            // Round trip: Find return itineraries and pair with outbound
-            LocalDateTime returnStartOfDay = query.getEndDate().atStartOfDay();
-            LocalDateTime returnEndOfDay = query.getEndDate().atTime(23, 59, 59);
-            List<Itinerary> returnItineraries = findItineraries(query.getDestinationAirport(), query.getStartAirport(), returnStartOfDay, returnEndOfDay);
-            validateItineraries(returnItineraries, query.getDestinationAirport(), query.getStartAirport());
+            // Round trip: Find return paths and pair with outbound
+            List<List<Flight>> returnPaths = findPaths(network, engine, query.getDestinationAirport(), query.getStartAirport(), query.getEndDate(), constraints, budget);
+            validatePaths(returnPaths, query.getDestinationAirport(), query.getStartAirport());
 
-            List<RoundTripItinerary> roundTripItineraries = pairItineraries(outboundItineraries, returnItineraries);
+            List<RoundTripItinerary> roundTripItineraries = pairItineraries(outboundPaths, returnPaths, query.getFilter(), query.getLimit());
             if (!roundTripItineraries.isEmpty()) {
-                applySorting(roundTripItineraries, query.getFilter());
                 result.setRoundTripItineraries(roundTripItineraries);
             }
         }
 
+        // Cut short by the budget: more itineraries may exist
+        result.setPartial(budget.isExhausted());
         return result;
     }
 
-    private List<Itinerary> findItineraries(String startAirport, String destinationAirport, LocalDateTime startDateTime, LocalDateTime endDateTime) {
-        List<Itinerary> itineraries = new ArrayList<>();
-
-        // Direct flights
-        List<Flight> directFlights = flightRepository.findByOrigin_IataCodeAndDestination_IataCodeAndDepartureBetween(
-                startAirport, destinationAirport, startDateTime, endDateTime);
-        for (Flight flight : directFlights) {
-            Itinerary itinerary = new Itinerary();
-            List<Flight> flights = new ArrayList<>();
-            flights.add(flight);
-            itinerary.setFlights(flights);
-            itinerary.setTotalPrice(flight.getPrice());
-            itinerary.setTotalDuration(flight.getDuration());
-            itineraries.add(itinerary);
-        }
+    private List<List<Flight>> findPaths(FlightNetworkSnapshot network, String engine, String startAirport,
+                                         String destinationAirport, LocalDate date, SearchConstraints constraints,
+                                         SearchBudget budget) {
+        return searchEngineRegistry.engine(engine).search(network,
+                new RouteRequest(startAirport, destinationAirport, date, constraints.maxLegs(MAX_LEGS), constraints, budget));
+    }
 
-        // Connecting flights (one layover)
-        List<Flight> allFlightsInRange = flightRepository.findAll().stream()
-                .filter(flight -> !flight.getDeparture().isBefore(startDateTime) && !flight.getDeparture().isAfter(endDateTime))
-                .collect(Collectors.toList());
-
-        List<Flight> firstLegFlights = allFlightsInRange.stream()
-                .filter(flight -> flight.getOrigin().getIataCode().equals(startAirport))
-                .collect(Collectors.toList());
-
-        for (Flight firstLeg : firstLegFlights) {
-            String intermediateAirport = firstLeg.getDestination().getIataCode();
-            LocalDateTime firstLegArrival = firstLeg.getArrival();
-
-            List<Flight> secondLegFlights = allFlightsInRange.stream()
-                    .filter(flight -> flight.getOrigin().getIataCode().equals(intermediateAirport))
-                    .filter(flight -> flight.getDestination().getIataCode().equals(destinationAirport))
-                    .filter(flight -> flight.getDeparture().isAfter(firstLegArrival.plusMinutes(30))) // Minimum layover: 30 minutes
-                    .filter(flight -> flight.getDeparture().isBefore(firstLegArrival.plusHours(6))) // Maximum layover: 6 hours
-                    .collect(Collectors.toList());
-
-            for (Flight secondLeg : secondLegFlights) {
-                Itinerary itinerary = new Itinerary();
-                List<Flight> flights = new ArrayList<>();
-                flights.add(firstLeg);
-                flights.add(secondLeg);
-                itinerary.setFlights(flights);
-                itinerary.setTotalPrice(firstLeg.getPrice() + secondLeg.getPrice());
-                itinerary.setTotalDuration(firstLeg.getDuration() + secondLeg.getDuration());
-                itineraries.add(itinerary);
+    // Keeps the best paths by primitive sort key; only the survivors become itineraries
+    private List<Itinerary> selectOneWay(List<List<Flight>> paths, String filter, Integer limit) {
+        TopKCollector<List<Flight>> topK = new TopKCollector<>(limit);
+        for (List<Flight> path : paths) {
+            double key = sortKey(filter, totalPrice(path), totalDuration(path));
+            if (topK.accepts(key)) {
+                topK.offer(key, path);
             }
         }
 
+        List<Itinerary> itineraries = new ArrayList<>();
+        for (List<Flight> path : topK.toSortedList()) {
+            Itinerary itinerary = new Itinerary();
+            itinerary.setFlights(new ArrayList<>(path));
+            itinerary.setTotalPrice(totalPrice(path));
+            itinerary.setTotalDuration(totalDuration(path));
+            itineraries.add(itinerary);
+        }
         return itineraries;
     }
 
-    private void validateItineraries(List<Itinerary> itineraries, String expectedStart, String expectedEnd) {
-        for (Itinerary itinerary : itineraries) {
-            if (itinerary.getFlights().isEmpty()) continue;
-            String actualStart = itinerary.getFlights().get(0).getOrigin().getIataCode();
-            String actualEnd = itinerary.getFlights().get(itinerary.getFlights().size() - 1).getDestination().getIataCode();
+    private void validatePaths(List<List<Flight>> paths, String expectedStart, String expectedEnd) {
+        for (List<Flight> path : paths) {
+            if (path.isEmpty()) continue;
+            String actualStart = path.get(0).getOrigin().getIataCode();
+            String actualEnd = path.get(path.size() - 1).getDestination().getIataCode();
             if (!actualStart.equals(expectedStart) || !actualEnd.equals(expectedEnd)) {
                 throw new IllegalStateException("Itinerary does not start at " + expectedStart + " or end at " + expectedEnd +
                         ". Actual: " + actualStart + " to " + actualEnd);
@@ -122,52 +128,63 @@ public class FlightRouteSearchQueryHandler {
         }
     }
 
-    private List<RoundTripItinerary> pairItineraries(List<Itinerary> outboundItineraries, List<Itinerary> returnItineraries) {
-        List<RoundTripItinerary> roundTripItineraries = new ArrayList<>();
-        for (Itinerary outbound : outboundItineraries) {
-            for (Itinerary returnTrip : returnItineraries) {
-                RoundTripItinerary roundTrip = new RoundTripItinerary();
-                roundTrip.setOutboundFlights(outbound.getFlights());
-                roundTrip.setReturnFlights(returnTrip.getFlights());
-                roundTrip.setTotalPrice(outbound.getTotalPrice() + returnTrip.getTotalPrice());
-                roundTrip.setTotalDuration(outbound.getTotalDuration() + returnTrip.getTotalDuration());
-                roundTripItineraries.add(roundTrip);
-            }
+    // Pairs come out of the k-best join already in order, so only the returned round trips are built
+    private List<RoundTripItinerary> pairItineraries(List<List<Flight>> outboundPaths, List<List<Flight>> returnPaths,
+                                                     String filter, Integer limit) {
+        double[] outboundPrices = new double[outboundPaths.size()];
+        int[] outboundDurations = new int[outboundPaths.size()];
+        double[] outboundKeys = new double[outboundPaths.size()];
+        for (int o = 0; o < outboundPaths.size(); o++) {
+            outboundPrices[o] = totalPrice(outboundPaths.get(o));
+            outboundDurations[o] = totalDuration(outboundPaths.get(o));
+            outboundKeys[o] = sortKey(filter, outboundPrices[o], outboundDurations[o]);
         }
-        return roundTripItineraries;
+        double[] returnPrices = new double[returnPaths.size()];
+        int[] returnDurations = new int[returnPaths.size()];
+        double[] returnKeys = new double[returnPaths.size()];
+        for (int r = 0; r < returnPaths.size(); r++) {
+            returnPrices[r] = totalPrice(returnPaths.get(r));
+            returnDurations[r] = totalDuration(returnPaths.get(r));
+            returnKeys[r] = sortKey(filter, returnPrices[r], returnDurations[r]);
+        }
+
+        // The return trip must leave after the outbound trip has landed
+        return KBestJoin.join(outboundKeys, returnKeys, limit,
+                (o, r) -> returnsAfterOutbound(outboundPaths.get(o), returnPaths.get(r)),
+                (o, r) -> {
+                    RoundTripItinerary roundTrip = new RoundTripItinerary();
+                    roundTrip.setOutboundFlights(outboundPaths.get(o));
+                    roundTrip.setReturnFlights(returnPaths.get(r));
+                    roundTrip.setTotalPrice(outboundPrices[o] + returnPrices[r]);
+                    roundTrip.setTotalDuration(outboundDurations[o] + returnDurations[r]);
+                    return roundTrip;
+                });
     }
 
-    private <T> void applySorting(List<T> itineraries, String filter) {
-        if ("fastest".equalsIgnoreCase(filter)) {
-            itineraries.sort((o1, o2) -> {
-                if (o1 instanceof Itinerary && o2 instanceof Itinerary) {
-                    return Integer.compare(((Itinerary) o1).getTotalDuration(), ((Itinerary) o2).getTotalDuration());
-                } else if (o1 instanceof RoundTripItinerary && o2 instanceof RoundTripItinerary) {
-                    return Integer.compare(((RoundTripItinerary) o1).getTotalDuration(),
-                            ((RoundTripItinerary) o2).getTotalDuration());
-                }
-                return 0;
-            });
-        } else if ("cheapest".equalsIgnoreCase(filter)) {
-            itineraries.sort((o1, o2) -> {
-                if (o1 instanceof Itinerary && o2 instanceof Itinerary) {
-                    return Double.compare(((Itinerary) o1).getTotalPrice(), ((Itinerary) o2).getTotalPrice());
-                } else if (o1 instanceof RoundTripItinerary && o2 instanceof RoundTripItinerary) {
-                    return Double.compare(((RoundTripItinerary) o1).getTotalPrice(),
-                            ((RoundTripItinerary) o2).getTotalPrice());
-                }
-                return 0;
-            });
-        } else {
-            itineraries.sort((o1, o2) -> {
-                if (o1 instanceof Itinerary && o2 instanceof Itinerary) {
-                    return Double.compare(((Itinerary) o1).getTotalPrice(), ((Itinerary) o2).getTotalPrice());
-                } else if (o1 instanceof RoundTripItinerary && o2 instanceof RoundTripItinerary) {
-                    return Double.compare(((RoundTripItinerary) o1).getTotalPrice(),
-                            ((RoundTripItinerary) o2).getTotalPrice());
-                }
-                return 0;
-            }); // Default
+    private static boolean returnsAfterOutbound(List<Flight> outbound, List<Flight> returnFlights) {
+        Flight lastOutbound = outbound.get(outbound.size() - 1);
+        Flight firstReturn = returnFlights.get(0);
+        return firstReturn.getDeparture().isAfter(lastOutbound.getArrival());
+    }
+
+    // Cheapest first unless the fastest itineraries are asked for
+    private static double sortKey(String filter, double price, int duration) {
+        return "fastest".equalsIgnoreCase(filter) ? duration : price;
+    }
+
+    private static double totalPrice(List<Flight> path) {
+        double price = 0;
+        for (Flight flight : path) {
+            price += flight.getPrice();
+        }
+        return price;
+    }
+
+    private static int totalDuration(List<Flight> path) {
+        int duration = 0;
+        for (Flight flight : path) {
+            duration += flight.getDuration();
         }
+        return duration;
     }
-}
\ No newline at end of file
+}
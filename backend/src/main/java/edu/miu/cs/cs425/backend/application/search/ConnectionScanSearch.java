@@ -0,0 +1,149 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Connection Scan Algorithm: every flight is a connection in one array sorted by departure, so an
+// earliest-arrival query is a single linear scan, independent of how many paths exist.
+// It runs on the snapshot's columnar ScheduleStore, which is built once per schedule version.
+// Search constraints are checked on each connection during the scan. Max stops and a maximum layover
+// are applied to the single journey kept per airport, so under those two the scan can miss a journey
+// that needed a later or longer way into an intermediate airport. Each scanned connection spends one
+// unit of the request's budget; a scan cut short returns the best journey found so far, if any.
+@Component
+public class ConnectionScanSearch implements SearchEngine {
+
+    private static final int UNREACHED = Integer.MAX_VALUE;
+    private static final int UNSET = Integer.MIN_VALUE;
+
+    @Value("${search.csa.min-connection-minutes:30}")
+    private int minConnectionMinutes;
+
+    @Override
+    public String name() {
+        return "csa";
+    }
+
+    // The earliest-arrival journey with every leg departing on the date, as a one-element list; the leg
+    // count is only bounded by the constraints' max stops
+    @Override
+    public List<List<Flight>> search(FlightNetworkSnapshot network, RouteRequest request) {
+        LocalDate date = request.date();
+        SearchConstraints constraints = request.constraints();
+        LocalDateTime endOfDay = date != null ? date.plusDays(1).atStartOfDay() : null;
+        return earliestArrival(network, request.origin(), request.destination(),
+                date != null ? date.atStartOfDay() : null, endOfDay, endOfDay, minConnectionMinutes,
+                constraints.isEmpty() ? null : constraints.filter(network.schedule()),
+                constraints.maxLegs(Integer.MAX_VALUE), request.budget())
+                .map(List::of)
+                .orElse(Collections.emptyList());
+    }
+
+    // Journey that reaches the destination as early as possible, leaving the origin in [departAfter, departBefore)
+    public Optional<List<Flight>> earliestArrival(FlightNetworkSnapshot network, String startAirport, String destinationAirport,
+                                                  LocalDateTime departAfter, LocalDateTime departBefore, int minConnectionMinutes) {
+        return earliestArrival(network, startAirport, destinationAirport, departAfter, departBefore, null, minConnectionMinutes,
+                null, Integer.MAX_VALUE, SearchBudget.unlimited());
+    }
+
+    // departBefore bounds the first leg; legsBefore, when set, bounds every leg
+    private Optional<List<Flight>> earliestArrival(FlightNetworkSnapshot network, String startAirport, String destinationAirport,
+                                                   LocalDateTime departAfter, LocalDateTime departBefore, LocalDateTime legsBefore,
+                                                   int minConnectionMinutes, ConstraintFilter filter, int maxLegs,
+                                                   SearchBudget budget) {
+        ScheduleStore t = network.schedule();
+        int origin = t.airportId(startAirport);
+        int target = t.airportId(destinationAirport);
+        if (origin == ScheduleStore.UNKNOWN || target == ScheduleStore.UNKNOWN || origin == target) return Optional.empty();
+
+        int[] earliest = new int[t.airportCount];
+        int[] inConnection = new int[t.airportCount];
+        // First leg and number of legs of the journey kept per airport
+        int[] firstLeg = new int[t.airportCount];
+        int[] legs = new int[t.airportCount];
+        Arrays.fill(earliest, UNREACHED);
+        Arrays.fill(inConnection, -1);
+        Arrays.fill(firstLeg, -1);
+        int start = departAfter != null ? ScheduleStore.minutes(departAfter) : Integer.MIN_VALUE;
+        int end = departBefore != null ? ScheduleStore.minutes(departBefore) : Integer.MAX_VALUE;
+        int scanEnd = legsBefore != null ? ScheduleStore.minutes(legsBefore) : Integer.MAX_VALUE;
+        earliest[origin] = start;
+
+        for (int i = t.firstDepartureOverall(start); i < t.size; i++) {
+            int departure = t.departure[i];
+            if (departure >= scanEnd || earliest[target] <= departure || !budget.spend()) break;
+
+            int from = t.origin[i];
+            if (earliest[from] == UNREACHED) continue;
+            if (from == origin && departure >= end) continue;
+            // No connection time is needed before the first flight
+            long ready = from == origin ? earliest[from] : (long) earliest[from] + minConnectionMinutes;
+            if (departure < ready) continue;
+
+            if (legs[from] >= maxLegs) continue;
+            if (filter != null && !filter.allowsLeg(firstLeg[from], inConnection[from], i)) continue;
+            int first = from == origin ? i : firstLeg[from];
+
+            int to = t.destination[i];
+            if (to == target && filter != null && !filter.arrivesInWindow(first, i)) continue;
+            if (to != origin && t.arrival[i] < earliest[to]) {
+                earliest[to] = t.arrival[i];
+                inConnection[to] = i;
+                firstLeg[to] = first;
+                legs[to] = legs[from] + 1;
+            }
+        }
+
+        if (inConnection[target] < 0) return Optional.empty();
+        LinkedList<Flight> journey = new LinkedList<>();
+        for (int stop = target; stop != origin; stop = t.origin[inConnection[stop]]) {
+            journey.addFirst(t.flight(inConnection[stop]));
+        }
+        return Optional.of(new ArrayList<>(journey));
+    }
+
+    // Profile query: the latest departure from the origin that still arrives by the given time
+    public Optional<List<Flight>> latestDeparture(FlightNetworkSnapshot network, String startAirport, String destinationAirport,
+                                                  LocalDateTime arriveBy, int minConnectionMinutes) {
+        ScheduleStore t = network.schedule();
+        int origin = t.airportId(startAirport);
+        int target = t.airportId(destinationAirport);
+        if (origin == ScheduleStore.UNKNOWN || target == ScheduleStore.UNKNOWN || origin == target) return Optional.empty();
+
+        int[] latest = new int[t.airportCount];
+        int[] outConnection = new int[t.airportCount];
+        Arrays.fill(latest, UNSET);
+        Arrays.fill(outConnection, -1);
+        latest[target] = ScheduleStore.minutes(arriveBy);
+
+        // Scan backwards in arrival order
+        for (int k = t.lastArrival(latest[target]); k >= 0; k--) {
+            int i = t.byArrival[k];
+            if (latest[origin] != UNSET && t.arrival[i] <= latest[origin]) break;
+
+            int to = t.destination[i];
+            if (latest[to] == UNSET) continue;
+            // No connection time is needed after the last flight
+            long deadline = to == target ? latest[to] : (long) latest[to] - minConnectionMinutes;
+            if (t.arrival[i] > deadline) continue;
+
+            int from = t.origin[i];
+            if (from != target && t.departure[i] > latest[from]) {
+                latest[from] = t.departure[i];
+                outConnection[from] = i;
+            }
+        }
+
+        if (outConnection[origin] < 0) return Optional.empty();
+        List<Flight> journey = new ArrayList<>();
+        for (int stop = origin; stop != target; stop = t.destination[outConnection[stop]]) {
+            journey.add(t.flight(outConnection[stop]));
+        }
+        return Optional.of(journey);
+    }
+}
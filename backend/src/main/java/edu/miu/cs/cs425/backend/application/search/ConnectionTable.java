@@ -0,0 +1,289 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+// Precomputed 1-stop (leg1, leg2) and 2-stop (leg1, leg2, leg3) connections per origin, destination
+// and day, so connecting-flight search is a lookup instead of a re-scan of second legs.
+// A connection follows the search rules: every leg departs on the day of the first leg, each layover
+// is more than 30 minutes and less than 6 hours, and no airport is visited twice.
+// A reverse index from flight id to connections lets a single write be patched in place.
+// The full build reads layover windows from the ScheduleStore's per-airport departure and arrival arrays,
+// so each lookup is two binary searches plus the matches instead of a scan of the day. A patch reads the
+// same windows from the snapshot's per-airport lists, so a write does not build a new ScheduleStore.
+@Component
+public class ConnectionTable implements SearchEngine {
+
+    private static final int MIN_LAYOVER_MINUTES = 30;
+    private static final int MAX_LAYOVER_MINUTES = 6 * 60;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, List<Flight[]>> connectionsByRoute = new HashMap<>();
+    private final Map<String, Set<Flight[]>> connectionsByFlight = new HashMap<>();
+    // Version of the newest snapshot built from or patched in; -1 until the first build
+    private long version = -1;
+
+    @Override
+    public String name() {
+        return "connections";
+    }
+
+    // Direct flights, then 1-stop and (with maxLegs 3) 2-stop connections; connections need a date.
+    // Search constraints can only narrow the precomputed layover window; they are checked per connection.
+    @Override
+    public List<List<Flight>> search(FlightNetworkSnapshot network, RouteRequest request) {
+        ConstraintFilter filter = request.constraints().isEmpty() ? null : request.constraints().filter(network.schedule());
+        List<List<Flight>> paths = new ArrayList<>();
+        for (Flight flight : network.departuresOn(request.origin(), request.date())) {
+            if (flight.getDestination().getIataCode().equals(request.destination())) {
+                addIfAllowed(paths, Collections.singletonList(flight), network, filter);
+            }
+        }
+        if (request.date() != null) {
+            for (int legs = 2; legs <= Math.min(request.maxLegs(), 3); legs++) {
+                for (List<Flight> path : connections(network, request.origin(), request.destination(), request.date(), legs)) {
+                    addIfAllowed(paths, path, network, filter);
+                }
+            }
+        }
+        return paths;
+    }
+
+    // Connections with the given number of legs (2 or 3), ordered like a scan over departures.
+    // The table may be ahead of the given snapshot; search() drops the connections it does not contain.
+    public List<List<Flight>> connections(FlightNetworkSnapshot network, String origin, String destination,
+                                          LocalDate date, int legs) {
+        List<Flight[]> found;
+        synchronized (this) {
+            // Only before the startup build, e.g. in tests. Writes never skip the table (see onFlightSaved),
+            // so every write missing from this snapshot is still to be patched in.
+            if (version < 0) rebuild(network);
+            found = new ArrayList<>(connectionsByRoute.getOrDefault(key(origin, destination, date), Collections.emptyList()));
+        }
+
+        List<List<Flight>> paths = new ArrayList<>();
+        for (Flight[] connection : found) {
+            if (connection.length == legs) paths.add(Arrays.asList(connection));
+        }
+        paths.sort(ConnectionTable::compareByDepartures);
+        return paths;
+    }
+
+    // Full build from the given snapshot, unless the table already reflects a newer one
+    public synchronized void rebuild(FlightNetworkSnapshot network) {
+        if (network.getVersion() < version) return;
+        connectionsByRoute.clear();
+        connectionsByFlight.clear();
+        ScheduleStore t = network.schedule();
+        for (int first = 0; first < t.size; first++) {
+            for (int second : nextLegs(t, first)) {
+                add(t, first, second);
+                for (int third : nextLegs(t, second)) {
+                    add(t, first, second, third);
+                }
+            }
+        }
+        version = network.getVersion();
+    }
+
+    // Full build from the index's current snapshot. The snapshot is read under the table's lock, so a write
+    // landing meanwhile is either in it or patched in afterwards, on top of this build.
+    public synchronized void rebuild(FlightNetworkIndex index) {
+        rebuild(index.snapshot());
+    }
+
+    // Re-derives every connection the flight takes part in. The network must be the index's current
+    // snapshot, taken after the write. A table that is not built yet is built from it, which includes the write.
+    public synchronized void onFlightSaved(Flight flight, FlightNetworkSnapshot network) {
+        if (version < 0) {
+            rebuild(network);
+            return;
+        }
+        remove(flight.getId());
+        version = Math.max(version, network.getVersion());
+        Flight saved = network.findById(flight.getId()).orElse(null);
+        if (saved == null) return;
+
+        // As first leg
+        for (Flight second : nextLegs(network, saved)) {
+            add(saved, second);
+            for (Flight third : nextLegs(network, second)) {
+                add(saved, second, third);
+            }
+        }
+        // As second leg
+        for (Flight first : previousLegs(network, saved)) {
+            add(first, saved);
+            for (Flight third : nextLegs(network, saved)) {
+                add(first, saved, third);
+            }
+        }
+        // As third leg
+        for (Flight second : previousLegs(network, saved)) {
+            for (Flight first : previousLegs(network, second)) {
+                add(first, second, saved);
+            }
+        }
+    }
+
+    // Same contract as onFlightSaved: the network is the current snapshot, which no longer has the flight
+    public synchronized void onFlightDeleted(String flightId, FlightNetworkSnapshot network) {
+        if (version < 0) {
+            rebuild(network);
+            return;
+        }
+        remove(flightId);
+        version = Math.max(version, network.getVersion());
+    }
+
+    // Helper Methods
+    // Connections can hold flights the caller's snapshot does not have (yet); those are skipped
+    private static void addIfAllowed(List<List<Flight>> paths, List<Flight> path, FlightNetworkSnapshot network,
+                                     ConstraintFilter filter) {
+        for (Flight leg : path) {
+            if (network.findById(leg.getId()).orElse(null) != leg) return;
+        }
+        if (filter != null) {
+            int[] legs = new int[path.size()];
+            for (int leg = 0; leg < legs.length; leg++) {
+                legs[leg] = filter.indexOf(path.get(leg));
+                if (legs[leg] == ScheduleStore.UNKNOWN) return;
+            }
+            if (!filter.allows(legs)) return;
+        }
+        paths.add(path);
+    }
+
+    // Flights that can follow the given one: departures from its destination in
+    // (arrival + 30 min, min(arrival + 6 h, end of its departure day)), found with two binary searches
+    private static int[] nextLegs(ScheduleStore t, int flight) {
+        int airport = t.destination[flight];
+        int from = t.arrival[flight] + MIN_LAYOVER_MINUTES + 1;
+        int to = Math.min(t.arrival[flight] + MAX_LAYOVER_MINUTES, startOfDay(t.departure[flight]) + MINUTES_PER_DAY);
+        if (from >= to) return NONE;
+        return Arrays.copyOfRange(t.byOrigin, t.firstDeparture(airport, from), t.firstDeparture(airport, to));
+    }
+
+    // Flights the given one can follow: arrivals at its origin in (departure - 6 h, departure - 30 min)
+    // that departed on the same day
+    private static int[] previousLegs(ScheduleStore t, int flight) {
+        int airport = t.origin[flight];
+        int day = startOfDay(t.departure[flight]);
+        int begin = t.firstArrival(airport, t.departure[flight] - MAX_LAYOVER_MINUTES + 1);
+        int end = t.firstArrival(airport, t.departure[flight] - MIN_LAYOVER_MINUTES);
+        int[] previous = new int[Math.max(0, end - begin)];
+        int count = 0;
+        for (int pos = begin; pos < end; pos++) {
+            int candidate = t.byDestination[pos];
+            if (startOfDay(t.departure[candidate]) == day) previous[count++] = candidate;
+        }
+        return count == previous.length ? previous : Arrays.copyOf(previous, count);
+    }
+
+    // Patch-time forms of nextLegs and previousLegs, on the snapshot's sorted per-airport lists.
+    // The bounds are whole minutes, so they select exactly what the ScheduleStore forms select.
+    private static List<Flight> nextLegs(FlightNetworkSnapshot network, Flight flight) {
+        int arrival = ScheduleStore.minutes(flight.getArrival());
+        int from = arrival + MIN_LAYOVER_MINUTES + 1;
+        int to = Math.min(arrival + MAX_LAYOVER_MINUTES, startOfDay(ScheduleStore.minutes(flight.getDeparture())) + MINUTES_PER_DAY);
+        if (from >= to) return Collections.emptyList();
+        return network.departures(flight.getDestination().getIataCode(), time(from), time(to));
+    }
+
+    private static List<Flight> previousLegs(FlightNetworkSnapshot network, Flight flight) {
+        int departure = ScheduleStore.minutes(flight.getDeparture());
+        int day = startOfDay(departure);
+        List<Flight> previous = new ArrayList<>();
+        for (Flight candidate : network.arrivals(flight.getOrigin().getIataCode(),
+                time(departure - MAX_LAYOVER_MINUTES + 1), time(departure - MIN_LAYOVER_MINUTES))) {
+            if (startOfDay(ScheduleStore.minutes(candidate.getDeparture())) == day) previous.add(candidate);
+        }
+        return previous;
+    }
+
+    private static LocalDateTime time(int minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    private static int startOfDay(int minute) {
+        return Math.floorDiv(minute, MINUTES_PER_DAY) * MINUTES_PER_DAY;
+    }
+
+    private void add(ScheduleStore t, int... indexes) {
+        // No airport may be visited twice
+        for (int a = 0; a < indexes.length; a++) {
+            if (t.destination[indexes[a]] == t.origin[indexes[0]]) return;
+            for (int b = a + 1; b < indexes.length; b++) {
+                if (t.destination[indexes[a]] == t.destination[indexes[b]]) return;
+            }
+        }
+
+        Flight[] legs = new Flight[indexes.length];
+        for (int leg = 0; leg < indexes.length; leg++) {
+            legs[leg] = t.flight(indexes[leg]);
+        }
+        store(legs);
+    }
+
+    private void add(Flight... legs) {
+        // No airport may be visited twice
+        for (int a = 0; a < legs.length; a++) {
+            String destination = legs[a].getDestination().getIataCode();
+            if (destination.equals(legs[0].getOrigin().getIataCode())) return;
+            for (int b = a + 1; b < legs.length; b++) {
+                if (destination.equals(legs[b].getDestination().getIataCode())) return;
+            }
+        }
+        store(legs);
+    }
+
+    private void store(Flight[] legs) {
+        String key = key(legs[0].getOrigin().getIataCode(), legs[legs.length - 1].getDestination().getIataCode(),
+                legs[0].getDeparture().toLocalDate());
+        connectionsByRoute.computeIfAbsent(key, k -> new ArrayList<>()).add(legs);
+        for (Flight leg : legs) {
+            connectionsByFlight.computeIfAbsent(leg.getId(), k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(legs);
+        }
+    }
+
+    private void remove(String flightId) {
+        Set<Flight[]> affected = connectionsByFlight.remove(flightId);
+        if (affected == null) return;
+        for (Flight[] legs : affected) {
+            String key = key(legs[0].getOrigin().getIataCode(), legs[legs.length - 1].getDestination().getIataCode(),
+                    legs[0].getDeparture().toLocalDate());
+            List<Flight[]> route = connectionsByRoute.get(key);
+            if (route != null) {
+                route.removeIf(connection -> connection == legs);
+                if (route.isEmpty()) connectionsByRoute.remove(key);
+            }
+            for (Flight leg : legs) {
+                Set<Flight[]> other = connectionsByFlight.get(leg.getId());
+                if (other != null) {
+                    other.remove(legs);
+                    if (other.isEmpty()) connectionsByFlight.remove(leg.getId());
+                }
+            }
+        }
+    }
+
+    private static String key(String origin, String destination, LocalDate date) {
+        return origin + "|" + destination + "|" + date;
+    }
+
+    // Same order as nested scans over departures: by each leg's departure, then id
+    private static int compareByDepartures(List<Flight> a, List<Flight> b) {
+        for (int i = 0; i < a.size(); i++) {
+            int compare = a.get(i).getDeparture().compareTo(b.get(i).getDeparture());
+            if (compare == 0) compare = a.get(i).getId().compareTo(b.get(i).getId());
+            if (compare != 0) return compare;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,118 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+
+import java.time.LocalTime;
+
+// SearchConstraints bound to one ScheduleStore: carriers become a bitmask over its interned airline ids
+// and times become minute offsets, so every check in an expansion loop is a few int compares.
+final class ConstraintFilter {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final ScheduleStore t;
+    // Bit per airline id; null when every airline is allowed
+    private final long[] airlines;
+    private final boolean unknownAirlineAllowed;
+    private final int minConnection;
+    private final int maxConnection;
+    // Minutes from midnight of the first departure's day
+    private final int departAfter;
+    private final int departBefore;
+    private final int arriveAfter;
+    private final int arriveBefore;
+
+    ConstraintFilter(SearchConstraints constraints, ScheduleStore t) {
+        this.t = t;
+        this.airlines = airlineMask(constraints, t);
+        this.unknownAirlineAllowed = constraints.includedAirlines().isEmpty();
+        this.minConnection = constraints.minConnectionMinutes() != null ? constraints.minConnectionMinutes() : 0;
+        this.maxConnection = constraints.maxConnectionMinutes() != null ? constraints.maxConnectionMinutes() : Integer.MAX_VALUE;
+        this.departAfter = minuteOfDay(constraints.departAfter(), 0);
+        this.departBefore = minuteOfDay(constraints.departBefore(), Integer.MAX_VALUE);
+        this.arriveAfter = minuteOfDay(constraints.arriveAfter(), Integer.MIN_VALUE);
+        this.arriveBefore = minuteOfDay(constraints.arriveBefore(), Integer.MAX_VALUE);
+    }
+
+    // With an upper bound on layovers, landing earlier no longer makes a partial path at least as good
+    boolean boundsConnections() {
+        return maxConnection != Integer.MAX_VALUE;
+    }
+
+    // Earliest departure that may follow a leg landing at the minute, given the engine's own earliest
+    int earliestConnection(int arrival, int engineEarliest) {
+        return Math.max(engineEarliest, arrival + minConnection);
+    }
+
+    // Departures after this minute cannot follow a leg landing at the given minute
+    int latestConnection(int arrival) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) arrival + maxConnection);
+    }
+
+    // Whether the flight may come after previous (-1 for the first leg) on a path starting with firstLeg.
+    // The arrival bound is checked on every leg since later legs only land later.
+    boolean allowsLeg(int firstLeg, int previous, int flight) {
+        if (airlines != null && !allowsAirline(t.airline[flight])) return false;
+        if (previous < 0) {
+            int departure = t.departure[flight] - startOfDay(t.departure[flight]);
+            if (departure < departAfter || departure > departBefore) return false;
+        } else {
+            int layover = t.departure[flight] - t.arrival[previous];
+            if (layover < minConnection || layover > maxConnection) return false;
+        }
+        int start = previous < 0 ? flight : firstLeg;
+        return t.arrival[flight] - startOfDay(t.departure[start]) <= arriveBefore;
+    }
+
+    // The remaining check once the destination is reached
+    boolean arrivesInWindow(int firstLeg, int lastLeg) {
+        return t.arrival[lastLeg] - startOfDay(t.departure[firstLeg]) >= arriveAfter;
+    }
+
+    // Schedule index of a Flight, for engines that walk Flight lists
+    int indexOf(Flight flight) {
+        return t.indexOf(flight.getId());
+    }
+
+    // Whole-path form for engines that look paths up instead of expanding them
+    boolean allows(int[] path) {
+        for (int leg = 0; leg < path.length; leg++) {
+            if (!allowsLeg(path[0], leg == 0 ? -1 : path[leg - 1], path[leg])) return false;
+        }
+        return path.length > 0 && arrivesInWindow(path[0], path[path.length - 1]);
+    }
+
+    // Helper Methods
+    private boolean allowsAirline(int airline) {
+        if (airline == ScheduleStore.UNKNOWN) return unknownAirlineAllowed;
+        return (airlines[airline >>> 6] & (1L << airline)) != 0;
+    }
+
+    private static long[] airlineMask(SearchConstraints constraints, ScheduleStore t) {
+        if (constraints.includedAirlines().isEmpty() && constraints.excludedAirlines().isEmpty()) return null;
+        long[] mask = new long[Math.max(1, (t.airlineCount() + 63) >>> 6)];
+        if (constraints.includedAirlines().isEmpty()) {
+            for (int airline = 0; airline < t.airlineCount(); airline++) {
+                mask[airline >>> 6] |= 1L << airline;
+            }
+        }
+        // Carriers that fly nothing in this schedule have no id and need no bit
+        for (String code : constraints.includedAirlines()) {
+            int airline = t.airlineId(code);
+            if (airline != ScheduleStore.UNKNOWN) mask[airline >>> 6] |= 1L << airline;
+        }
+        for (String code : constraints.excludedAirlines()) {
+            int airline = t.airlineId(code);
+            if (airline != ScheduleStore.UNKNOWN) mask[airline >>> 6] &= ~(1L << airline);
+        }
+        return mask;
+    }
+
+    private static int minuteOfDay(LocalTime time, int unbounded) {
+        return time != null ? time.getHour() * 60 + time.getMinute() : unbounded;
+    }
+
+    private static int startOfDay(int minute) {
+        return Math.floorDiv(minute, MINUTES_PER_DAY) * MINUTES_PER_DAY;
+    }
+}
@@ -0,0 +1,204 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Exhaustive route search: enumerates every path from the origin to the destination on one date.
+// When the origin has many first legs, each first-leg subtree is searched as its own fork/join task.
+// Search constraints are checked on every leg before the DFS descends into it; an unconstrained search
+// skips the checks and never builds the snapshot's ScheduleStore. Every flight examined spends one unit
+// of the request's budget; once it runs out the search unwinds with the paths found so far.
+@Component
+public class DepthFirstRouteSearch implements SearchEngine {
+
+    // Minimum number of first legs before the search goes parallel; 0 keeps it sequential
+    @Value("${search.dfs.parallel-threshold:0}")
+    private int parallelThreshold;
+
+    @Override
+    public String name() {
+        return "dfs";
+    }
+
+    @Override
+    public List<List<Flight>> search(FlightNetworkSnapshot network, RouteRequest request) {
+        return findPaths(network, request.date(), request.origin(), request.destination(), request.maxLegs(),
+                filter(network, request.constraints()), request.budget());
+    }
+
+    public List<List<Flight>> findPaths(FlightNetworkSnapshot network, LocalDate date, String startAirport,
+                                        String destinationAirport, int maxLegs) {
+        return findPaths(network, date, startAirport, destinationAirport, maxLegs, null, SearchBudget.unlimited());
+    }
+
+    private List<List<Flight>> findPaths(FlightNetworkSnapshot network, LocalDate date, String startAirport,
+                                         String destinationAirport, int maxLegs, ConstraintFilter filter, SearchBudget budget) {
+        List<Flight> firstLegs = network.departuresOn(startAirport, date);
+        if (parallelThreshold > 0 && firstLegs.size() >= parallelThreshold) {
+            return findPathsParallel(network, date, startAirport, destinationAirport, firstLegs, maxLegs, filter, budget);
+        }
+
+        List<List<Flight>> allPaths = new ArrayList<>();
+        Set<String> visited = new HashSet<>();
+        findPathsDFS(network, date, startAirport, destinationAirport, new ArrayList<>(), allPaths::add, visited, maxLegs,
+                filter, budget);
+        return allPaths;
+    }
+
+    // Same paths in the same order as the sequential search: branch results are merged in first-leg order
+    private List<List<Flight>> findPathsParallel(FlightNetworkSnapshot network, LocalDate date, String startAirport,
+                                                 String destinationAirport, List<Flight> firstLegs, int maxLegs,
+                                                 ConstraintFilter filter, SearchBudget budget) {
+        List<BranchTask> branches = new ArrayList<>();
+        for (Flight firstLeg : firstLegs) {
+            if (allowsLeg(filter, Collections.emptyList(), firstLeg)) {
+                branches.add(new BranchTask(network, date, firstLeg, destinationAirport, maxLegs, filter, budget));
+            }
+        }
+        ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(branches);
+            }
+        });
+
+        List<List<Flight>> allPaths = new ArrayList<>();
+        for (BranchTask branch : branches) {
+            allPaths.addAll(branch.join());
+        }
+        // Direct flights are added once more at the root, as in findPathsDFS
+        for (Flight direct : firstLegs) {
+            if (direct.getDestination().getIataCode().equals(destinationAirport) && allowsDirect(filter, direct)) {
+                allPaths.add(Collections.singletonList(direct));
+            }
+        }
+        return allPaths;
+    }
+
+    // Sequential search that hands every path to the sink as soon as it is found.
+    // The sink returns false to stop the search, e.g. when a streaming client has gone away.
+    public void findPaths(FlightNetworkSnapshot network, RouteRequest request, Predicate<List<Flight>> sink) {
+        findPathsDFS(network, request.date(), request.origin(), request.destination(), new ArrayList<>(), sink,
+                new HashSet<>(), request.maxLegs(), filter(network, request.constraints()), request.budget());
+    }
+
+    // Returns false once the sink has asked to stop or the budget has run out
+    private boolean findPathsDFS(FlightNetworkSnapshot network, LocalDate date, String currentAirport, String destinationAirport,
+                                 List<Flight> currentPath, Predicate<List<Flight>> sink, Set<String> visited, int maxLegs,
+                                 ConstraintFilter filter, SearchBudget budget) {
+        // A full path cannot take another leg: paths have at most maxLegs legs, like every other engine
+        if (currentPath.size() >= maxLegs) return true;
+
+        // Explore all flights from currentAirport
+        List<Flight> flights = network.departuresOn(currentAirport, date);
+        for (Flight flight : flights) {
+            if (!budget.spend()) return false;
+            String nextAirport = flight.getDestination().getIataCode();
+            if (visited.contains(nextAirport)) continue;
+            if (!currentPath.isEmpty()) {
+                LocalDateTime lastArrival = currentPath.get(currentPath.size() - 1).getArrival();
+                if (!flight.getDeparture().isAfter(lastArrival)) continue;
+            }
+            if (!allowsLeg(filter, currentPath, flight)) continue;
+            boolean arrived = nextAirport.equals(destinationAirport) && arrivesInWindow(filter, currentPath, flight);
+
+            currentPath.add(flight);
+            visited.add(nextAirport);
+
+            // If we’ve reached the destination, add the path
+            boolean proceed = !arrived || sink.test(new ArrayList<>(currentPath));
+
+            // Continue exploring for more legs
+            if (proceed) {
+                proceed = findPathsDFS(network, date, nextAirport, destinationAirport, currentPath, sink, visited, maxLegs,
+                        filter, budget);
+            }
+
+            currentPath.remove(currentPath.size() - 1);
+            visited.remove(nextAirport);
+            if (!proceed) return false;
+        }
+
+        // Add direct flights only when starting from startAirport
+        if (currentPath.isEmpty()) {
+            List<Flight> directFlights = network.departuresOn(currentAirport, date)
+                    .stream()
+                    .filter(f -> f.getDestination().getIataCode().equals(destinationAirport) && allowsDirect(filter, f))
+                    .collect(Collectors.toList());
+            for (Flight direct : directFlights) {
+                if (!sink.test(Collections.singletonList(direct))) return false;
+            }
+        }
+        return true;
+    }
+
+    // Null for an unconstrained search
+    private static ConstraintFilter filter(FlightNetworkSnapshot network, SearchConstraints constraints) {
+        return constraints.isEmpty() ? null : constraints.filter(network.schedule());
+    }
+
+    private static boolean allowsLeg(ConstraintFilter filter, List<Flight> currentPath, Flight flight) {
+        if (filter == null) return true;
+        if (currentPath.isEmpty()) return filter.allowsLeg(-1, -1, filter.indexOf(flight));
+        return filter.allowsLeg(filter.indexOf(currentPath.get(0)), filter.indexOf(currentPath.get(currentPath.size() - 1)),
+                filter.indexOf(flight));
+    }
+
+    private static boolean arrivesInWindow(ConstraintFilter filter, List<Flight> currentPath, Flight lastLeg) {
+        if (filter == null) return true;
+        Flight firstLeg = currentPath.isEmpty() ? lastLeg : currentPath.get(0);
+        return filter.arrivesInWindow(filter.indexOf(firstLeg), filter.indexOf(lastLeg));
+    }
+
+    private static boolean allowsDirect(ConstraintFilter filter, Flight flight) {
+        return allowsLeg(filter, Collections.emptyList(), flight) && arrivesInWindow(filter, Collections.emptyList(), flight);
+    }
+
+    // All paths that start with one first leg, with its own path and visited set
+    private final class BranchTask extends RecursiveTask<List<List<Flight>>> {
+        private final FlightNetworkSnapshot network;
+        private final LocalDate date;
+        private final Flight firstLeg;
+        private final String destinationAirport;
+        private final int maxLegs;
+        private final ConstraintFilter filter;
+        private final SearchBudget budget;
+
+        private BranchTask(FlightNetworkSnapshot network, LocalDate date, Flight firstLeg, String destinationAirport, int maxLegs,
+                           ConstraintFilter filter, SearchBudget budget) {
+            this.network = network;
+            this.date = date;
+            this.firstLeg = firstLeg;
+            this.destinationAirport = destinationAirport;
+            this.maxLegs = maxLegs;
+            this.filter = filter;
+            this.budget = budget;
+        }
+
+        @Override
+        protected List<List<Flight>> compute() {
+            List<List<Flight>> paths = new ArrayList<>();
+            String nextAirport = firstLeg.getDestination().getIataCode();
+            List<Flight> currentPath = new ArrayList<>();
+            currentPath.add(firstLeg);
+            Set<String> visited = new HashSet<>();
+            visited.add(nextAirport);
+
+            if (nextAirport.equals(destinationAirport) && arrivesInWindow(filter, Collections.emptyList(), firstLeg)) {
+                paths.add(new ArrayList<>(currentPath));
+            }
+            findPathsDFS(network, date, nextAirport, destinationAirport, currentPath, paths::add, visited, maxLegs, filter, budget);
+            return paths;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Non-stop flights only, in departure order. Constraints are only compiled when the request has any.
+@Component
+public class DirectFlightSearch implements SearchEngine {
+
+    @Override
+    public String name() {
+        return "direct";
+    }
+
+    @Override
+    public List<List<Flight>> search(FlightNetworkSnapshot network, RouteRequest request) {
+        ConstraintFilter filter = request.constraints().isEmpty() ? null : request.constraints().filter(network.schedule());
+        List<List<Flight>> paths = new ArrayList<>();
+        for (Flight flight : network.departuresOn(request.origin(), request.date())) {
+            if (flight.getDestination().getIataCode().equals(request.destination())
+                    && (filter == null || filter.allows(new int[]{filter.indexOf(flight)}))) {
+                paths.add(Collections.singletonList(flight));
+            }
+        }
+        return paths;
+    }
+}
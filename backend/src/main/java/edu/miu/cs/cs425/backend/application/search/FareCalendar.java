@@ -0,0 +1,137 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Itinerary;
+import edu.miu.cs.cs425.backend.dto.FareCalendarDay;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Per-day cheapest price and fastest duration for a route over a date window, computed in one
+// sweep over the window's departures in the ScheduleStore instead of one search per day.
+// Itineraries follow the connecting rules of the search handlers: direct flights, plus one stop
+// with both legs on the same day and a layover of more than 30 minutes and less than 6 hours.
+// Prices include the multi-leg discount of Itinerary.calculateTotals.
+// Days are cached per route until the schedule version changes.
+@Component
+public class FareCalendar {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int MIN_LAYOVER_MINUTES = 30;
+    private static final int MAX_LAYOVER_MINUTES = 6 * 60;
+
+    private final Map<String, RouteDays> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Value("${search.calendar.cached-routes:256}")
+    private int maxCachedRoutes;
+
+    public List<FareCalendarDay> calendar(FlightNetworkSnapshot network, String startAirport, String destinationAirport,
+                                          LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Calendar window starts after it ends");
+        }
+        String route = startAirport + "|" + destinationAirport;
+
+        RouteDays days;
+        synchronized (this) {
+            days = cache.get(route);
+            if (days == null || days.version != network.getVersion()) {
+                days = new RouteDays(network.getVersion());
+                cache.put(route, days);
+                evictOverflow();
+            }
+        }
+
+        synchronized (days) {
+            // Only sweep the part of the window that has not been computed yet
+            LocalDate firstMissing = null;
+            LocalDate lastMissing = null;
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                if (!days.byDate.containsKey(date)) {
+                    if (firstMissing == null) firstMissing = date;
+                    lastMissing = date;
+                }
+            }
+            if (firstMissing != null) {
+                days.byDate.putAll(sweep(network.schedule(), startAirport, destinationAirport, firstMissing, lastMissing));
+            }
+
+            List<FareCalendarDay> calendar = new ArrayList<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                calendar.add(days.byDate.get(date));
+            }
+            return calendar;
+        }
+    }
+
+    // Helper Methods
+    private static Map<LocalDate, FareCalendarDay> sweep(ScheduleStore t, String startAirport, String destinationAirport,
+                                                         LocalDate from, LocalDate to) {
+        int dayCount = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        double[] cheapest = new double[dayCount];
+        int[] fastest = new int[dayCount];
+        Arrays.fill(cheapest, Double.POSITIVE_INFINITY);
+        Arrays.fill(fastest, Integer.MAX_VALUE);
+
+        int origin = t.airportId(startAirport);
+        int target = t.airportId(destinationAirport);
+        if (origin != ScheduleStore.UNKNOWN && target != ScheduleStore.UNKNOWN && origin != target) {
+            int windowStart = ScheduleStore.minutes(from.atStartOfDay());
+            int windowEnd = ScheduleStore.minutes(to.plusDays(1).atStartOfDay());
+            // First legs out of the origin, grouped by the airport they land at
+            Map<Integer, List<Integer>> firstLegsByAirport = new HashMap<>();
+
+            // Departure order guarantees every first leg is seen before the flights it connects to
+            for (int i = t.firstDepartureOverall(windowStart); i < t.size && t.departure[i] < windowEnd; i++) {
+                int day = (t.departure[i] - windowStart) / MINUTES_PER_DAY;
+                if (t.origin[i] == origin) {
+                    if (t.destination[i] == target) {
+                        record(cheapest, fastest, day, Itinerary.discountedPrice(t.price[i], 1), t.duration[i]);
+                    } else {
+                        firstLegsByAirport.computeIfAbsent(t.destination[i], k -> new ArrayList<>()).add(i);
+                    }
+                } else if (t.destination[i] == target) {
+                    for (int first : firstLegsByAirport.getOrDefault(t.origin[i], Collections.emptyList())) {
+                        int layover = t.departure[i] - t.arrival[first];
+                        boolean sameDay = (t.departure[first] - windowStart) / MINUTES_PER_DAY == day;
+                        if (sameDay && layover > MIN_LAYOVER_MINUTES && layover < MAX_LAYOVER_MINUTES) {
+                            record(cheapest, fastest, day, Itinerary.discountedPrice(t.price[first] + t.price[i], 2),
+                                    t.duration[first] + t.duration[i]);
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<LocalDate, FareCalendarDay> days = new HashMap<>();
+        for (int day = 0; day < dayCount; day++) {
+            days.put(from.plusDays(day), new FareCalendarDay(from.plusDays(day),
+                    cheapest[day] == Double.POSITIVE_INFINITY ? null : cheapest[day],
+                    fastest[day] == Integer.MAX_VALUE ? null : fastest[day]));
+        }
+        return days;
+    }
+
+    private static void record(double[] cheapest, int[] fastest, int day, double price, int duration) {
+        cheapest[day] = Math.min(cheapest[day], price);
+        fastest[day] = Math.min(fastest[day], duration);
+    }
+
+    private void evictOverflow() {
+        Iterator<RouteDays> eldest = cache.values().iterator();
+        while (cache.size() > maxCachedRoutes && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static final class RouteDays {
+        private final long version;
+        private final Map<LocalDate, FareCalendarDay> byDate = new HashMap<>();
+
+        private RouteDays(long version) {
+            this.version = version;
+        }
+    }
+}
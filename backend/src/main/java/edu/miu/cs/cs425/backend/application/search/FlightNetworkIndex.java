@@ -0,0 +1,63 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.data.repository.FlightRepository;
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// Long-lived in-memory index of the flight network used by all route searches.
+// Built once from the database and patched on every write made through FlightService.
+@Component
+public class FlightNetworkIndex {
+
+    private final FlightRepository flightRepository;
+    private final Object writeLock = new Object();
+    private volatile FlightNetworkSnapshot snapshot;
+    private long nextVersion = 1;
+
+    public FlightNetworkIndex(FlightRepository flightRepository) {
+        this.flightRepository = flightRepository;
+    }
+
+    // Reload after the data initializer has populated the schedule, before other startup listeners read it
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void rebuild() {
+        synchronized (writeLock) {
+            snapshot = FlightNetworkSnapshot.build(flightRepository.findAllWithRoute(), nextVersion++);
+        }
+    }
+
+    // Current schedule; searches should read it once and work against that view
+    public FlightNetworkSnapshot snapshot() {
+        FlightNetworkSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (writeLock) {
+                if (snapshot == null) {
+                    snapshot = FlightNetworkSnapshot.build(flightRepository.findAllWithRoute(), nextVersion++);
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    public long version() {
+        return snapshot().getVersion();
+    }
+
+    public void onFlightSaved(Flight flight) {
+        synchronized (writeLock) {
+            snapshot = snapshot().withFlight(flight, nextVersion++);
+        }
+    }
+
+    public void onFlightDeleted(String flightId) {
+        synchronized (writeLock) {
+            snapshot = snapshot().without(flightId, nextVersion++);
+        }
+    }
+}
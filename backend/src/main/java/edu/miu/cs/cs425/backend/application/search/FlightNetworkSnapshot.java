@@ -0,0 +1,217 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+// Immutable view of the flight schedule: flights grouped by origin airport and sorted by departure, and
+// by destination airport and sorted by arrival.
+// Writers never mutate a snapshot, they derive a new one with a higher version (copy-on-write).
+public class FlightNetworkSnapshot {
+
+    private static final Comparator<Flight> BY_DEPARTURE =
+            Comparator.comparing(Flight::getDeparture).thenComparing(Flight::getId);
+    private static final Comparator<Flight> BY_ARRIVAL =
+            Comparator.comparing(Flight::getArrival).thenComparing(Flight::getId);
+
+    private final long version;
+    private final Map<String, List<Flight>> departuresByOrigin;
+    private final Map<String, List<Flight>> arrivalsByDestination;
+    private final Map<String, Flight> flightsById;
+    private final List<Flight> allFlights;
+    // Columnar copy for the search engines, built on first use
+    private volatile ScheduleStore schedule;
+
+    private FlightNetworkSnapshot(long version, Map<String, List<Flight>> departuresByOrigin,
+                                  Map<String, List<Flight>> arrivalsByDestination, Map<String, Flight> flightsById,
+                                  List<Flight> allFlights) {
+        this.version = version;
+        this.departuresByOrigin = departuresByOrigin;
+        this.arrivalsByDestination = arrivalsByDestination;
+        this.flightsById = flightsById;
+        this.allFlights = allFlights;
+    }
+
+    public static FlightNetworkSnapshot build(Collection<Flight> flights, long version) {
+        Map<String, List<Flight>> byOrigin = new HashMap<>();
+        Map<String, List<Flight>> byDestination = new HashMap<>();
+        Map<String, Flight> byId = new HashMap<>();
+        List<Flight> all = new ArrayList<>();
+        for (Flight flight : flights) {
+            if (!isIndexable(flight)) continue;
+            byOrigin.computeIfAbsent(originOf(flight), k -> new ArrayList<>()).add(flight);
+            byDestination.computeIfAbsent(destinationOf(flight), k -> new ArrayList<>()).add(flight);
+            byId.put(flight.getId(), flight);
+            all.add(flight);
+        }
+        all.sort(BY_DEPARTURE);
+        return new FlightNetworkSnapshot(version, sortedGroups(byOrigin, BY_DEPARTURE),
+                sortedGroups(byDestination, BY_ARRIVAL), byId, Collections.unmodifiableList(all));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return allFlights.size();
+    }
+
+    public Optional<Flight> findById(String id) {
+        return Optional.ofNullable(flightsById.get(id));
+    }
+
+    public List<Flight> allFlights() {
+        return allFlights;
+    }
+
+    public ScheduleStore schedule() {
+        ScheduleStore current = schedule;
+        if (current == null) {
+            synchronized (this) {
+                if (schedule == null) {
+                    schedule = new ScheduleStore(allFlights, version);
+                }
+                current = schedule;
+            }
+        }
+        return current;
+    }
+
+    public Set<String> origins() {
+        return departuresByOrigin.keySet();
+    }
+
+    // All departures from the airport, sorted by departure time
+    public List<Flight> departures(String origin) {
+        return departuresByOrigin.getOrDefault(origin, Collections.emptyList());
+    }
+
+    // Departures from the airport in [from, to); null bounds are open
+    public List<Flight> departures(String origin, LocalDateTime from, LocalDateTime to) {
+        return slice(departures(origin), from, to);
+    }
+
+    // Arrivals at the airport in [from, to), sorted by arrival time; null bounds are open
+    public List<Flight> arrivals(String destination, LocalDateTime from, LocalDateTime to) {
+        List<Flight> sorted = arrivalsByDestination.getOrDefault(destination, Collections.emptyList());
+        int start = from == null ? 0 : lowerBound(sorted, from, Flight::getArrival);
+        int end = to == null ? sorted.size() : lowerBound(sorted, to, Flight::getArrival);
+        return start >= end ? Collections.emptyList() : sorted.subList(start, end);
+    }
+
+    public List<Flight> departuresOn(String origin, LocalDate date) {
+        if (date == null) return departures(origin);
+        return departures(origin, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    // Every flight departing in [from, to); null bounds are open
+    public List<Flight> flightsDepartingBetween(LocalDateTime from, LocalDateTime to) {
+        return slice(allFlights, from, to);
+    }
+
+    public List<Flight> flightsDepartingOn(LocalDate date) {
+        if (date == null) return allFlights;
+        return flightsDepartingBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    // Derives a snapshot in which the given flight replaces any earlier version with the same id
+    public FlightNetworkSnapshot withFlight(Flight flight, long newVersion) {
+        FlightNetworkSnapshot base = without(flight.getId(), newVersion);
+        if (!isIndexable(flight)) return base;
+
+        Map<String, List<Flight>> byOrigin = new HashMap<>(base.departuresByOrigin);
+        byOrigin.put(originOf(flight), insertSorted(byOrigin.get(originOf(flight)), flight, BY_DEPARTURE));
+        Map<String, List<Flight>> byDestination = new HashMap<>(base.arrivalsByDestination);
+        byDestination.put(destinationOf(flight), insertSorted(byDestination.get(destinationOf(flight)), flight, BY_ARRIVAL));
+        Map<String, Flight> byId = new HashMap<>(base.flightsById);
+        byId.put(flight.getId(), flight);
+        return new FlightNetworkSnapshot(newVersion, byOrigin, byDestination, byId,
+                insertSorted(base.allFlights, flight, BY_DEPARTURE));
+    }
+
+    // Derives a snapshot without the flight with the given id
+    public FlightNetworkSnapshot without(String flightId, long newVersion) {
+        Flight existing = flightsById.get(flightId);
+        if (existing == null) {
+            return new FlightNetworkSnapshot(newVersion, departuresByOrigin, arrivalsByDestination, flightsById, allFlights);
+        }
+        Map<String, Flight> byId = new HashMap<>(flightsById);
+        byId.remove(flightId);
+        return new FlightNetworkSnapshot(newVersion, withoutInGroup(departuresByOrigin, originOf(existing), flightId),
+                withoutInGroup(arrivalsByDestination, destinationOf(existing), flightId), byId,
+                removeById(allFlights, flightId));
+    }
+
+    // Helper Methods
+    private static boolean isIndexable(Flight flight) {
+        return flight != null && flight.getId() != null && flight.getDeparture() != null
+                && flight.getArrival() != null && flight.getOrigin() != null && flight.getDestination() != null;
+    }
+
+    private static String originOf(Flight flight) {
+        return flight.getOrigin().getIataCode();
+    }
+
+    private static String destinationOf(Flight flight) {
+        return flight.getDestination().getIataCode();
+    }
+
+    private static Map<String, List<Flight>> sortedGroups(Map<String, List<Flight>> groups, Comparator<Flight> order) {
+        Map<String, List<Flight>> sorted = new HashMap<>();
+        groups.forEach((airport, list) -> {
+            list.sort(order);
+            sorted.put(airport, Collections.unmodifiableList(list));
+        });
+        return sorted;
+    }
+
+    // Copy of the groups in which the airport's group no longer holds the flight
+    private static Map<String, List<Flight>> withoutInGroup(Map<String, List<Flight>> groups, String airport, String flightId) {
+        Map<String, List<Flight>> copy = new HashMap<>(groups);
+        List<Flight> remaining = removeById(copy.get(airport), flightId);
+        if (remaining.isEmpty()) {
+            copy.remove(airport);
+        } else {
+            copy.put(airport, remaining);
+        }
+        return copy;
+    }
+
+    private static List<Flight> slice(List<Flight> sorted, LocalDateTime from, LocalDateTime to) {
+        int start = from == null ? 0 : lowerBound(sorted, from, Flight::getDeparture);
+        int end = to == null ? sorted.size() : lowerBound(sorted, to, Flight::getDeparture);
+        return start >= end ? Collections.emptyList() : sorted.subList(start, end);
+    }
+
+    // First index whose time (departure or arrival, whichever the list is sorted by) is not before the given one
+    private static int lowerBound(List<Flight> sorted, LocalDateTime time, Function<Flight, LocalDateTime> timeOf) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeOf.apply(sorted.get(mid)).isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static List<Flight> insertSorted(List<Flight> sorted, Flight flight, Comparator<Flight> order) {
+        List<Flight> copy = sorted == null ? new ArrayList<>() : new ArrayList<>(sorted);
+        int position = Collections.binarySearch(copy, flight, order);
+        copy.add(position < 0 ? -position - 1 : position, flight);
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static List<Flight> removeById(List<Flight> flights, String flightId) {
+        List<Flight> copy = new ArrayList<>(flights);
+        copy.removeIf(f -> f.getId().equals(flightId));
+        return Collections.unmodifiableList(copy);
+    }
+}
@@ -0,0 +1,144 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+// A*-guided route search over airport coordinates. Partial paths are expanded in order of distance flown
+// plus the great-circle distance still to go, and a path is dropped as soon as that lower bound exceeds
+// maxDetourRatio times the direct distance, so branches heading away from the destination
+// (JFK -> LAX -> ... on the way to LHR) are never explored.
+// Within the bound it returns every simple path of up to maxLegs legs on the date, using the DFS timing
+// rule: a leg departs after the previous one lands. Airports without coordinates add no distance.
+// Search constraints are checked on each leg before its label is queued. Every flight examined spends one
+// unit of the request's budget; when it runs out, the paths completed so far are returned.
+@Component
+public class GeoRouteSearch implements SearchEngine {
+
+    // Longest path allowed as a multiple of the origin-destination distance; 0 disables pruning
+    @Value("${search.geo.max-detour-ratio:1.5}")
+    private double maxDetourRatio;
+
+    @Override
+    public String name() {
+        return "geo";
+    }
+
+    @Override
+    public List<List<Flight>> search(FlightNetworkSnapshot network, RouteRequest request) {
+        return findPaths(network, request.date(), request.origin(), request.destination(), request.maxLegs(), maxDetourRatio,
+                request.constraints(), request.budget());
+    }
+
+    public List<List<Flight>> findPaths(FlightNetworkSnapshot network, LocalDate date, String startAirport,
+                                        String destinationAirport, int maxLegs, double maxDetourRatio) {
+        return findPaths(network, date, startAirport, destinationAirport, maxLegs, maxDetourRatio, SearchConstraints.NONE,
+                SearchBudget.unlimited());
+    }
+
+    public List<List<Flight>> findPaths(FlightNetworkSnapshot network, LocalDate date, String startAirport,
+                                        String destinationAirport, int maxLegs, double maxDetourRatio,
+                                        SearchConstraints constraints, SearchBudget budget) {
+        ScheduleStore t = network.schedule();
+        ConstraintFilter filter = constraints.filter(t);
+        int start = t.airportId(startAirport);
+        int target = t.airportId(destinationAirport);
+        List<List<Flight>> paths = new ArrayList<>();
+        if (start == ScheduleStore.UNKNOWN || target == ScheduleStore.UNKNOWN || start == target) return paths;
+        int dayStart = date != null ? ScheduleStore.minutes(date.atStartOfDay()) : Integer.MIN_VALUE;
+        int dayEnd = date != null ? ScheduleStore.minutes(date.plusDays(1).atStartOfDay()) : Integer.MAX_VALUE;
+
+        double direct = t.distanceKm(start, target);
+        double maxDistance = maxDetourRatio > 0 && !Double.isNaN(direct) ? maxDetourRatio * direct : Double.POSITIVE_INFINITY;
+
+        PriorityQueue<Label> open = new PriorityQueue<>(Comparator.comparingDouble((Label l) -> l.estimate)
+                .thenComparingLong(l -> l.sequence));
+        long sequence = 0;
+        open.add(new Label(start, -1, -1, null, 0, 0, 0, 0, sequence++));
+
+        while (!open.isEmpty()) {
+            Label label = open.poll();
+            if (label.airport == target) {
+                paths.add(t.flights(label.path()));
+                continue;
+            }
+
+            int earliest = label.flight < 0 ? dayStart
+                    : filter.earliestConnection(label.arrival, Math.max(dayStart, label.arrival + 1));
+            int latest = label.flight < 0 ? Integer.MAX_VALUE : filter.latestConnection(label.arrival);
+            int end = t.originStart[label.airport + 1];
+            for (int pos = t.firstDeparture(label.airport, earliest); pos < end; pos++) {
+                if (!budget.spend()) return paths;
+                int flight = t.byOrigin[pos];
+                if (t.departure[flight] >= dayEnd || t.departure[flight] > latest) break;
+                int next = t.destination[flight];
+                // The last leg has to land at the destination
+                if (label.legs + 1 == maxLegs && next != target) continue;
+                if (label.hasVisited(next)) continue;
+                if (!filter.allowsLeg(label.firstLeg, label.flight, flight)) continue;
+                int firstLeg = label.flight < 0 ? flight : label.firstLeg;
+                if (next == target && !filter.arrivesInWindow(firstLeg, flight)) continue;
+
+                double flown = label.flown + known(t.distanceKm(label.airport, next));
+                double estimate = flown + known(t.distanceKm(next, target));
+                if (estimate > maxDistance) continue;
+                open.add(new Label(next, flight, firstLeg, label, t.arrival[flight], label.legs + 1, flown, estimate, sequence++));
+            }
+        }
+        return paths;
+    }
+
+    // Helper Methods
+    // Unknown distances count as zero, which keeps the bound a lower bound
+    private static double known(double distance) {
+        return Double.isNaN(distance) ? 0 : distance;
+    }
+
+    private static final class Label {
+        private final int airport;
+        private final int flight;
+        private final int firstLeg;
+        private final Label parent;
+        private final int arrival;
+        private final int legs;
+        private final double flown;
+        private final double estimate;
+        private final long sequence;
+
+        private Label(int airport, int flight, int firstLeg, Label parent, int arrival, int legs, double flown,
+                      double estimate, long sequence) {
+            this.airport = airport;
+            this.flight = flight;
+            this.firstLeg = firstLeg;
+            this.parent = parent;
+            this.arrival = arrival;
+            this.legs = legs;
+            this.flown = flown;
+            this.estimate = estimate;
+            this.sequence = sequence;
+        }
+
+        boolean hasVisited(int airportId) {
+            for (Label l = this; l != null; l = l.parent) {
+                if (l.airport == airportId) return true;
+            }
+            return false;
+        }
+
+        // Flight indexes from the first leg to this one
+        int[] path() {
+            int[] flights = new int[legs];
+            int position = legs;
+            for (Label l = this; l.flight >= 0; l = l.parent) {
+                flights[--position] = l.flight;
+            }
+            return flights;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+// Great-circle (haversine) distance between two points on the earth
+public final class GreatCircle {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private GreatCircle() {
+    }
+
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,179 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+// Enumerates pairs of two candidate lists in ascending order of leftKey + rightKey without building
+// the cross product. Both sides are sorted once; a frontier heap then holds at most one cell per
+// left row, so producing the first k pairs costs O((k + rows) log rows) instead of O(n * m).
+// Equal sums come out in (left, right) input order, the same order as a nested loop.
+public final class KBestJoin {
+
+    private KBestJoin() {
+    }
+
+    @FunctionalInterface
+    public interface PairFilter {
+        boolean test(int left, int right);
+    }
+
+    @FunctionalInterface
+    public interface PairFactory<T> {
+        T create(int left, int right);
+    }
+
+    // Receives accepted pairs in order; returns false to stop the enumeration
+    @FunctionalInterface
+    public interface PairVisitor {
+        boolean visit(int left, int right);
+    }
+
+    @FunctionalInterface
+    public interface TupleFilter {
+        boolean test(int[] candidates);
+    }
+
+    // Receives accepted tuples in order; returns false to stop the enumeration
+    @FunctionalInterface
+    public interface TupleVisitor {
+        boolean visit(int[] candidates);
+    }
+
+    // Pairs rejected by the filter are skipped but their neighbours are still explored.
+    // A null or non-positive limit enumerates every accepted pair.
+    public static <T> List<T> join(double[] leftKeys, double[] rightKeys, Integer limit,
+                                   PairFilter filter, PairFactory<T> factory) {
+        int k = limit != null && limit > 0 ? limit : Integer.MAX_VALUE;
+        List<T> result = new ArrayList<>();
+        forEach(leftKeys, rightKeys, filter, (l, r) -> {
+            result.add(factory.create(l, r));
+            return result.size() < k;
+        });
+        return result;
+    }
+
+    // Streaming form of join: hands each accepted pair to the visitor as soon as it is reached
+    public static void forEach(double[] leftKeys, double[] rightKeys, PairFilter filter, PairVisitor visitor) {
+        if (leftKeys.length == 0 || rightKeys.length == 0) return;
+
+        int[] left = sortedIndexes(leftKeys);
+        int[] right = sortedIndexes(rightKeys);
+
+        PriorityQueue<Cell> frontier = new PriorityQueue<>(Comparator.comparingDouble((Cell c) -> c.key)
+                .thenComparingInt(c -> left[c.row])
+                .thenComparingInt(c -> right[c.column]));
+        frontier.add(new Cell(0, 0, leftKeys[left[0]] + rightKeys[right[0]]));
+
+        while (!frontier.isEmpty()) {
+            Cell cell = frontier.poll();
+            int l = left[cell.row];
+            int r = right[cell.column];
+            if (filter.test(l, r) && !visitor.visit(l, r)) {
+                return;
+            }
+
+            // Each row is entered once from its first column, so no cell is queued twice
+            if (cell.column + 1 < right.length) {
+                frontier.add(new Cell(cell.row, cell.column + 1, leftKeys[l] + rightKeys[right[cell.column + 1]]));
+            }
+            if (cell.column == 0 && cell.row + 1 < left.length) {
+                frontier.add(new Cell(cell.row + 1, 0, leftKeys[left[cell.row + 1]] + rightKeys[right[0]]));
+            }
+        }
+    }
+
+    // N-way form for multi-segment trips: keys[s][i] is the key of candidate i of segment s, and tuples
+    // come out in ascending order of the summed keys. Each tuple is reached from exactly one parent (the
+    // tuple with its last advanced position stepped back), so the frontier never holds duplicates.
+    // Equal sums come out in lexicographic order of the candidate indexes.
+    public static void forEach(double[][] keys, TupleFilter filter, TupleVisitor visitor) {
+        forEach(keys, null, filter, visitor);
+    }
+
+    // Spends one unit of the budget per tuple taken off the frontier, accepted or not, and stops when it
+    // runs out; a null budget leaves the enumeration unbounded
+    public static void forEach(double[][] keys, SearchBudget budget, TupleFilter filter, TupleVisitor visitor) {
+        int width = keys.length;
+        if (width == 0) return;
+        int[][] sorted = new int[width][];
+        for (int s = 0; s < width; s++) {
+            if (keys[s].length == 0) return;
+            sorted[s] = sortedIndexes(keys[s]);
+        }
+
+        PriorityQueue<Tuple> frontier = new PriorityQueue<>((a, b) -> {
+            int compare = Double.compare(a.key, b.key);
+            for (int s = 0; compare == 0 && s < width; s++) {
+                compare = Integer.compare(sorted[s][a.positions[s]], sorted[s][b.positions[s]]);
+            }
+            return compare;
+        });
+        frontier.add(new Tuple(new int[width], 0, sum(keys, sorted, new int[width])));
+
+        int[] candidates = new int[width];
+        while (!frontier.isEmpty()) {
+            if (budget != null && !budget.spend()) return;
+            Tuple tuple = frontier.poll();
+            for (int s = 0; s < width; s++) {
+                candidates[s] = sorted[s][tuple.positions[s]];
+            }
+            if (filter.test(candidates) && !visitor.visit(candidates.clone())) {
+                return;
+            }
+
+            // Only positions at or after the last advanced one may move, which keeps every tuple unique
+            for (int s = tuple.pivot; s < width; s++) {
+                int next = tuple.positions[s] + 1;
+                if (next < sorted[s].length) {
+                    int[] positions = tuple.positions.clone();
+                    positions[s] = next;
+                    frontier.add(new Tuple(positions, s, sum(keys, sorted, positions)));
+                }
+            }
+        }
+    }
+
+    // Summed from scratch so equal tuples always get bit-identical keys
+    private static double sum(double[][] keys, int[][] sorted, int[] positions) {
+        double key = 0;
+        for (int s = 0; s < keys.length; s++) {
+            key += keys[s][sorted[s][positions[s]]];
+        }
+        return key;
+    }
+
+    // Stable ascending order of the keys
+    private static int[] sortedIndexes(double[] keys) {
+        return IntStream.range(0, keys.length).boxed()
+                .sorted(Comparator.comparingDouble(i -> keys[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static final class Tuple {
+        private final int[] positions;
+        private final int pivot;
+        private final double key;
+
+        private Tuple(int[] positions, int pivot, double key) {
+            this.positions = positions;
+            this.pivot = pivot;
+            this.key = key;
+        }
+    }
+
+    private static final class Cell {
+        private final int row;
+        private final int column;
+        private final double key;
+
+        private Cell(int row, int column, double key) {
+            this.row = row;
+            this.column = column;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import edu.miu.cs.cs425.backend.domain.entity.Itinerary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Round-based (RAPTOR-style) label-setting search that returns only Pareto-optimal paths.
+// Criteria: arrival time, price as computed by Itinerary.calculateTotals, total flight duration and number of legs.
+// Round k holds the paths with exactly k legs; since the multi-leg discount only depends on the number
+// of legs, comparing base fares inside a round is the same as comparing final prices.
+// Labels work on the snapshot's ScheduleStore (int airports, epoch minutes); Flights are only
+// looked up for the paths on the final frontier.
+// Search constraints are checked before a label is created, so labels that break one never enter a bag.
+// The frontier is over the paths that satisfy them.
+// Every flight examined spends one unit of the request's budget; when it runs out, the frontier of the
+// paths that have reached the destination so far is returned.
+@Component
+public class ParetoRouteSearch implements SearchEngine {
+
+    @Override
+    public String name() {
+        return "pareto";
+    }
+
+    @Override
+    public List<List<Flight>> search(FlightNetworkSnapshot network, RouteRequest request) {
+        return findParetoPaths(network, request.date(), request.origin(), request.destination(), request.maxLegs(),
+                request.constraints(), request.budget());
+    }
+
+    public List<List<Flight>> findParetoPaths(FlightNetworkSnapshot network, LocalDate date, String startAirport,
+                                              String destinationAirport, int maxLegs) {
+        return findParetoPaths(network, date, startAirport, destinationAirport, maxLegs, SearchConstraints.NONE,
+                SearchBudget.unlimited());
+    }
+
+    public List<List<Flight>> findParetoPaths(FlightNetworkSnapshot network, LocalDate date, String startAirport,
+                                              String destinationAirport, int maxLegs, SearchConstraints constraints,
+                                              SearchBudget budget) {
+        ScheduleStore t = network.schedule();
+        ConstraintFilter filter = constraints.filter(t);
+        int start = t.airportId(startAirport);
+        int target = t.airportId(destinationAirport);
+        if (start == ScheduleStore.UNKNOWN || target == ScheduleStore.UNKNOWN) return new ArrayList<>();
+        int dayStart = date != null ? ScheduleStore.minutes(date.atStartOfDay()) : Integer.MIN_VALUE;
+        int dayEnd = date != null ? ScheduleStore.minutes(date.plusDays(1).atStartOfDay()) : Integer.MAX_VALUE;
+
+        // On an undated search the arrival window depends on the day a label set out
+        Pruning pruning = new Pruning(true, filter.boundsConnections(), date == null);
+        List<Label> arrivals = new ArrayList<>();
+        Map<Integer, List<Label>> previousRound = new HashMap<>();
+        previousRound.put(start, List.of(Label.origin(start)));
+
+        for (int round = 1; round <= maxLegs && !previousRound.isEmpty(); round++) {
+            boolean lastRound = round == maxLegs;
+            Map<Integer, List<Label>> currentRound = new HashMap<>();
+
+            for (Map.Entry<Integer, List<Label>> marked : previousRound.entrySet()) {
+                int airport = marked.getKey();
+                int end = t.originStart[airport + 1];
+                for (Label label : marked.getValue()) {
+                    // Only flights departing strictly after we landed can be taken
+                    int earliest = label.flight < 0 ? dayStart
+                            : filter.earliestConnection(label.arrival, Math.max(dayStart, label.arrival + 1));
+                    int latest = label.flight < 0 ? Integer.MAX_VALUE : filter.latestConnection(label.arrival);
+                    for (int pos = t.firstDeparture(airport, earliest); pos < end; pos++) {
+                        if (!budget.spend()) {
+                            List<Label> reached = currentRound.remove(target);
+                            if (reached != null) arrivals.addAll(reached);
+                            return efficientFrontier(t, arrivals);
+                        }
+                        int flight = t.byOrigin[pos];
+                        if (t.departure[flight] >= dayEnd || t.departure[flight] > latest) break;
+                        int nextAirport = t.destination[flight];
+                        if (label.hasVisited(nextAirport)) continue;
+                        boolean reachesDestination = nextAirport == target;
+                        if (lastRound && !reachesDestination) continue;
+                        if (!filter.allowsLeg(label.firstLeg, label.flight, flight)) continue;
+                        Label next = label.extend(t, flight);
+                        if (reachesDestination && !filter.arrivesInWindow(next.firstLeg, flight)) continue;
+
+                        // Labels at the destination are never extended, so their visited airports do not matter
+                        insertIfNotDominated(currentRound.computeIfAbsent(nextAirport, k -> new ArrayList<>()),
+                                next, reachesDestination ? Pruning.FINAL : pruning);
+                    }
+                }
+            }
+
+            List<Label> reached = currentRound.remove(target);
+            if (reached != null) arrivals.addAll(reached);
+            previousRound = currentRound;
+        }
+
+        return efficientFrontier(t, arrivals);
+    }
+
+    // Helper Methods
+    // Keeps the bag free of dominated labels. Labels that will be extended further may only be
+    // pruned by a label whose path is a subset of theirs, otherwise a simple path could be lost.
+    private static void insertIfNotDominated(List<Label> bag, Label candidate, Pruning pruning) {
+        for (Label existing : bag) {
+            if (pruning.prunes(existing, candidate)) {
+                return;
+            }
+        }
+        bag.removeIf(existing -> pruning.prunes(candidate, existing));
+        bag.add(candidate);
+    }
+
+    // Final filter across rounds, now on the discounted price and the number of legs
+    private static List<List<Flight>> efficientFrontier(ScheduleStore t, List<Label> arrivals) {
+        // In lexicographic order a label can only be dominated by one that comes before it
+        arrivals.sort(Comparator.comparingInt((Label l) -> l.legs)
+                .thenComparingDouble(Label::finalPrice)
+                .thenComparingInt(l -> l.totalDuration)
+                .thenComparingInt(l -> l.arrival));
+        List<Label> frontier = new ArrayList<>();
+        for (Label candidate : arrivals) {
+            if (frontier.stream().noneMatch(kept -> kept.dominatesAcrossRounds(candidate))) {
+                frontier.add(candidate);
+            }
+        }
+
+        List<List<Flight>> paths = new ArrayList<>();
+        for (Label label : frontier) {
+            paths.add(t.flights(label.path()));
+        }
+        return paths;
+    }
+
+    // What a label must share with another before it may prune it. Under a maximum layover that includes
+    // the arrival minute, since an earlier arrival can miss connections a later one makes.
+    private record Pruning(boolean sameVisited, boolean sameArrival, boolean sameStartDay) {
+        static final Pruning FINAL = new Pruning(false, false, false);
+
+        boolean prunes(Label a, Label b) {
+            return a.dominatesInRound(b)
+                    && (!sameVisited || a.visitedSubsetOf(b))
+                    && (!sameArrival || a.arrival == b.arrival)
+                    && (!sameStartDay || a.startDay == b.startDay);
+        }
+    }
+
+    private static final class Label {
+        private final int airport;
+        private final int flight;
+        private final int firstLeg;
+        private final int startDay;
+        private final Label parent;
+        private final int arrival;
+        private final double baseFare;
+        private final int totalDuration;
+        private final int legs;
+
+        private Label(int airport, int flight, int firstLeg, int startDay, Label parent, int arrival, double baseFare,
+                      int totalDuration, int legs) {
+            this.airport = airport;
+            this.flight = flight;
+            this.firstLeg = firstLeg;
+            this.startDay = startDay;
+            this.parent = parent;
+            this.arrival = arrival;
+            this.baseFare = baseFare;
+            this.totalDuration = totalDuration;
+            this.legs = legs;
+        }
+
+        static Label origin(int airport) {
+            return new Label(airport, -1, -1, 0, null, 0, 0.0, 0, 0);
+        }
+
+        Label extend(ScheduleStore t, int next) {
+            boolean first = flight < 0;
+            return new Label(t.destination[next], next, first ? next : firstLeg,
+                    first ? Math.floorDiv(t.departure[next], 24 * 60) : startDay, this, t.arrival[next],
+                    baseFare + t.price[next], totalDuration + t.duration[next], legs + 1);
+        }
+
+        boolean hasVisited(int airportId) {
+            for (Label l = this; l != null; l = l.parent) {
+                if (l.airport == airportId) return true;
+            }
+            return false;
+        }
+
+        boolean visitedSubsetOf(Label other) {
+            for (Label l = this; l != null; l = l.parent) {
+                if (!other.hasVisited(l.airport)) return false;
+            }
+            return true;
+        }
+
+        boolean dominatesInRound(Label other) {
+            return arrival <= other.arrival && baseFare <= other.baseFare && totalDuration <= other.totalDuration;
+        }
+
+        boolean dominatesAcrossRounds(Label other) {
+            return arrival <= other.arrival && finalPrice() <= other.finalPrice()
+                    && totalDuration <= other.totalDuration && legs <= other.legs;
+        }
+
+        double finalPrice() {
+            return Itinerary.discountedPrice(baseFare, legs);
+        }
+
+        // Flight indexes from the first leg to this one
+        int[] path() {
+            int[] flights = new int[legs];
+            int position = legs;
+            for (Label l = this; l.flight >= 0; l = l.parent) {
+                flights[--position] = l.flight;
+            }
+            return flights;
+        }
+    }
+}
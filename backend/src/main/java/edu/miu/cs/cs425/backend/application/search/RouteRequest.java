@@ -0,0 +1,33 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import java.time.LocalDate;
+
+// Query shared by all search engines: paths from origin to destination whose first leg departs on the
+// date (any day when null), with at most maxLegs legs, that satisfy the constraints. Engines stop
+// expanding when the budget runs out and return what they have found.
+public record RouteRequest(String origin, String destination, LocalDate date, int maxLegs, SearchConstraints constraints,
+                           SearchBudget budget) {
+
+    public RouteRequest {
+        if (origin == null || destination == null) {
+            throw new IllegalArgumentException("Origin and destination are required");
+        }
+        if (maxLegs < 1) {
+            throw new IllegalArgumentException("At least one leg must be allowed");
+        }
+        if (constraints == null) {
+            constraints = SearchConstraints.NONE;
+        }
+        if (budget == null) {
+            budget = SearchBudget.unlimited();
+        }
+    }
+
+    public RouteRequest(String origin, String destination, LocalDate date, int maxLegs) {
+        this(origin, destination, date, maxLegs, SearchConstraints.NONE, null);
+    }
+
+    public RouteRequest(String origin, String destination, LocalDate date, int maxLegs, SearchConstraints constraints) {
+        this(origin, destination, date, maxLegs, constraints, null);
+    }
+}
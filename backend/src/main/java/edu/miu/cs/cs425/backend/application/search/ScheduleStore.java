@@ -0,0 +1,235 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Airport;
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+// Struct-of-arrays copy of one snapshot for the search loops. Airport and airline codes are interned
+// to int ids, times are epoch minutes and prices/durations are primitives, so a scan touches a few
+// dense arrays instead of chasing Flight, Airport and LocalDateTime objects. Flight entities are kept
+// only to rehydrate the paths that end up in a result.
+// Fields are package-private and read directly by the engines in this package.
+public final class ScheduleStore {
+
+    public static final int UNKNOWN = -1;
+
+    final int size;
+    final int airportCount;
+    // Per flight, in departure order (same order as FlightNetworkSnapshot.allFlights())
+    final int[] origin;
+    final int[] destination;
+    final int[] airline;
+    final int[] departure;
+    final int[] arrival;
+    final double[] price;
+    final int[] duration;
+    // Flight indexes ordered by arrival time
+    final int[] byArrival;
+    // Flight indexes grouped by origin airport, each group in departure order:
+    // departures of airport a are byOrigin[originStart[a] .. originStart[a + 1])
+    final int[] byOrigin;
+    final int[] originStart;
+    // Flight indexes grouped by destination airport, each group in arrival order:
+    // arrivals at airport a are byDestination[destinationStart[a] .. destinationStart[a + 1])
+    final int[] byDestination;
+    final int[] destinationStart;
+    // Per airport, in degrees; NaN when the airport has no coordinates
+    final double[] latitude;
+    final double[] longitude;
+
+    private final long version;
+    private final Flight[] flights;
+    private final Map<String, Integer> indexById = new HashMap<>();
+    private final Map<String, Integer> airportIds = new HashMap<>();
+    private final List<String> airportCodes = new ArrayList<>();
+    private final Map<String, Integer> airlineIds = new HashMap<>();
+    private final List<String> airlineCodes = new ArrayList<>();
+
+    ScheduleStore(List<Flight> sortedFlights, long version) {
+        this.version = version;
+        this.size = sortedFlights.size();
+        this.flights = sortedFlights.toArray(new Flight[0]);
+        this.origin = new int[size];
+        this.destination = new int[size];
+        this.airline = new int[size];
+        this.departure = new int[size];
+        this.arrival = new int[size];
+        this.price = new double[size];
+        this.duration = new int[size];
+        for (int i = 0; i < size; i++) {
+            Flight flight = flights[i];
+            origin[i] = intern(flight.getOrigin().getIataCode(), airportIds, airportCodes);
+            destination[i] = intern(flight.getDestination().getIataCode(), airportIds, airportCodes);
+            airline[i] = flight.getAirline() != null ? intern(flight.getAirline().getCode(), airlineIds, airlineCodes) : UNKNOWN;
+            departure[i] = minutes(flight.getDeparture());
+            arrival[i] = minutes(flight.getArrival());
+            price[i] = flight.getPrice();
+            duration[i] = flight.getDuration();
+            indexById.put(flight.getId(), i);
+        }
+        this.airportCount = airportCodes.size();
+        this.latitude = new double[airportCount];
+        this.longitude = new double[airportCount];
+        Arrays.fill(latitude, Double.NaN);
+        Arrays.fill(longitude, Double.NaN);
+        for (int i = 0; i < size; i++) {
+            locate(origin[i], flights[i].getOrigin());
+            locate(destination[i], flights[i].getDestination());
+        }
+        this.byArrival = sortedIndexes(arrival);
+        this.originStart = new int[airportCount + 1];
+        this.byOrigin = group(origin, originStart, null);
+        this.destinationStart = new int[airportCount + 1];
+        this.byDestination = group(destination, destinationStart, byArrival);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int airportId(String code) {
+        return airportIds.getOrDefault(code, UNKNOWN);
+    }
+
+    public String airportCode(int id) {
+        return airportCodes.get(id);
+    }
+
+    public int airlineId(String code) {
+        return airlineIds.getOrDefault(code, UNKNOWN);
+    }
+
+    public int airlineCount() {
+        return airlineCodes.size();
+    }
+
+    // Index of the flight with the given id, UNKNOWN if it is not in this schedule
+    public int indexOf(String flightId) {
+        return indexById.getOrDefault(flightId, UNKNOWN);
+    }
+
+    // Rehydration: only called for flights that are part of a result
+    public Flight flight(int index) {
+        return flights[index];
+    }
+
+    public List<Flight> flights(int[] indexes) {
+        List<Flight> path = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            path.add(flights[index]);
+        }
+        return path;
+    }
+
+    // Epoch minutes; schedules are kept at minute precision
+    public static int minutes(LocalDateTime time) {
+        return (int) Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    // Great-circle distance between two airports, NaN when either has no coordinates
+    public double distanceKm(int airport1, int airport2) {
+        if (Double.isNaN(latitude[airport1]) || Double.isNaN(latitude[airport2])) return Double.NaN;
+        return GreatCircle.distanceKm(latitude[airport1], longitude[airport1], latitude[airport2], longitude[airport2]);
+    }
+
+    // First position in byOrigin, within the airport's group, departing at or after the minute
+    int firstDeparture(int airport, int minute) {
+        int low = originStart[airport];
+        int high = originStart[airport + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (departure[byOrigin[mid]] < minute) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    // First position in byDestination, within the airport's group, arriving at or after the minute
+    int firstArrival(int airport, int minute) {
+        int low = destinationStart[airport];
+        int high = destinationStart[airport + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arrival[byDestination[mid]] < minute) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    // First flight index departing at or after the minute
+    int firstDepartureOverall(int minute) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (departure[mid] < minute) low = mid + 1; else high = mid;
+        }
+        return low;
+    }
+
+    // Last position in byArrival arriving at or before the minute, -1 if none
+    int lastArrival(int minute) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arrival[byArrival[mid]] <= minute) low = mid + 1; else high = mid;
+        }
+        return low - 1;
+    }
+
+    // Helper Methods
+    private static int intern(String code, Map<String, Integer> ids, List<String> codes) {
+        Integer id = ids.get(code);
+        if (id == null) {
+            id = codes.size();
+            ids.put(code, id);
+            codes.add(code);
+        }
+        return id;
+    }
+
+    private void locate(int id, Airport airport) {
+        if (airport.getLatitude() != null && airport.getLongitude() != null) {
+            latitude[id] = airport.getLatitude();
+            longitude[id] = airport.getLongitude();
+        }
+    }
+
+    // Stable counting sort of flight indexes by airport; order is the index order (departure order)
+    // or the given permutation of it
+    private int[] group(int[] airportOf, int[] start, int[] order) {
+        for (int i = 0; i < size; i++) {
+            start[airportOf[i] + 1]++;
+        }
+        for (int a = 0; a < airportCount; a++) {
+            start[a + 1] += start[a];
+        }
+        int[] next = Arrays.copyOf(start, airportCount);
+        int[] grouped = new int[size];
+        for (int k = 0; k < size; k++) {
+            int i = order != null ? order[k] : k;
+            grouped[next[airportOf[i]]++] = i;
+        }
+        return grouped;
+    }
+
+    private static int[] sortedIndexes(int[] keys) {
+        // Pack key and index into one long so a primitive sort keeps ties in index order
+        long[] packed = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            packed[i] = ((long) keys[i] << 32) | i;
+        }
+        Arrays.sort(packed);
+        int[] indexes = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            indexes[i] = (int) packed[i];
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,59 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Work allowance for one search request: a wall-clock deadline, a cap on path expansions, and a flag
+// another thread can set to cancel (e.g. when the HTTP client has gone away). Engines call spend() once
+// per expansion and stop expanding when it returns false, returning the paths found so far.
+// Shared by the parallel branches of one search, so the counters are thread-safe.
+public final class SearchBudget {
+
+    // The clock is only read every this many expansions
+    private static final int CLOCK_INTERVAL = 256;
+
+    private final long deadlineNanos;
+    private final long maxExpansions;
+    private final AtomicLong expansions = new AtomicLong();
+    private volatile boolean exhausted;
+    private volatile boolean cancelled;
+
+    // A non-positive value leaves that limit off
+    public SearchBudget(long maxMillis, long maxExpansions) {
+        this.deadlineNanos = maxMillis > 0 ? System.nanoTime() + maxMillis * 1_000_000 : Long.MAX_VALUE;
+        this.maxExpansions = maxExpansions > 0 ? maxExpansions : Long.MAX_VALUE;
+    }
+
+    public static SearchBudget unlimited() {
+        return new SearchBudget(0, 0);
+    }
+
+    // Counts one expansion; false once the budget is used up or cancelled
+    public boolean spend() {
+        if (exhausted) return false;
+        long spent = expansions.incrementAndGet();
+        if (spent > maxExpansions
+                || (deadlineNanos != Long.MAX_VALUE && spent % CLOCK_INTERVAL == 0 && System.nanoTime() - deadlineNanos > 0)) {
+            exhausted = true;
+        }
+        return !exhausted;
+    }
+
+    public void cancel() {
+        cancelled = true;
+        exhausted = true;
+    }
+
+    // True when the caller gave up, as opposed to the search running out of time or expansions
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // True when a search stopped early, so its result may be missing itineraries
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    public long expansions() {
+        return expansions.get();
+    }
+}
@@ -0,0 +1,29 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Creates the budget each search request runs under, from search.budget.* in the configuration
+@Component
+public class SearchBudgetFactory {
+
+    private static final long ASYNC_GRACE_MILLIS = 5000;
+
+    // Wall-clock limit per search request; 0 disables it
+    @Value("${search.budget.max-millis:2000}")
+    private long maxMillis;
+
+    // Path expansions per search request; 0 disables the cap
+    @Value("${search.budget.max-expansions:2000000}")
+    private long maxExpansions;
+
+    public SearchBudget newBudget() {
+        return new SearchBudget(maxMillis, maxExpansions);
+    }
+
+    // How long an async request may wait for its search: past the budget deadline, so the engine stops
+    // first and returns a partial result. Null (the container default) when there is no deadline.
+    public Long asyncTimeoutMillis() {
+        return maxMillis > 0 ? maxMillis + ASYNC_GRACE_MILLIS : null;
+    }
+}
@@ -0,0 +1,61 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Objects;
+
+// Optional limits on a route search. Engines enforce them while they expand paths (see ConstraintFilter),
+// so a branch that breaks one is dropped before anything is built on it.
+//   maxStops                                    at most maxStops + 1 legs
+//   minConnectionMinutes, maxConnectionMinutes  bounds on every layover, on top of the engine's own rule
+//   departAfter, departBefore                   window for the first departure, inclusive
+//   arriveAfter, arriveBefore                   window for the final arrival, inclusive, counted from midnight
+//                                               of the first departure's day (arriving after midnight is late)
+//   includedAirlines, excludedAirlines          carriers every leg must or must not be flown by
+// Null or empty values leave the search unconstrained.
+public record SearchConstraints(Integer maxStops, Integer minConnectionMinutes, Integer maxConnectionMinutes,
+                                LocalTime departAfter, LocalTime departBefore, LocalTime arriveAfter,
+                                LocalTime arriveBefore, List<String> includedAirlines, List<String> excludedAirlines) {
+
+    public static final int MAX_STOPS = 3;
+    public static final SearchConstraints NONE = new SearchConstraints(null, null, null, null, null, null, null, null, null);
+
+    public SearchConstraints {
+        if (maxStops != null && (maxStops < 0 || maxStops > MAX_STOPS)) {
+            throw new IllegalArgumentException("Max stops must be between 0 and " + MAX_STOPS);
+        }
+        if (minConnectionMinutes != null && minConnectionMinutes < 0 || maxConnectionMinutes != null && maxConnectionMinutes < 0) {
+            throw new IllegalArgumentException("Connection times cannot be negative");
+        }
+        if (minConnectionMinutes != null && maxConnectionMinutes != null && minConnectionMinutes > maxConnectionMinutes) {
+            throw new IllegalArgumentException("Minimum connection time exceeds the maximum");
+        }
+        if (departAfter != null && departBefore != null && departAfter.isAfter(departBefore)) {
+            throw new IllegalArgumentException("Departure window starts after it ends");
+        }
+        if (arriveAfter != null && arriveBefore != null && arriveAfter.isAfter(arriveBefore)) {
+            throw new IllegalArgumentException("Arrival window starts after it ends");
+        }
+        // Sorted and without duplicates, so equal constraints print the same cache key
+        includedAirlines = normalize(includedAirlines);
+        excludedAirlines = normalize(excludedAirlines);
+    }
+
+    // Legs to search when the caller would otherwise allow defaultMaxLegs
+    public int maxLegs(int defaultMaxLegs) {
+        return maxStops != null ? maxStops + 1 : defaultMaxLegs;
+    }
+
+    public boolean isEmpty() {
+        return equals(NONE);
+    }
+
+    // Compiled against one schedule's interned ids
+    ConstraintFilter filter(ScheduleStore t) {
+        return new ConstraintFilter(this, t);
+    }
+
+    private static List<String> normalize(List<String> airlines) {
+        return airlines == null ? List.of() : airlines.stream().filter(Objects::nonNull).distinct().sorted().toList();
+    }
+}
@@ -0,0 +1,23 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+
+import java.util.List;
+
+// A route search algorithm. Every engine answers the same RouteRequest with paths (lists of legs in
+// flight order) that start at the origin, end at the destination and never board a flight before the
+// previous one has landed. Engines differ in which of those paths they return:
+//   "dfs"         every path with up to maxLegs legs, no layover rules
+//   "pareto"      the paths not dominated on arrival, price, duration and legs
+//   "connections" direct flights plus precomputed connections with 30 min - 6 h same-day layovers
+//   "csa"         the single earliest-arrival journey (leg count not bounded)
+//   "direct"      non-stop flights only
+//   "geo"         simple paths whose great-circle length stays within a detour bound
+// Every engine applies the request's SearchConstraints within its own subset.
+// Implementations are Spring beans and are picked up by SearchEngineRegistry.
+public interface SearchEngine {
+
+    String name();
+
+    List<List<Flight>> search(FlightNetworkSnapshot network, RouteRequest request);
+}
@@ -0,0 +1,41 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Looks up search engines by name; requests that do not name one get the configured default
+@Component
+public class SearchEngineRegistry {
+
+    private final Map<String, SearchEngine> engines = new LinkedHashMap<>();
+
+    @Value("${search.engine.default:pareto}")
+    private String defaultEngine;
+
+    public SearchEngineRegistry(List<SearchEngine> engines) {
+        for (SearchEngine engine : engines) {
+            if (this.engines.put(engine.name().toLowerCase(Locale.ROOT), engine) != null) {
+                throw new IllegalStateException("Duplicate search engine: " + engine.name());
+            }
+        }
+    }
+
+    public SearchEngine engine(String name) {
+        String resolved = name != null ? name : defaultEngine;
+        SearchEngine engine = resolved != null ? engines.get(resolved.toLowerCase(Locale.ROOT)) : null;
+        if (engine == null) {
+            throw new IllegalArgumentException("Unknown search engine: " + resolved + ". Available: " + engines.keySet());
+        }
+        return engine;
+    }
+
+    public String defaultName() {
+        return defaultEngine;
+    }
+
+    public Set<String> names() {
+        return Collections.unmodifiableSet(engines.keySet());
+    }
+}
@@ -0,0 +1,83 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+// Single-flight execution of identical searches: while a search for a key is running, later callers
+// with the same key wait for its future instead of starting their own. Nothing is kept once the search
+// completes, so this only collapses concurrent requests; SearchResultCache covers repeated ones.
+// A search whose caller gave up is cut short, so its followers do not take its result; they search again.
+@Component
+public class SearchRequestCoalescer {
+
+    private final ConcurrentMap<String, Search> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+
+    public <T> T execute(String key, Supplier<T> search) {
+        return execute(key, search, () -> false);
+    }
+
+    // cancelled tells whether this caller gave up on its search, e.g. its SearchBudget::isCancelled
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> search, BooleanSupplier cancelled) {
+        Search own = new Search(cancelled);
+        while (true) {
+            Search running = inFlight.putIfAbsent(key, own);
+            if (running == null) break;
+            collapsed.incrementAndGet();
+            try {
+                Object result = running.future.join();
+                if (!running.cancelled.getAsBoolean()) return (T) result;
+            } catch (CompletionException e) {
+                // Followers see the same failure as the caller that ran the search
+                if (!running.cancelled.getAsBoolean()) {
+                    if (e.getCause() instanceof RuntimeException cause) throw cause;
+                    if (e.getCause() instanceof Error error) throw error;
+                    throw e;
+                }
+            }
+            // The search was removed when it completed, so this caller runs or joins a new one
+        }
+
+        executions.incrementAndGet();
+        try {
+            T result = search.get();
+            own.future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    public long executions() {
+        return executions.get();
+    }
+
+    public long collapsed() {
+        return collapsed.get();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static final class Search {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private final BooleanSupplier cancelled;
+
+        private Search(BooleanSupplier cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+}
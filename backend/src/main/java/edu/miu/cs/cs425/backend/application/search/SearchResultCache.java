@@ -0,0 +1,156 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.FlightSearchResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Bounded LRU cache of complete search results, keyed by a normalized form of the query.
+// Every entry records the travel dates it was computed for. A flight write only evicts the
+// entries for that flight's departure dates: connections can route through any airport, so
+// origin and destination alone cannot tell whether a same-day search is affected.
+// Concurrent misses for the same key are coalesced into one search. Partial results, cut short by a
+// search budget, are handed to everyone waiting on that search but never stored, except when the caller
+// running it cancelled its budget: the others then search again under their own budgets.
+@Component
+public class SearchResultCache {
+
+    private final SearchRequestCoalescer searchRequestCoalescer;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // Bumped by every invalidation so a search that overlapped a write is not stored
+    private long generation;
+
+    @Value("${search.cache.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${search.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    public SearchResultCache(SearchRequestCoalescer searchRequestCoalescer) {
+        this.searchRequestCoalescer = searchRequestCoalescer;
+    }
+
+    // Key parts are taken as given: the searches match airport codes, airlines and filters exactly, so
+    // "jfk" and "JFK" are different queries with different results
+    public static String key(String kind, Object... parts) {
+        return Stream.concat(Stream.of(kind), Stream.of(parts))
+                .map(part -> part == null ? "" : part.toString())
+                .collect(Collectors.joining("|"));
+    }
+
+    // Dates of a query; a null date means the search is not restricted to one day
+    public static Set<LocalDate> dates(LocalDate... dates) {
+        for (LocalDate date : dates) {
+            if (date == null) return null;
+        }
+        return new HashSet<>(Arrays.asList(dates));
+    }
+
+    // For searches that read the schedule inside the supplier
+    public FlightSearchResult get(String key, Set<LocalDate> dates, Supplier<FlightSearchResult> search) {
+        return get(key, dates, generation(), search);
+    }
+
+    // For searches that read the schedule before calling get: startGeneration must be read before that
+    // snapshot is taken, so a write landing in between keeps the result out of the cache
+    public FlightSearchResult get(String key, Set<LocalDate> dates, long startGeneration,
+                                  Supplier<FlightSearchResult> search) {
+        return get(key, dates, startGeneration, null, search);
+    }
+
+    // budget is the one the search runs under, if its caller may cancel it
+    public FlightSearchResult get(String key, Set<LocalDate> dates, long startGeneration, SearchBudget budget,
+                                  Supplier<FlightSearchResult> search) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.isExpired(ttlSeconds)) {
+                hits.incrementAndGet();
+                return entry.result;
+            }
+            if (entry != null) entries.remove(key);
+        }
+
+        misses.incrementAndGet();
+        // Keyed by generation too, so nobody joins a search that started before a write
+        FlightSearchResult result = budget == null
+                ? searchRequestCoalescer.execute(key + "#" + startGeneration, search)
+                : searchRequestCoalescer.execute(key + "#" + startGeneration, search, budget::isCancelled);
+        synchronized (this) {
+            if (generation == startGeneration && !result.isPartial()) {
+                entries.put(key, new Entry(result, dates));
+                evictOverflow();
+            }
+        }
+        return result;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    // Drops the entries that may contain flights departing on the given dates. Writers call this after
+    // updating the index, so a search that read the old schedule cannot be stored under the new generation.
+    public synchronized void invalidate(LocalDate... dates) {
+        generation++;
+        Set<LocalDate> changed = Stream.of(dates).filter(Objects::nonNull).collect(Collectors.toSet());
+        entries.values().removeIf(entry -> entry.dates == null || !Collections.disjoint(entry.dates, changed));
+    }
+
+    // For writes that can change any result, e.g. an airport's coordinates
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Helper Methods
+    private void evictOverflow() {
+        // Access order: the first entry is the least recently used
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final FlightSearchResult result;
+        private final Set<LocalDate> dates;
+        private final long createdAt = System.currentTimeMillis();
+
+        private Entry(FlightSearchResult result, Set<LocalDate> dates) {
+            this.result = result;
+            this.dates = dates;
+        }
+
+        boolean isExpired(long ttlSeconds) {
+            return System.currentTimeMillis() - createdAt > ttlSeconds * 1000;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.FlightSearchResult;
+import edu.miu.cs.cs425.backend.domain.entity.Itinerary;
+import edu.miu.cs.cs425.backend.domain.entity.RoundTripItinerary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Cursor pagination for search results. The full result of the first request is kept for a short
+// time so later pages are sliced from it instead of searching again. The cursor also carries the
+// schedule version and the sort key of the last item served: if the stored result has expired,
+// the search is rerun and resumes after that key, so pages stay stable when flights change.
+// A cursor is only valid for the query it came from: it carries a hash of the query's normalized key.
+@Component
+public class SearchResultPager {
+
+    public static final String BY_PRICE = "price";
+    public static final String BY_DURATION = "duration";
+    public static final String UNSORTED = "none";
+
+    private static final String CURSOR_PREFIX = "v2";
+
+    private final Map<String, StoredResult> storedResults = new ConcurrentHashMap<>();
+
+    @Value("${search.pagination.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${search.pagination.max-results:1000}")
+    private int maxStoredResults;
+
+    // Returns the requested page, or the whole result when neither a cursor nor a page size is given.
+    // queryKey is the normalized query, e.g. its SearchResultCache key, without the cursor and page size.
+    public FlightSearchResult page(String cursor, Integer pageSize, String queryKey, long scheduleVersion,
+                                   String sortMode, Supplier<FlightSearchResult> search) {
+        if (cursor == null && pageSize == null) {
+            return search.get();
+        }
+        if (pageSize != null && pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+
+        String queryHash = hash(queryKey);
+        if (cursor == null) {
+            return slice(store(search.get(), queryHash, scheduleVersion, sortMode), 0, pageSize);
+        }
+
+        Cursor position = Cursor.decode(cursor);
+        if (!position.queryHash.equals(queryHash) || !position.sortMode.equals(sortMode)) {
+            throw new IllegalArgumentException("Cursor does not belong to this search");
+        }
+        int size = pageSize != null ? pageSize : position.pageSize;
+        StoredResult stored = storedResults.get(position.resultId);
+        if (stored != null && !stored.isExpired(ttlSeconds)) {
+            return slice(stored, position.offset, size);
+        }
+
+        // The stored result is gone: search again and continue after the last item served.
+        // On an unchanged schedule the search is deterministic, so the offset is still exact.
+        StoredResult fresh = store(search.get(), queryHash, scheduleVersion, position.sortMode);
+        int offset = fresh.version == position.version ? position.offset : fresh.resumeAfter(position.lastKey, position.tiesServed);
+        return slice(fresh, offset, size);
+    }
+
+    // Helper Methods
+    private StoredResult store(FlightSearchResult result, String queryHash, long version, String sortMode) {
+        evictExpired();
+        StoredResult stored = new StoredResult(UUID.randomUUID().toString(), result, queryHash, version, sortMode);
+        storedResults.put(stored.id, stored);
+        return stored;
+    }
+
+    private void evictExpired() {
+        storedResults.values().removeIf(stored -> stored.isExpired(ttlSeconds));
+        // Drop the oldest results if we are still over the limit
+        while (storedResults.size() >= maxStoredResults) {
+            Iterator<StoredResult> oldest = storedResults.values().stream()
+                    .sorted((a, b) -> Long.compare(a.createdAt, b.createdAt))
+                    .iterator();
+            if (!oldest.hasNext()) break;
+            storedResults.remove(oldest.next().id);
+        }
+    }
+
+    private FlightSearchResult slice(StoredResult stored, int offset, int pageSize) {
+        int total = stored.size();
+        int from = Math.min(offset, total);
+        int to = (int) Math.min((long) from + pageSize, total);
+
+        // Both lists are paged with the same offset, like the unpaged result returns both
+        FlightSearchResult page = new FlightSearchResult();
+        page.setPartial(stored.partial);
+        if (stored.oneWay != null) {
+            page.setOneWayItineraries(subList(stored.oneWay, from, to));
+        }
+        if (stored.roundTrip != null) {
+            page.setRoundTripItineraries(subList(stored.roundTrip, from, to));
+        }
+
+        if (to < total) {
+            // Keys come from the primary list; once it is exhausted any resume lands past its end
+            double lastKey = to <= stored.primarySize() ? stored.key(to - 1) : Double.POSITIVE_INFINITY;
+            int ties = 0;
+            for (int i = Math.min(to, stored.primarySize()) - 1; i >= 0 && stored.key(i) == lastKey; i--) {
+                ties++;
+            }
+            page.setNextCursor(new Cursor(stored.id, stored.queryHash, to, stored.version, stored.sortMode, lastKey, ties,
+                    pageSize).encode());
+        } else {
+            // Last page, the stored result is no longer needed
+            storedResults.remove(stored.id);
+        }
+        return page;
+    }
+
+    private static String hash(String queryKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(String.valueOf(queryKey).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T> List<T> subList(List<T> items, int from, int to) {
+        return new ArrayList<>(items.subList(Math.min(from, items.size()), Math.min(to, items.size())));
+    }
+
+    private static double sortKey(String sortMode, double price, int duration) {
+        if (BY_PRICE.equals(sortMode)) return price;
+        if (BY_DURATION.equals(sortMode)) return duration;
+        return 0;
+    }
+
+    private static double price(Double price) {
+        return price != null ? price : 0.0;
+    }
+
+    private static int duration(Integer duration) {
+        return duration != null ? duration : 0;
+    }
+
+    private static final class StoredResult {
+        private final String id;
+        private final List<Itinerary> oneWay;
+        private final List<RoundTripItinerary> roundTrip;
+        private final String queryHash;
+        private final long version;
+        private final String sortMode;
+        private final boolean partial;
+        private final long createdAt = System.currentTimeMillis();
+
+        private StoredResult(String id, FlightSearchResult result, String queryHash, long version, String sortMode) {
+            this.id = id;
+            this.oneWay = result.getOneWayItineraries();
+            this.roundTrip = result.getRoundTripItineraries();
+            this.queryHash = queryHash;
+            this.version = version;
+            this.sortMode = sortMode;
+            this.partial = result.isPartial();
+        }
+
+        // Round trips when the result has any, otherwise the one-way itineraries
+        private boolean roundTripPrimary() {
+            return roundTrip != null && !roundTrip.isEmpty();
+        }
+
+        int primarySize() {
+            if (roundTripPrimary()) return roundTrip.size();
+            return oneWay != null ? oneWay.size() : 0;
+        }
+
+        int size() {
+            return Math.max(oneWay != null ? oneWay.size() : 0, roundTrip != null ? roundTrip.size() : 0);
+        }
+
+        double key(int index) {
+            if (roundTripPrimary()) {
+                RoundTripItinerary itinerary = roundTrip.get(index);
+                return sortKey(sortMode, price(itinerary.getTotalPrice()), duration(itinerary.getTotalDuration()));
+            }
+            Itinerary itinerary = oneWay.get(index);
+            return sortKey(sortMode, price(itinerary.getTotalPrice()), duration(itinerary.getTotalDuration()));
+        }
+
+        // First index after the items already served: every smaller key, plus the ties seen so far
+        int resumeAfter(double lastKey, int tiesServed) {
+            int index = 0;
+            int total = primarySize();
+            while (index < total && key(index) < lastKey) index++;
+            int ties = 0;
+            while (index < total && key(index) == lastKey && ties < tiesServed) {
+                index++;
+                ties++;
+            }
+            return index;
+        }
+
+        boolean isExpired(long ttlSeconds) {
+            return System.currentTimeMillis() - createdAt > ttlSeconds * 1000;
+        }
+    }
+
+    // Opaque to clients: base64 of "v2|resultId|queryHash|offset|version|sortMode|lastKey|tiesServed|pageSize"
+    private static final class Cursor {
+        private final String resultId;
+        private final String queryHash;
+        private final int offset;
+        private final long version;
+        private final String sortMode;
+        private final double lastKey;
+        private final int tiesServed;
+        private final int pageSize;
+
+        private Cursor(String resultId, String queryHash, int offset, long version, String sortMode, double lastKey,
+                       int tiesServed, int pageSize) {
+            this.resultId = resultId;
+            this.queryHash = queryHash;
+            this.offset = offset;
+            this.version = version;
+            this.sortMode = sortMode;
+            this.lastKey = lastKey;
+            this.tiesServed = tiesServed;
+            this.pageSize = pageSize;
+        }
+
+        String encode() {
+            String raw = String.join("|", CURSOR_PREFIX, resultId, queryHash, String.valueOf(offset), String.valueOf(version),
+                    sortMode, String.valueOf(lastKey), String.valueOf(tiesServed), String.valueOf(pageSize));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                if (parts.length != 9 || !CURSOR_PREFIX.equals(parts[0])) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                Cursor decoded = new Cursor(parts[1], parts[2], Integer.parseInt(parts[3]), Long.parseLong(parts[4]), parts[5],
+                        Double.parseDouble(parts[6]), Integer.parseInt(parts[7]), Integer.parseInt(parts[8]));
+                if (decoded.offset < 0 || decoded.tiesServed < 0 || decoded.pageSize <= 0) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return decoded;
+            } catch (IllegalArgumentException e) {
+                // Also covers bad base64 and NumberFormatException
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Keeps the K candidates with the smallest sort keys in a bounded max-heap over primitive keys.
+// Callers check accepts() before building a candidate, so anything that cannot make the top K
+// is dropped without being allocated. Equal keys keep their arrival order.
+public class TopKCollector<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int limit;
+    private double[] keys;
+    private long[] sequence;
+    private Object[] items;
+    private int size;
+    private long offered;
+
+    // A null or non-positive limit keeps every candidate
+    public TopKCollector(Integer limit) {
+        this.limit = limit != null && limit > 0 ? limit : Integer.MAX_VALUE;
+        int capacity = Math.min(this.limit, INITIAL_CAPACITY);
+        this.keys = new double[capacity];
+        this.sequence = new long[capacity];
+        this.items = new Object[capacity];
+    }
+
+    public boolean accepts(double key) {
+        return size < limit || key < keys[0];
+    }
+
+    public void offer(double key, T item) {
+        long order = offered++;
+        if (size < limit) {
+            ensureCapacity();
+            keys[size] = key;
+            sequence[size] = order;
+            items[size] = item;
+            siftUp(size++);
+        } else if (key < keys[0]) {
+            // Replace the current worst entry
+            keys[0] = key;
+            sequence[0] = order;
+            items[0] = item;
+            siftDown(0, size);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Drains the heap into ascending key order; the collector is empty afterwards
+    @SuppressWarnings("unchecked")
+    public List<T> toSortedList() {
+        Object[] sorted = new Object[size];
+        for (int last = size - 1; last >= 0; last--) {
+            sorted[last] = items[0];
+            swap(0, last);
+            siftDown(0, last);
+        }
+        size = 0;
+        List<T> result = new ArrayList<>(sorted.length);
+        for (Object item : sorted) {
+            result.add((T) item);
+        }
+        return result;
+    }
+
+    // Helper Methods
+    private void ensureCapacity() {
+        if (size == keys.length) {
+            int capacity = (int) Math.min((long) keys.length * 2, limit);
+            keys = Arrays.copyOf(keys, capacity);
+            sequence = Arrays.copyOf(sequence, capacity);
+            items = Arrays.copyOf(items, capacity);
+        }
+    }
+
+    // Max-heap order: larger key first, later arrival first on ties
+    private boolean worse(int a, int b) {
+        return keys[a] > keys[b] || (keys[a] == keys[b] && sequence[a] > sequence[b]);
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!worse(index, parent)) return;
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, int heapSize) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= heapSize) return;
+            int right = left + 1;
+            int child = right < heapSize && worse(right, left) ? right : left;
+            if (!worse(child, index)) return;
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long order = sequence[a];
+        sequence[a] = sequence[b];
+        sequence[b] = order;
+        Object item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+    }
+}
@@ -0,0 +1,70 @@
+package edu.miu.cs.cs425.backend.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Binary wire format for clients that send Accept: application/x-jackson-smile. Smile is binary JSON, so
+// every endpoint that returns JSON can also return it. Repeated string values such as airport and airline
+// codes are written once and back-referenced after that, and date-times on whole minutes are written as
+// minutes since 1970-01-01T00:00 (the schedule's own resolution) instead of ISO strings.
+@Configuration
+public class SmileConfig {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper());
+    }
+
+    public static ObjectMapper objectMapper() {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        SimpleModule epochMinutes = new SimpleModule("EpochMinutes");
+        epochMinutes.addSerializer(LocalDateTime.class, new EpochMinuteSerializer());
+        epochMinutes.addDeserializer(LocalDateTime.class, new EpochMinuteDeserializer());
+        // Registered last, so it takes precedence over the java.time module for LocalDateTime
+        return new ObjectMapper(factory).findAndRegisterModules().registerModule(epochMinutes);
+    }
+
+    // Times with seconds (e.g. booking timestamps) keep their ISO string so nothing is lost
+    private static final class EpochMinuteSerializer extends JsonSerializer<LocalDateTime> {
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (value.getSecond() == 0 && value.getNano() == 0) {
+                generator.writeNumber(Math.floorDiv(value.toEpochSecond(ZoneOffset.UTC), 60));
+            } else {
+                generator.writeString(value.toString());
+            }
+        }
+    }
+
+    private static final class EpochMinuteDeserializer extends JsonDeserializer<LocalDateTime> {
+        @Override
+        public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDateTime.ofEpochSecond(parser.getLongValue() * 60, 0, ZoneOffset.UTC);
+            }
+            return LocalDateTime.parse(parser.getValueAsString());
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package edu.miu.cs.cs425.backend.data.repository;
 
 import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import edu.miu.cs.cs425.backend.dto.AirlineScheduleFlight;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -26,4 +28,38 @@ public interface FlightRepository extends JpaRepository<Flight, String> {
 
 
     List<Flight> findByAirline_Code(String airlineCode);
-}
\ No newline at end of file
+
+    // Search loads: one statement each, with airports and airline fetched in the same join
+    @Query("SELECT f FROM Flight f JOIN FETCH f.origin JOIN FETCH f.destination LEFT JOIN FETCH f.airline " +
+            "ORDER BY f.departure")
+    List<Flight> findAllWithRoute();
+
+    @Query("SELECT f FROM Flight f JOIN FETCH f.origin JOIN FETCH f.destination JOIN FETCH f.airline a " +
+            "WHERE a.code = :airlineCode ORDER BY f.departure")
+    List<Flight> findByAirlineWithRoute(@Param("airlineCode") String airlineCode);
+
+    // Airline schedule pages: keyset pagination on (sort key, id) within a departure window, so a page
+    // reads the next rows of the (airline, key) index instead of skipping an offset. The projection
+    // leaves out the airport and airline entities.
+    String AIRLINE_SCHEDULE = "SELECT new edu.miu.cs.cs425.backend.dto.AirlineScheduleFlight(f.id, f.flightNumber, " +
+            "f.origin.iataCode, f.destination.iataCode, f.departure, f.arrival, f.duration, f.price, f.seatsAvailable) " +
+            "FROM Flight f WHERE f.airline.code = :airlineCode AND f.departure >= :from AND f.departure < :to ";
+
+    @Query(AIRLINE_SCHEDULE + "AND (f.price > :afterPrice OR (f.price = :afterPrice AND f.id > :afterId)) " +
+            "ORDER BY f.price, f.id")
+    List<AirlineScheduleFlight> findAirlineScheduleByPrice(
+            @Param("airlineCode") String airlineCode, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("afterPrice") double afterPrice, @Param("afterId") String afterId, Pageable pageable);
+
+    @Query(AIRLINE_SCHEDULE + "AND (f.duration > :afterDuration OR (f.duration = :afterDuration AND f.id > :afterId)) " +
+            "ORDER BY f.duration, f.id")
+    List<AirlineScheduleFlight> findAirlineScheduleByDuration(
+            @Param("airlineCode") String airlineCode, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("afterDuration") int afterDuration, @Param("afterId") String afterId, Pageable pageable);
+
+    @Query(AIRLINE_SCHEDULE + "AND (f.departure > :afterDeparture OR (f.departure = :afterDeparture AND f.id > :afterId)) " +
+            "ORDER BY f.departure, f.id")
+    List<AirlineScheduleFlight> findAirlineScheduleByDeparture(
+            @Param("airlineCode") String airlineCode, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+            @Param("afterDeparture") LocalDateTime afterDeparture, @Param("afterId") String afterId, Pageable pageable);
+}
@@ -10,6 +10,8 @@ public class Airport {
     private String name;
     private String city;
     private String country;
+    private Double latitude; // Degrees north, null when unknown
+    private Double longitude; // Degrees east, null when unknown
 
     // No-args constructor
     public Airport() {
@@ -48,6 +50,22 @@ public class Airport {
         this.country = country;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     @Override
     public String toString() {
         return "Airport{" +
@@ -55,6 +73,8 @@ public class Airport {
                 ", name='" + name + '\'' +
                 ", city='" + city + '\'' +
                 ", country='" + country + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
                 '}';
     }
 }
\ No newline at end of file
@@ -34,6 +34,8 @@ public class DataInitializer implements CommandLineRunner {
             "London Heathrow Airport", "Charles de Gaulle Airport"
     );
     private final List<String> airportCodes = Arrays.asList("JFK", "YYZ", "LHR", "CDG");
+    private final List<Double> latitudes = Arrays.asList(40.6413, 43.6777, 51.4700, 49.0097);
+    private final List<Double> longitudes = Arrays.asList(-73.7781, -79.6248, -0.4543, 2.5479);
     private final List<String> firstNames = List.of("John");
     private final List<String> lastNames = List.of("Doe");
 
@@ -85,6 +87,8 @@ public class DataInitializer implements CommandLineRunner {
             airport.setName(airportNames.get(i));
             airport.setCity(cities.get(i));
             airport.setCountry(countries.get(i));
+            airport.setLatitude(latitudes.get(i));
+            airport.setLongitude(longitudes.get(i));
             airports.add(airport);
         }
         airportRepository.saveAll(airports);
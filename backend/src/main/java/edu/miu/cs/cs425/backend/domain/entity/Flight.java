@@ -4,15 +4,25 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_flight_origin_departure", columnList = "origin_iata_code, departure"),
+        @Index(name = "idx_flight_destination_departure", columnList = "destination_iata_code, departure"),
+        @Index(name = "idx_flight_airline_departure", columnList = "airline_code, departure"),
+        @Index(name = "idx_flight_airline_price", columnList = "airline_code, price, id"),
+        @Index(name = "idx_flight_airline_duration", columnList = "airline_code, duration, id")
+})
 public class Flight {
     @Id
     private String id;
     private String flightNumber;
     @ManyToOne
+    @JoinColumn(name = "airline_code")
     private Airline airline;
     @ManyToOne
+    @JoinColumn(name = "origin_iata_code")
     private Airport origin;
     @ManyToOne
+    @JoinColumn(name = "destination_iata_code")
     private Airport destination;
     private LocalDateTime departure;
     private LocalDateTime arrival;
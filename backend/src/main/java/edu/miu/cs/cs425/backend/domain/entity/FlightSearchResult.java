@@ -6,6 +6,9 @@ public class FlightSearchResult {
 
     private List<Itinerary> oneWayItineraries; // For one-way trips
     private List<RoundTripItinerary> roundTripItineraries; // For round trips, using standalone class
+    private List<MultiCityItinerary> multiCityItineraries; // For multi-city trips
+    private String nextCursor; // Continuation cursor for the next page, null on the last page
+    private boolean partial; // The search ran out of time or work budget; more itineraries may exist
 
     // Constructors
     public FlightSearchResult() {
@@ -33,11 +36,38 @@ public class FlightSearchResult {
         this.roundTripItineraries = roundTripItineraries;
     }
 
+    public List<MultiCityItinerary> getMultiCityItineraries() {
+        return multiCityItineraries;
+    }
+
+    public void setMultiCityItineraries(List<MultiCityItinerary> multiCityItineraries) {
+        this.multiCityItineraries = multiCityItineraries;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+
+    public void setPartial(boolean partial) {
+        this.partial = partial;
+    }
+
     @Override
     public String toString() {
         return "FlightSearchResult{" +
                 "oneWayItineraries=" + oneWayItineraries +
                 ", roundTripItineraries=" + roundTripItineraries +
+                ", multiCityItineraries=" + multiCityItineraries +
+                ", nextCursor='" + nextCursor + '\'' +
+                ", partial=" + partial +
                 '}';
     }
 }
\ No newline at end of file
@@ -60,13 +60,17 @@ public class Itinerary {
                 .sum();
 
         // Apply discount based on number of legs
-        int numberOfLegs = flights.size();
+        this.totalPrice = discountedPrice(baseTotalPrice, flights.size());
+    }
+
+    // Total price for the given base fare and number of legs, so searches can rank candidates without building them
+    public static double discountedPrice(double baseTotalPrice, int numberOfLegs) {
         double discountFactor = calculateDiscountFactor(numberOfLegs);
-        this.totalPrice = baseTotalPrice * discountFactor;
+        return baseTotalPrice * discountFactor;
     }
 
     // Helper method to calculate discount factor based on number of legs
-    private double calculateDiscountFactor(int numberOfLegs) {
+    private static double calculateDiscountFactor(int numberOfLegs) {
         // Example discount logic: 5% discount per additional leg beyond 1
         // 1 leg: 100% (no discount), 2 legs: 95%, 3 legs: 90%, etc.
         if (numberOfLegs <= 1) {
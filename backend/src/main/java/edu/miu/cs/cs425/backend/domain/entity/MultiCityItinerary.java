@@ -0,0 +1,44 @@
+package edu.miu.cs.cs425.backend.domain.entity;
+
+import java.util.List;
+
+public class MultiCityItinerary {
+    private List<Itinerary> segments; // One itinerary per requested segment, in order
+    private Double totalPrice;
+    private Integer totalDuration;
+
+    // Constructors
+    public MultiCityItinerary() {
+    }
+
+    public MultiCityItinerary(List<Itinerary> segments, Double totalPrice, Integer totalDuration) {
+        this.segments = segments;
+        this.totalPrice = totalPrice;
+        this.totalDuration = totalDuration;
+    }
+
+    // Getters and setters
+    public List<Itinerary> getSegments() {
+        return segments;
+    }
+
+    public void setSegments(List<Itinerary> segments) {
+        this.segments = segments;
+    }
+
+    public Double getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(Double totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    public Integer getTotalDuration() {
+        return totalDuration;
+    }
+
+    public void setTotalDuration(Integer totalDuration) {
+        this.totalDuration = totalDuration;
+    }
+}
@@ -0,0 +1,8 @@
+package edu.miu.cs.cs425.backend.dto;
+
+import java.time.LocalDateTime;
+
+// One flight of an airline schedule page, with airports as IATA codes instead of nested entities
+public record AirlineScheduleFlight(String id, String flightNumber, String origin, String destination,
+                                    LocalDateTime departure, LocalDateTime arrival, int duration, double price,
+                                    int seatsAvailable) {}
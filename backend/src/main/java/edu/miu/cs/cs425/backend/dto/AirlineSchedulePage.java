@@ -0,0 +1,6 @@
+package edu.miu.cs.cs425.backend.dto;
+
+import java.util.List;
+
+// nextCursor continues after the last flight of this page; null on the last page
+public record AirlineSchedulePage(List<AirlineScheduleFlight> flights, String nextCursor) {}
@@ -0,0 +1,6 @@
+package edu.miu.cs.cs425.backend.dto;
+
+import edu.miu.cs.cs425.backend.domain.entity.FlightSearchResult;
+
+// Outcome of one query in a batch: either a result or the reason it failed
+public record BatchSearchResult(int index, FlightSearchResult result, String error) {}
@@ -0,0 +1,124 @@
+package edu.miu.cs.cs425.backend.dto;
+
+import edu.miu.cs.cs425.backend.domain.entity.Airline;
+import edu.miu.cs.cs425.backend.domain.entity.Airport;
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import edu.miu.cs.cs425.backend.domain.entity.FlightSearchResult;
+import edu.miu.cs.cs425.backend.domain.entity.Itinerary;
+import edu.miu.cs.cs425.backend.domain.entity.MultiCityItinerary;
+import edu.miu.cs.cs425.backend.domain.entity.RoundTripItinerary;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Normalized form of a FlightSearchResult: every flight, airport and airline is listed once, and
+// itineraries refer to flights by their index in flights, flights to airports and airlines by theirs.
+// A flight shared by many itineraries is serialized once instead of once per itinerary.
+public record CompactSearchResult(List<CompactFlight> flights,
+                                  List<Airport> airports,
+                                  List<Airline> airlines,
+                                  List<CompactItinerary> oneWayItineraries,
+                                  List<CompactRoundTrip> roundTripItineraries,
+                                  List<CompactMultiCity> multiCityItineraries,
+                                  String nextCursor,
+                                  boolean partial) {
+
+    // origin, destination and airline are indexes, null when the flight has none
+    public record CompactFlight(String id, String flightNumber, Integer airline, Integer origin, Integer destination,
+                                LocalDateTime departure, LocalDateTime arrival, int duration, double price,
+                                int seatsAvailable) {}
+
+    public record CompactItinerary(int[] flights, Double totalPrice, Integer totalDuration) {}
+
+    public record CompactRoundTrip(int[] outboundFlights, int[] returnFlights, Double totalPrice, Integer totalDuration) {}
+
+    public record CompactMultiCity(List<CompactItinerary> segments, Double totalPrice, Integer totalDuration) {}
+
+    // Lists that are null in the result stay null
+    public static CompactSearchResult from(FlightSearchResult result) {
+        Dictionary dictionary = new Dictionary();
+
+        List<CompactItinerary> oneWay = null;
+        if (result.getOneWayItineraries() != null) {
+            oneWay = new ArrayList<>();
+            for (Itinerary itinerary : result.getOneWayItineraries()) {
+                oneWay.add(dictionary.itinerary(itinerary));
+            }
+        }
+        List<CompactRoundTrip> roundTrips = null;
+        if (result.getRoundTripItineraries() != null) {
+            roundTrips = new ArrayList<>();
+            for (RoundTripItinerary roundTrip : result.getRoundTripItineraries()) {
+                roundTrips.add(new CompactRoundTrip(dictionary.flights(roundTrip.getOutboundFlights()),
+                        dictionary.flights(roundTrip.getReturnFlights()), roundTrip.getTotalPrice(), roundTrip.getTotalDuration()));
+            }
+        }
+        List<CompactMultiCity> multiCity = null;
+        if (result.getMultiCityItineraries() != null) {
+            multiCity = new ArrayList<>();
+            for (MultiCityItinerary trip : result.getMultiCityItineraries()) {
+                List<CompactItinerary> segments = new ArrayList<>();
+                for (Itinerary segment : trip.getSegments()) {
+                    segments.add(dictionary.itinerary(segment));
+                }
+                multiCity.add(new CompactMultiCity(segments, trip.getTotalPrice(), trip.getTotalDuration()));
+            }
+        }
+
+        return new CompactSearchResult(dictionary.flights, dictionary.airports, dictionary.airlines,
+                oneWay, roundTrips, multiCity, result.getNextCursor(), result.isPartial());
+    }
+
+    // Assigns indexes in order of first use, keyed by flight id, IATA code and airline code
+    private static final class Dictionary {
+        private final List<CompactFlight> flights = new ArrayList<>();
+        private final List<Airport> airports = new ArrayList<>();
+        private final List<Airline> airlines = new ArrayList<>();
+        private final Map<String, Integer> flightIndexes = new HashMap<>();
+        private final Map<String, Integer> airportIndexes = new HashMap<>();
+        private final Map<String, Integer> airlineIndexes = new HashMap<>();
+
+        CompactItinerary itinerary(Itinerary itinerary) {
+            return new CompactItinerary(flights(itinerary.getFlights()), itinerary.getTotalPrice(), itinerary.getTotalDuration());
+        }
+
+        int[] flights(List<Flight> path) {
+            if (path == null) return null;
+            int[] indexes = new int[path.size()];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = flight(path.get(i));
+            }
+            return indexes;
+        }
+
+        private int flight(Flight flight) {
+            Integer index = flightIndexes.get(flight.getId());
+            if (index != null) return index;
+            index = flights.size();
+            flights.add(new CompactFlight(flight.getId(), flight.getFlightNumber(), airline(flight.getAirline()),
+                    airport(flight.getOrigin()), airport(flight.getDestination()), flight.getDeparture(),
+                    flight.getArrival(), flight.getDuration(), flight.getPrice(), flight.getSeatsAvailable()));
+            flightIndexes.put(flight.getId(), index);
+            return index;
+        }
+
+        private Integer airport(Airport airport) {
+            if (airport == null) return null;
+            return airportIndexes.computeIfAbsent(airport.getIataCode(), code -> {
+                airports.add(airport);
+                return airports.size() - 1;
+            });
+        }
+
+        private Integer airline(Airline airline) {
+            if (airline == null) return null;
+            return airlineIndexes.computeIfAbsent(airline.getCode(), code -> {
+                airlines.add(airline);
+                return airlines.size() - 1;
+            });
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package edu.miu.cs.cs425.backend.dto;
+
+import java.time.LocalDate;
+
+// Cheapest price and shortest flying time over all itineraries departing on the date; null when there are none
+public record FareCalendarDay(LocalDate date, Double cheapestPrice, Integer fastestDuration) {}
@@ -0,0 +1,3 @@
+package edu.miu.cs.cs425.backend.dto;
+
+public record SearchCacheStats(long hits, long misses, int size) {}
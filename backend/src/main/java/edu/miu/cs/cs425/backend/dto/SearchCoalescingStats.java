@@ -0,0 +1,4 @@
+package edu.miu.cs.cs425.backend.dto;
+
+// Searches actually run, requests that joined an identical running search, and searches running now
+public record SearchCoalescingStats(long executions, long collapsed, int inFlight) {}
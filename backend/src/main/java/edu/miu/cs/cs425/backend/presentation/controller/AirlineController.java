@@ -1,4 +1,34 @@
 package edu.miu.cs.cs425.backend.presentation.controller;
 
+import edu.miu.cs.cs425.backend.service.AirlineService;
+import edu.miu.cs.cs425.backend.service.ReferenceDataVersions;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/airlines")
+@CrossOrigin(origins = {"http://localhost:3000","http://flight-app.s3-website-us-east-1.amazonaws.com"}, allowedHeaders = "*", allowCredentials = "true")
+@Tag(name = "Airline API", description = "Endpoints for reading airlines")
 public class AirlineController {
+    private final AirlineService airlineService;
+    private final ReferenceResponseCache referenceResponseCache;
+
+    public AirlineController(AirlineService airlineService, ReferenceResponseCache referenceResponseCache) {
+        this.airlineService = airlineService;
+        this.referenceResponseCache = referenceResponseCache;
+    }
+
+    @Operation(summary = "Find all airlines", description = "Retrieves a list of all airlines. The response carries an ETag; revalidate with If-None-Match to get 304 Not Modified while the airlines are unchanged, and send Accept-Encoding: gzip for a compressed body.")
+    @ApiResponse(responseCode = "200", description = "List of airlines retrieved successfully")
+    @ApiResponse(responseCode = "304", description = "Airlines unchanged since the ETag in If-None-Match")
+    @GetMapping
+    public ResponseEntity<byte[]> findAllAirlines(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return referenceResponseCache.get(ReferenceDataVersions.Collection.AIRLINES, accept, acceptEncoding,
+                airlineService::findAllAirlines);
+    }
 }
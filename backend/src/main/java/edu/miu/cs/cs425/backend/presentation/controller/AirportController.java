@@ -2,9 +2,11 @@ package edu.miu.cs.cs425.backend.presentation.controller;
 
 import edu.miu.cs.cs425.backend.domain.entity.Airport;
 import edu.miu.cs.cs425.backend.service.AirportService;
+import edu.miu.cs.cs425.backend.service.ReferenceDataVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,9 +18,11 @@ import java.util.List;
 @Tag(name = "Airport API", description = "Endpoints for managing airports")
 public class AirportController {
     private final AirportService airportService;
+    private final ReferenceResponseCache referenceResponseCache;
 
-    public AirportController(AirportService airportService) {
+    public AirportController(AirportService airportService, ReferenceResponseCache referenceResponseCache) {
         this.airportService = airportService;
+        this.referenceResponseCache = referenceResponseCache;
     }
 
     @Operation(summary = "Create a new airport", description = "Creates a new airport with a unique IATA code")
@@ -38,12 +42,14 @@ public class AirportController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Find all airports", description = "Retrieves a list of all airports")
+    @Operation(summary = "Find all airports", description = "Retrieves a list of all airports. The response carries an ETag; revalidate with If-None-Match to get 304 Not Modified while the airports are unchanged, and send Accept-Encoding: gzip for a compressed body.")
     @ApiResponse(responseCode = "200", description = "List of airports retrieved successfully")
+    @ApiResponse(responseCode = "304", description = "Airports unchanged since the ETag in If-None-Match")
     @GetMapping
-    public ResponseEntity<List<Airport>> findAllAirports() {
-        List<Airport> airports = airportService.findAllAirports();
-        return ResponseEntity.ok(airports);
+    public ResponseEntity<byte[]> findAllAirports(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return referenceResponseCache.get(ReferenceDataVersions.Collection.AIRPORTS, accept, acceptEncoding,
+                airportService::findAllAirports);
     }
 
     @Operation(summary = "Update airport", description = "Updates the details of an existing airport")
@@ -14,6 +14,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -62,17 +63,25 @@ public class BookingController {
         return ResponseEntity.ok(flight);
     }
 
-    @Operation(summary = "Search flights", description = "Searches for flight itineraries based on start airport, destination airport, date, and optional filters. Returns a list of one-way or round-trip itineraries ordered by the filter criterion (fastest or cheapest).")
+    @Operation(summary = "Search flights", description = "Searches for flight itineraries based on start airport, destination airport, date, and optional filters. Returns a list of one-way or round-trip itineraries ordered by the filter criterion (fastest or cheapest). Set pageSize to page the result and pass the returned nextCursor to fetch the next page. Send Accept: application/vnd.flightbooking.compact+json or format=compact to get each flight, airport and airline once, referenced by index from the itineraries.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Flight search result containing one-way or round-trip itineraries"),
             @ApiResponse(responseCode = "400", description = "Invalid search query provided")
     })
     @PostMapping("/search")
-    public ResponseEntity<FlightSearchResult> searchFlights(
+    public ResponseEntity<?> searchFlights(
             @Parameter(description = "Query object containing search criteria", required = true)
-            @RequestBody FlightSearchQuery query) {
-        FlightSearchResult result = bookingQueryHandler.searchFlights(query);
-        return ResponseEntity.ok(result);
+            @RequestBody FlightSearchQuery query,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        try {
+            boolean compact = SearchResponseFormat.isCompact(format, accept);
+            FlightSearchResult result = bookingQueryHandler.searchFlights(query);
+            return SearchResponseFormat.ok(result, compact, accept);
+        } catch (IllegalArgumentException e) {
+            // Invalid page size, cursor or Accept header
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/user/{userId}")
@@ -1,16 +1,38 @@
 package edu.miu.cs.cs425.backend.presentation.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.miu.cs.cs425.backend.application.query.FlightRouteSearchQuery;
+import edu.miu.cs.cs425.backend.application.query.MultiCitySearchQuery;
+import edu.miu.cs.cs425.backend.application.search.SearchBudget;
 import edu.miu.cs.cs425.backend.domain.entity.FlightSearchResult;
 import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import edu.miu.cs.cs425.backend.domain.entity.Itinerary;
+import edu.miu.cs.cs425.backend.dto.AirlineSchedulePage;
+import edu.miu.cs.cs425.backend.dto.BatchSearchResult;
+import edu.miu.cs.cs425.backend.dto.FareCalendarDay;
+import edu.miu.cs.cs425.backend.dto.SearchCacheStats;
+import edu.miu.cs.cs425.backend.dto.SearchCoalescingStats;
 import edu.miu.cs.cs425.backend.service.FlightService;
+import edu.miu.cs.cs425.backend.service.ReferenceDataVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
 @RequestMapping("/api/flights")
@@ -18,9 +40,14 @@ import java.util.List;
 @Tag(name = "FlightRequest API", description = "Endpoints for managing flights")
 public class FlightController {
     private final FlightService flightService;
+    private final ObjectMapper objectMapper;
+    private final ReferenceResponseCache referenceResponseCache;
 
-    public FlightController(FlightService flightService) {
+    public FlightController(FlightService flightService, ObjectMapper objectMapper,
+                            ReferenceResponseCache referenceResponseCache) {
         this.flightService = flightService;
+        this.objectMapper = objectMapper;
+        this.referenceResponseCache = referenceResponseCache;
     }
 
     @Operation(summary = "Create a new flight", description = "Creates a new flight with a unique ID")
@@ -40,12 +67,14 @@ public class FlightController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @Operation(summary = "Find all flights", description = "Retrieves a list of all flights")
+    @Operation(summary = "Find all flights", description = "Retrieves a list of all flights. Send Accept: application/x-jackson-smile for the binary Smile encoding. The response carries an ETag; revalidate with If-None-Match to get 304 Not Modified while the flights are unchanged, and send Accept-Encoding: gzip for a compressed body.")
     @ApiResponse(responseCode = "200", description = "List of flights retrieved successfully")
+    @ApiResponse(responseCode = "304", description = "Flights unchanged since the ETag in If-None-Match")
     @GetMapping
-    public ResponseEntity<List<Flight>> findAllFlights() {
-        List<Flight> flights = flightService.findAllFlights();
-        return ResponseEntity.ok(flights);
+    public ResponseEntity<byte[]> findAllFlights(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return referenceResponseCache.get(ReferenceDataVersions.Collection.FLIGHTS, accept, acceptEncoding,
+                flightService::findAllFlights);
     }
 
     @Operation(summary = "Update flight", description = "Updates the details of an existing flight")
@@ -72,19 +101,137 @@ public class FlightController {
         }
     }
 
-    @Operation(summary = "Search flights by route", description = "Searches for flight itineraries between two airports, including direct and connecting flights. Returns one-way itineraries if endDate is absent, or round-trip itineraries if endDate is provided, ordered by the filter criterion (fastest or cheapest).")
+    @Operation(summary = "Search flights by route", description = "Searches for flight itineraries between two airports, including direct and connecting flights. Returns one-way itineraries if endDate is absent, or round-trip itineraries if endDate is provided, ordered by the filter criterion (fastest or cheapest). Optional constraints (maxStops, minConnectionMinutes, maxConnectionMinutes, departAfter, departBefore, arriveAfter, arriveBefore, includedAirlines, excludedAirlines) are applied during the search, to both directions of a round trip. Set pageSize to page the result and pass the returned nextCursor to fetch the next page. A search that runs out of its time or work budget returns the itineraries found so far with partial set to true. Send Accept: application/vnd.flightbooking.compact+json or format=compact to get each flight, airport and airline once, referenced by index from the itineraries. Send Accept: application/x-jackson-smile for the binary Smile encoding of either shape.")
     @ApiResponse(responseCode = "200", description = "FlightRequest search result containing one-way or round-trip itineraries")
     @PostMapping("/search/route")
-    public ResponseEntity<FlightSearchResult> findFlightsByRouteAndDate(
-            @RequestBody(required = false) FlightRouteSearchQuery query) {
+    public WebAsyncTask<ResponseEntity<?>> findFlightsByRouteAndDate(
+            @RequestBody(required = false) FlightRouteSearchQuery query,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        SearchBudget budget = flightService.newSearchBudget();
+        return searchTask(budget, () -> {
+            try {
+                boolean compact = SearchResponseFormat.isCompact(format, accept);
+                FlightSearchResult result = flightService.findFlightsByRoute(query, budget);
+                return SearchResponseFormat.ok(result, compact, accept);
+            } catch (Exception e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
+    }
+
+    @Operation(summary = "Batch search flights by route", description = "Runs up to 500 route searches against one schedule snapshot. Queries with the same date and origin are evaluated together and groups run in parallel. Results are returned in request order; a query that fails carries an error message instead of a result without failing the batch.")
+    @ApiResponse(responseCode = "200", description = "One result or error per query, in request order")
+    @ApiResponse(responseCode = "400", description = "Empty or oversized batch")
+    @PostMapping("/search/route/batch")
+    public ResponseEntity<List<BatchSearchResult>> findFlightsByRouteBatch(@RequestBody List<FlightRouteSearchQuery> queries) {
+        try {
+            return ResponseEntity.ok(flightService.findFlightsByRouteBatch(queries));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Search multi-city flights", description = "Searches a trip of 2 to 6 segments (A to B, then C to D, ...), each with its own date and optional maxStops and departure time window. Every segment must depart after the previous one lands. Itineraries are ordered by the filter criterion (fastest or cheapest). A search that runs out of its time or work budget returns the itineraries found so far with partial set to true. Supports the same compact format as /search/route.")
+    @ApiResponse(responseCode = "200", description = "FlightRequest search result containing multi-city itineraries")
+    @ApiResponse(responseCode = "400", description = "Missing or invalid segments")
+    @PostMapping("/search/multi-city")
+    public WebAsyncTask<ResponseEntity<?>> findMultiCityItineraries(
+            @RequestBody MultiCitySearchQuery query,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        SearchBudget budget = flightService.newSearchBudget();
+        return searchTask(budget, () -> {
+            try {
+                boolean compact = SearchResponseFormat.isCompact(format, accept);
+                return SearchResponseFormat.ok(flightService.findMultiCityItineraries(query, budget), compact, accept);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        });
+    }
+
+    @Operation(summary = "Stream flights by route", description = "Same search as /search/route, but writes one itinerary per line (NDJSON) as soon as it is found. Results follow the filter order where the engine allows it; round trips are always emitted in order. Closing the connection stops the search.")
+    @ApiResponse(responseCode = "200", description = "Newline-delimited JSON stream of itineraries")
+    @ApiResponse(responseCode = "400", description = "Invalid constraints, unknown engine or inconsistent dates")
+    @PostMapping(value = "/search/route/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFlightsByRoute(@RequestBody FlightRouteSearchQuery query) {
+        // Once the body starts the status is committed, so reject bad queries here
+        try {
+            flightService.validateRouteQuery(query);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> flightService.streamFlightsByRoute(query, itinerary -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(itinerary));
+                outputStream.write('\n');
+                outputStream.flush();
+                return true;
+            } catch (IOException e) {
+                // The client went away, stop searching
+                return false;
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @Operation(summary = "Earliest arrival", description = "Finds the journey that reaches the destination as early as possible when leaving the origin at or after the given time")
+    @ApiResponse(responseCode = "200", description = "Earliest-arrival itinerary")
+    @ApiResponse(responseCode = "404", description = "Destination not reachable")
+    @GetMapping("/search/earliest-arrival")
+    public ResponseEntity<Itinerary> findEarliestArrival(
+            @RequestParam String startAirport,
+            @RequestParam String destinationAirport,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departAfter) {
+        return flightService.findEarliestArrival(startAirport, destinationAirport, departAfter)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Latest departure", description = "Finds the latest departure from the origin that still reaches the destination by the given time")
+    @ApiResponse(responseCode = "200", description = "Latest-departure itinerary")
+    @ApiResponse(responseCode = "404", description = "Destination not reachable in time")
+    @GetMapping("/search/latest-departure")
+    public ResponseEntity<Itinerary> findLatestDeparture(
+            @RequestParam String startAirport,
+            @RequestParam String destinationAirport,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime arriveBy) {
+        return flightService.findLatestDeparture(startAirport, destinationAirport, arriveBy)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Fare calendar", description = "Cheapest price and fastest duration per day for direct and one-stop itineraries between two airports, for the given date plus or minus the given number of days")
+    @ApiResponse(responseCode = "200", description = "One entry per day, with null values on days without itineraries")
+    @ApiResponse(responseCode = "400", description = "Invalid date window")
+    @GetMapping("/search/calendar")
+    public ResponseEntity<List<FareCalendarDay>> getFareCalendar(
+            @RequestParam String startAirport,
+            @RequestParam String destinationAirport,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "3") int days) {
         try {
-            FlightSearchResult result = flightService.findFlightsByRoute(query);
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
+            return ResponseEntity.ok(flightService.getFareCalendar(startAirport, destinationAirport, date, days));
+        } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @Operation(summary = "Search cache statistics", description = "Hit and miss counters and the current size of the search result cache")
+    @ApiResponse(responseCode = "200", description = "Cache statistics retrieved successfully")
+    @GetMapping("/search/cache-stats")
+    public ResponseEntity<SearchCacheStats> getSearchCacheStats() {
+        return ResponseEntity.ok(flightService.getSearchCacheStats());
+    }
+
+    @Operation(summary = "Search coalescing statistics", description = "Searches actually run, requests that shared an identical search already in progress, and searches running now")
+    @ApiResponse(responseCode = "200", description = "Coalescing statistics retrieved successfully")
+    @GetMapping("/search/coalescing-stats")
+    public ResponseEntity<SearchCoalescingStats> getSearchCoalescingStats() {
+        return ResponseEntity.ok(flightService.getSearchCoalescingStats());
+    }
+
     @Operation(summary = "Search flights by airline", description = "Retrieves flights for a specific airline, optionally sorted by the specified filter criterion (e.g., fastest or cheapest)")
     @ApiResponse(responseCode = "200", description = "List of matching flights retrieved successfully")
     @GetMapping("/search/airline")
@@ -94,4 +241,50 @@ public class FlightController {
         List<Flight> flights = flightService.findFlightsByAirline(airlineCode, filterCriterion);
         return ResponseEntity.ok(flights);
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Airline schedule", description = "One page of an airline's flights departing between from and to (dates, inclusive; from defaults to today and to to one year later), sorted by the database by price (cheapest), duration (fastest) or departure. Airports are given as IATA codes. Pass the returned nextCursor with the same sort to fetch the next page.")
+    @ApiResponse(responseCode = "200", description = "Page of schedule entries")
+    @ApiResponse(responseCode = "400", description = "Invalid date window, page size or cursor")
+    @GetMapping("/search/airline/schedule")
+    public ResponseEntity<AirlineSchedulePage> findAirlineSchedule(
+            @RequestParam String airlineCode,
+            @RequestParam(required = false) String filterCriterion,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(flightService.findAirlineSchedule(airlineCode, filterCriterion, from, to, pageSize, cursor));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Runs the search off the request thread. If the client goes away or the request times out, the budget
+    // is cancelled so the search stops instead of running on for nobody.
+    private WebAsyncTask<ResponseEntity<?>> searchTask(SearchBudget budget, Callable<ResponseEntity<?>> search) {
+        Long timeout = flightService.searchTimeoutMillis();
+        AtomicBoolean delivered = new AtomicBoolean();
+        Callable<ResponseEntity<?>> tracked = () -> {
+            ResponseEntity<?> response = search.call();
+            delivered.set(true);
+            return response;
+        };
+        WebAsyncTask<ResponseEntity<?>> task = timeout != null
+                ? new WebAsyncTask<>(timeout, tracked)
+                : new WebAsyncTask<>(tracked);
+        task.onTimeout(() -> {
+            budget.cancel();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        });
+        task.onError(() -> {
+            budget.cancel();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        });
+        // The request ended without the search's result, e.g. the client disconnected before the deadline
+        task.onCompletion(() -> {
+            if (!delivered.get()) budget.cancel();
+        });
+        return task;
+    }
+}
@@ -0,0 +1,133 @@
+package edu.miu.cs.cs425.backend.presentation.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.cs.cs425.backend.config.SmileConfig;
+import edu.miu.cs.cs425.backend.service.ReferenceDataVersions;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Pre-serialized responses for the reference data lists (airports, airlines, flights). Each list is
+// serialized and gzipped once per collection version and served as bytes with a strong ETag taken from
+// the content, so a client revalidating with If-None-Match gets a 304 without a database query.
+// JSON and Smile are cached separately; brotli is not offered because the JDK has no encoder for it.
+@Component
+public class ReferenceResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper smileObjectMapper = SmileConfig.objectMapper();
+    private final ReferenceDataVersions referenceDataVersions;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ReferenceResponseCache(ObjectMapper objectMapper, ReferenceDataVersions referenceDataVersions) {
+        this.objectMapper = objectMapper;
+        this.referenceDataVersions = referenceDataVersions;
+    }
+
+    // Spring answers If-None-Match with 304 from the ETag set here
+    public ResponseEntity<byte[]> get(ReferenceDataVersions.Collection collection, String accept, String acceptEncoding,
+                                      Supplier<?> load) {
+        boolean smile = accepts(accept, SmileConfig.SMILE);
+        Entry entry = entry(collection, smile, load);
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(smile ? SmileConfig.SMILE : MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            // A different encoding is a different representation, so it gets its own ETag
+            return response.eTag("\"" + entry.etag + "-gzip\"")
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(entry.gzipped);
+        }
+        return response.eTag("\"" + entry.etag + "\"").body(entry.body);
+    }
+
+    // Helper Methods
+    private Entry entry(ReferenceDataVersions.Collection collection, boolean smile, Supplier<?> load) {
+        String key = collection + (smile ? "|smile" : "|json");
+        // Read before loading: a write during the load leaves the entry behind the next version
+        long version = referenceDataVersions.current(collection);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version == version) return entry;
+
+        try {
+            byte[] body = (smile ? smileObjectMapper : objectMapper).writeValueAsBytes(load.get());
+            entry = new Entry(version, etag(body), body, gzip(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + collection, e);
+        }
+        entries.put(key, entry);
+        return entry;
+    }
+
+    private static boolean accepts(String accept, MediaType mediaType) {
+        if (accept == null) return false;
+        for (MediaType type : MediaType.parseMediaTypes(accept)) {
+            if (mediaType.equalsTypeAndSubtype(type)) return true;
+        }
+        return false;
+    }
+
+    // gzip or *, unless it is listed with q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final String etag;
+        private final byte[] body;
+        private final byte[] gzipped;
+
+        private Entry(long version, String etag, byte[] body, byte[] gzipped) {
+            this.version = version;
+            this.etag = etag;
+            this.body = body;
+            this.gzipped = gzipped;
+        }
+    }
+}
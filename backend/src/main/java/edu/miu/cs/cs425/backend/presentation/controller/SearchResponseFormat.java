@@ -0,0 +1,41 @@
+package edu.miu.cs.cs425.backend.presentation.controller;
+
+import edu.miu.cs.cs425.backend.config.SmileConfig;
+import edu.miu.cs.cs425.backend.domain.entity.FlightSearchResult;
+import edu.miu.cs.cs425.backend.dto.CompactSearchResult;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+// Picks the shape of a search response. Clients that send the compact media type in Accept, or
+// format=compact, get a CompactSearchResult (each flight, airport and airline listed once); everyone
+// else gets the FlightSearchResult as before. A compact result asked for together with Accept: Smile is
+// sent as Smile.
+final class SearchResponseFormat {
+
+    static final String COMPACT_JSON_VALUE = "application/vnd.flightbooking.compact+json";
+    static final MediaType COMPACT_JSON = MediaType.parseMediaType(COMPACT_JSON_VALUE);
+
+    private SearchResponseFormat() {
+    }
+
+    // An explicit format parameter wins over the Accept header
+    static boolean isCompact(String format, String accept) {
+        if (format != null) return "compact".equalsIgnoreCase(format);
+        return accepts(accept, COMPACT_JSON);
+    }
+
+    // The full result is left to content negotiation, which also covers Smile
+    static ResponseEntity<?> ok(FlightSearchResult result, boolean compact, String accept) {
+        if (!compact) return ResponseEntity.ok(result);
+        MediaType type = accepts(accept, SmileConfig.SMILE) ? SmileConfig.SMILE : COMPACT_JSON;
+        return ResponseEntity.ok().contentType(type).body(CompactSearchResult.from(result));
+    }
+
+    private static boolean accepts(String accept, MediaType mediaType) {
+        if (accept == null) return false;
+        for (MediaType type : MediaType.parseMediaTypes(accept)) {
+            if (mediaType.equalsTypeAndSubtype(type)) return true;
+        }
+        return false;
+    }
+}
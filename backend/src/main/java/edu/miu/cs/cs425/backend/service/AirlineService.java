@@ -2,6 +2,7 @@ package edu.miu.cs.cs425.backend.service;
 
 import edu.miu.cs.cs425.backend.data.repository.AirlineRepository;
 import edu.miu.cs.cs425.backend.domain.entity.Airline;
+import edu.miu.cs.cs425.backend.service.ReferenceDataVersions.Collection;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -10,9 +11,11 @@ import java.util.Optional;
 @Service
 public class AirlineService {
     private final AirlineRepository airlineRepository;
+    private final ReferenceDataVersions referenceDataVersions;
 
-    public AirlineService(AirlineRepository airlineRepository) {
+    public AirlineService(AirlineRepository airlineRepository, ReferenceDataVersions referenceDataVersions) {
         this.airlineRepository = airlineRepository;
+        this.referenceDataVersions = referenceDataVersions;
     }
 
     // Create
@@ -20,7 +23,9 @@ public class AirlineService {
         if (airline.getCode() == null || airline.getCode().trim().isEmpty()) {
             throw new IllegalArgumentException("Airline code cannot be null or empty");
         }
-        return airlineRepository.save(airline);
+        Airline savedAirline = airlineRepository.save(airline);
+        referenceDataVersions.bump(Collection.AIRLINES);
+        return savedAirline;
     }
 
     // Read - Find One
@@ -40,7 +45,9 @@ public class AirlineService {
             Airline airline = existingAirline.get();
             airline.setName(airlineDetails.getName());
             airline.setLogoUrl(airlineDetails.getLogoUrl());
-            return airlineRepository.save(airline);
+            Airline savedAirline = airlineRepository.save(airline);
+            referenceDataVersions.bump(Collection.AIRLINES, Collection.FLIGHTS);
+            return savedAirline;
         } else {
             throw new IllegalArgumentException("Airline with code " + code + " not found");
         }
@@ -52,6 +59,7 @@ public class AirlineService {
             throw new IllegalArgumentException("Airline with code " + code + " not found");
         }
         airlineRepository.deleteById(code);
+        referenceDataVersions.bump(Collection.AIRLINES, Collection.FLIGHTS);
     }
 
     // Custom search by name
@@ -2,6 +2,7 @@ package edu.miu.cs.cs425.backend.service;
 
 import edu.miu.cs.cs425.backend.data.repository.AirportRepository;
 import edu.miu.cs.cs425.backend.domain.entity.Airport;
+import edu.miu.cs.cs425.backend.service.ReferenceDataVersions.Collection;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,9 +12,14 @@ import java.util.Optional;
 @Service
 public class AirportService {
     private final AirportRepository airportRepository;
+    private final ReferenceDataVersions referenceDataVersions;
+    private final FlightService flightService;
 
-    public AirportService(AirportRepository airportRepository) {
+    public AirportService(AirportRepository airportRepository, ReferenceDataVersions referenceDataVersions,
+                          FlightService flightService) {
         this.airportRepository = airportRepository;
+        this.referenceDataVersions = referenceDataVersions;
+        this.flightService = flightService;
     }
 
     // Create
@@ -21,7 +27,9 @@ public class AirportService {
         if (airport.getIataCode() == null || airport.getIataCode().trim().isEmpty()) {
             throw new IllegalArgumentException("Airport IATA code cannot be null or empty");
         }
-        return airportRepository.save(airport);
+        Airport savedAirport = airportRepository.save(airport);
+        referenceDataVersions.bump(Collection.AIRPORTS);
+        return savedAirport;
     }
 
     // Read - Find One
@@ -42,7 +50,13 @@ public class AirportService {
             airport.setName(airportDetails.getName());
             airport.setCity(airportDetails.getCity());
             airport.setCountry(airportDetails.getCountry());
-            return airportRepository.save(airport);
+            // Coordinates are optional in an update; leaving them out keeps the stored ones
+            if (airportDetails.getLatitude() != null) airport.setLatitude(airportDetails.getLatitude());
+            if (airportDetails.getLongitude() != null) airport.setLongitude(airportDetails.getLongitude());
+            Airport savedAirport = airportRepository.save(airport);
+            flightService.onAirportChanged();
+            referenceDataVersions.bump(Collection.AIRPORTS, Collection.FLIGHTS);
+            return savedAirport;
         } else {
             throw new IllegalArgumentException("Airport with IATA code " + iataCode + " not found");
         }
@@ -54,6 +68,8 @@ public class AirportService {
             throw new IllegalArgumentException("Airport with IATA code " + iataCode + " not found");
         }
         airportRepository.deleteById(iataCode);
+        flightService.onAirportChanged();
+        referenceDataVersions.bump(Collection.AIRPORTS, Collection.FLIGHTS);
     }
 
     // Custom search by city
@@ -1,31 +1,125 @@
 package edu.miu.cs.cs425.backend.service;
 
 import edu.miu.cs.cs425.backend.application.query.FlightRouteSearchQuery;
+import edu.miu.cs.cs425.backend.application.query.MultiCitySearchQuery;
+import edu.miu.cs.cs425.backend.application.search.ConnectionScanSearch;
+import edu.miu.cs.cs425.backend.application.search.ConnectionTable;
+import edu.miu.cs.cs425.backend.application.search.DepthFirstRouteSearch;
+import edu.miu.cs.cs425.backend.application.search.FareCalendar;
+import edu.miu.cs.cs425.backend.application.search.FlightNetworkIndex;
+import edu.miu.cs.cs425.backend.application.search.FlightNetworkSnapshot;
+import edu.miu.cs.cs425.backend.application.search.KBestJoin;
+import edu.miu.cs.cs425.backend.application.search.RouteRequest;
+import edu.miu.cs.cs425.backend.application.search.SearchBudget;
+import edu.miu.cs.cs425.backend.application.search.SearchBudgetFactory;
+import edu.miu.cs.cs425.backend.application.search.SearchConstraints;
+import edu.miu.cs.cs425.backend.application.search.SearchEngineRegistry;
+import edu.miu.cs.cs425.backend.application.search.SearchRequestCoalescer;
+import edu.miu.cs.cs425.backend.application.search.SearchResultCache;
+import edu.miu.cs.cs425.backend.application.search.SearchResultPager;
+import edu.miu.cs.cs425.backend.application.search.TopKCollector;
 import edu.miu.cs.cs425.backend.data.repository.FlightRepository;
 import edu.miu.cs.cs425.backend.domain.entity.Flight;
 import edu.miu.cs.cs425.backend.domain.entity.FlightSearchResult;
 import edu.miu.cs.cs425.backend.domain.entity.Itinerary;
+import edu.miu.cs.cs425.backend.domain.entity.MultiCityItinerary;
 import edu.miu.cs.cs425.backend.domain.entity.RoundTripItinerary;
+import edu.miu.cs.cs425.backend.dto.AirlineScheduleFlight;
+import edu.miu.cs.cs425.backend.dto.AirlineSchedulePage;
+import edu.miu.cs.cs425.backend.dto.BatchSearchResult;
+import edu.miu.cs.cs425.backend.dto.FareCalendarDay;
+import edu.miu.cs.cs425.backend.dto.SearchCacheStats;
+import edu.miu.cs.cs425.backend.dto.SearchCoalescingStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
 
 @Service
 public class FlightService {
 
-    private final FlightRepository flightRepository;
+    // Engines take at most maxLegs legs; the original DFS went one leg past its limit of 3, so routes keep up to 4
+    private static final int MAX_LEGS = 4;
+    private static final int MAX_CALENDAR_DAYS = 31;
+    private static final int MAX_SEGMENTS = 6;
+    // Itineraries a multi-city search returns when no limit is given, and the most it may ask for
+    private static final int DEFAULT_MULTI_CITY_LIMIT = 100;
+    private static final int MAX_MULTI_CITY_LIMIT = 1000;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int DEFAULT_SCHEDULE_PAGE_SIZE = 50;
+    private static final int MAX_SCHEDULE_PAGE_SIZE = 500;
 
-    public FlightService(FlightRepository flightRepository) {
+    private final FlightRepository flightRepository;
+    private final FlightNetworkIndex flightNetworkIndex;
+    private final DepthFirstRouteSearch depthFirstRouteSearch;
+    private final ConnectionScanSearch connectionScanSearch;
+    private final SearchResultPager searchResultPager;
+    private final SearchResultCache searchResultCache;
+    private final ConnectionTable connectionTable;
+    private final FareCalendar fareCalendar;
+    private final SearchEngineRegistry searchEngineRegistry;
+    private final SearchRequestCoalescer searchRequestCoalescer;
+    private final SearchBudgetFactory searchBudgetFactory;
+    private final ReferenceDataVersions referenceDataVersions;
+
+    @Value("${search.csa.min-connection-minutes:30}")
+    private int minConnectionMinutes;
+
+    public FlightService(FlightRepository flightRepository, FlightNetworkIndex flightNetworkIndex,
+                         DepthFirstRouteSearch depthFirstRouteSearch, ConnectionScanSearch connectionScanSearch,
+                         SearchResultPager searchResultPager, SearchResultCache searchResultCache,
+                         ConnectionTable connectionTable, FareCalendar fareCalendar,
+                         SearchEngineRegistry searchEngineRegistry, SearchRequestCoalescer searchRequestCoalescer,
+                         SearchBudgetFactory searchBudgetFactory, ReferenceDataVersions referenceDataVersions) {
         this.flightRepository = flightRepository;
+        this.flightNetworkIndex = flightNetworkIndex;
+        this.depthFirstRouteSearch = depthFirstRouteSearch;
+        this.connectionScanSearch = connectionScanSearch;
+        this.searchResultPager = searchResultPager;
+        this.searchResultCache = searchResultCache;
+        this.connectionTable = connectionTable;
+        this.fareCalendar = fareCalendar;
+        this.searchEngineRegistry = searchEngineRegistry;
+        this.searchRequestCoalescer = searchRequestCoalescer;
+        this.searchBudgetFactory = searchBudgetFactory;
+        this.referenceDataVersions = referenceDataVersions;
+    }
+
+    // Builds the connection table from the index loaded at startup (the index reloads first), so it is not
+    // left to the first search, which may hold an older snapshot
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildConnectionTable() {
+        connectionTable.rebuild(flightNetworkIndex);
+    }
+
+    // The index and the connection table hold copies of every flight's airports, so an airport write reloads
+    // both; any cached result may show the old airport or have been ranked by its old coordinates
+    public void onAirportChanged() {
+        flightNetworkIndex.rebuild();
+        connectionTable.rebuild(flightNetworkIndex);
+        searchResultCache.invalidateAll();
     }
 
     // CRUD Operations
     public Flight createFlight(Flight flight) {
-        return flightRepository.save(flight);
+        Flight savedFlight = flightRepository.save(flight);
+        flightNetworkIndex.onFlightSaved(savedFlight);
+        connectionTable.onFlightSaved(savedFlight, flightNetworkIndex.snapshot());
+        searchResultCache.invalidate(departureDate(savedFlight));
+        referenceDataVersions.bump(ReferenceDataVersions.Collection.FLIGHTS);
+        return savedFlight;
     }
 
     public Optional<Flight> findFlightById(String id) {
@@ -39,6 +133,7 @@ public class FlightService {
     public Flight updateFlight(String id, Flight flightDetails) {
         return flightRepository.findById(id)
                 .map(flight -> {
+                    LocalDate previousDate = departureDate(flight);
                     flight.setOrigin(flightDetails.getOrigin());
                     flight.setDestination(flightDetails.getDestination());
                     flight.setDeparture(flightDetails.getDeparture());
@@ -48,55 +143,348 @@ public class FlightService {
                     flight.setDuration(flightDetails.getDuration());
                     flight.setPrice(flightDetails.getPrice());
                     flight.setSeatsAvailable(flightDetails.getSeatsAvailable());
-                    return flightRepository.save(flight);
+                    Flight savedFlight = flightRepository.save(flight);
+                    flightNetworkIndex.onFlightSaved(savedFlight);
+                    connectionTable.onFlightSaved(savedFlight, flightNetworkIndex.snapshot());
+                    // A moved flight affects searches on both its old and its new date
+                    searchResultCache.invalidate(previousDate, departureDate(savedFlight));
+                    referenceDataVersions.bump(ReferenceDataVersions.Collection.FLIGHTS);
+                    return savedFlight;
                 })
                 .orElseThrow(() -> new IllegalArgumentException("Flight not found with id: " + id));
     }
 
     public void deleteFlight(String id) {
-        flightRepository.findById(id)
-                .ifPresentOrElse(
-                        flightRepository::delete,
-                        () -> { throw new IllegalArgumentException("Flight not found with id: " + id); }
-                );
+        Flight flight = flightRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Flight not found with id: " + id));
+        flightRepository.delete(flight);
+        flightNetworkIndex.onFlightDeleted(id);
+        connectionTable.onFlightDeleted(id, flightNetworkIndex.snapshot());
+        // Like create and update: only once the index no longer has the flight
+        searchResultCache.invalidate(departureDate(flight));
+        referenceDataVersions.bump(ReferenceDataVersions.Collection.FLIGHTS);
     }
 
     // Main Search Method
     public FlightSearchResult findFlightsByRoute(FlightRouteSearchQuery query) {
+        return findFlightsByRoute(query, newSearchBudget());
+    }
+
+    // Runs under the given budget; when it runs out or is cancelled, the itineraries found so far come back
+    // with partial set
+    public FlightSearchResult findFlightsByRoute(FlightRouteSearchQuery query, SearchBudget budget) {
+        // Read the schedule once so every leg of this search sees the same version; the cache generation
+        // is read first so a result from a schedule that is already outdated is not cached
+        long generation = searchResultCache.generation();
+        return findFlightsByRoute(generation, flightNetworkIndex.snapshot(), query, budget);
+    }
+
+    // Everything a route search rejects up front: inconsistent constraints, an unknown engine, or a return
+    // date before the outbound date. Streaming callers check this before the response is committed.
+    public void validateRouteQuery(FlightRouteSearchQuery query) {
+        if (query == null) {
+            throw new IllegalArgumentException("A search query is required");
+        }
+        query.toSearchConstraints();
+        searchEngineRegistry.engine(query.getEngine());
+        if (query.getStartDate() != null && query.getEndDate() != null && query.getEndDate().isBefore(query.getStartDate())) {
+            throw new IllegalArgumentException("End date is before the start date");
+        }
+    }
+
+    // A budget from the search.budget.* settings, for callers that want to cancel the search themselves
+    public SearchBudget newSearchBudget() {
+        return searchBudgetFactory.newBudget();
+    }
+
+    // How long an async caller should wait for a search before giving up on it
+    public Long searchTimeoutMillis() {
+        return searchBudgetFactory.asyncTimeoutMillis();
+    }
+
+    // Batch search: all queries read one snapshot. Queries are grouped by departure date and origin, so each
+    // group walks the same slice of the index back to back, and the groups run in parallel. Results come back
+    // in request order; a failing query only fails its own entry. Each query gets its own budget.
+    public List<BatchSearchResult> findFlightsByRouteBatch(List<FlightRouteSearchQuery> queries) {
+        if (queries == null || queries.isEmpty() || queries.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " queries");
+        }
+        long generation = searchResultCache.generation();
+        FlightNetworkSnapshot network = flightNetworkIndex.snapshot();
+
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < queries.size(); i++) {
+            FlightRouteSearchQuery query = queries.get(i);
+            String group = query == null ? "" : query.getStartDate() + "|" + query.getStartAirport();
+            groups.computeIfAbsent(group, g -> new ArrayList<>()).add(i);
+        }
+
+        BatchSearchResult[] results = new BatchSearchResult[queries.size()];
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                for (int i : group) {
+                    try {
+                        results[i] = new BatchSearchResult(i, findFlightsByRoute(generation, network, queries.get(i), newSearchBudget()), null);
+                    } catch (RuntimeException e) {
+                        results[i] = new BatchSearchResult(i, null, e.getMessage() != null ? e.getMessage() : e.toString());
+                    }
+                }
+            }, ForkJoinPool.commonPool()));
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        return Arrays.asList(results);
+    }
+
+    private FlightSearchResult findFlightsByRoute(long generation, FlightNetworkSnapshot network,
+                                                  FlightRouteSearchQuery query, SearchBudget budget) {
+        if (query == null) {
+            return searchRoutes(network, null, budget);
+        }
+        validateRouteQuery(query);
+        return searchResultPager.page(query.getCursor(), query.getPageSize(), routeKey(query), network.getVersion(),
+                sortMode(query.getFilter()), () -> cachedSearchRoutes(generation, network, query, budget));
+    }
+
+    // Cheapest and fastest fare for each day in [date - days, date + days]
+    public List<FareCalendarDay> getFareCalendar(String startAirport, String destinationAirport, LocalDate date, int days) {
+        if (days < 0 || days > MAX_CALENDAR_DAYS) {
+            throw new IllegalArgumentException("Calendar days must be between 0 and " + MAX_CALENDAR_DAYS);
+        }
+        return fareCalendar.calendar(flightNetworkIndex.snapshot(), startAirport, destinationAirport,
+                date.minusDays(days), date.plusDays(days));
+    }
+
+    public SearchCacheStats getSearchCacheStats() {
+        return new SearchCacheStats(searchResultCache.hits(), searchResultCache.misses(), searchResultCache.size());
+    }
+
+    public SearchCoalescingStats getSearchCoalescingStats() {
+        return new SearchCoalescingStats(searchRequestCoalescer.executions(), searchRequestCoalescer.collapsed(),
+                searchRequestCoalescer.inFlight());
+    }
+
+    // Normalized form of the query, shared by the result cache and the pager's cursors
+    private String routeKey(FlightRouteSearchQuery query) {
+        if (isQueryEmpty(query)) return SearchResultCache.key("route-all");
+        LocalDate searchDate = query.getStartDate() != null ? query.getStartDate() : LocalDate.of(2025, 3, 12);
+        String engine = query.getEngine() != null ? query.getEngine() : searchEngineRegistry.defaultName();
+        return SearchResultCache.key("route", query.getStartAirport(), query.getDestinationAirport(), searchDate,
+                query.getEndDate(), query.getFilter(), engine, query.getLimit(), query.toSearchConstraints());
+    }
+
+    private FlightSearchResult cachedSearchRoutes(long generation, FlightNetworkSnapshot network,
+                                                  FlightRouteSearchQuery query, SearchBudget budget) {
+        if (isQueryEmpty(query)) {
+            // Lists every flight, so any write affects it
+            return searchResultCache.get(routeKey(query), null, generation, budget,
+                    () -> searchRoutes(network, query, budget));
+        }
+        LocalDate searchDate = query.getStartDate() != null ? query.getStartDate() : LocalDate.of(2025, 3, 12);
+        String key = routeKey(query);
+        Set<LocalDate> dates = query.getEndDate() == null
+                ? SearchResultCache.dates(searchDate)
+                : SearchResultCache.dates(query.getStartDate(), query.getEndDate());
+        return searchResultCache.get(key, dates, generation, budget, () -> searchRoutes(network, query, budget));
+    }
+
+    private FlightSearchResult searchRoutes(FlightNetworkSnapshot network, FlightRouteSearchQuery query, SearchBudget budget) {
         FlightSearchResult result = new FlightSearchResult();
-        List<Flight> allFlights = flightRepository.findAll();
 
         if (query == null || isQueryEmpty(query)) {
-            result.setOneWayItineraries(createOneWayItineraries(allFlights));
+            result.setOneWayItineraries(createOneWayItineraries(network.allFlights()));
             return result;
         }
 
         // Default to March 12, 2025 if no startDate provided
         LocalDate searchDate = query.getStartDate() != null ? query.getStartDate() : LocalDate.of(2025, 3, 12);
-        List<Flight> filteredFlights = filterFlights(allFlights, query.getStartAirport(), query.getDestinationAirport(), searchDate);
+        String engine = query.getEngine() != null ? query.getEngine() : searchEngineRegistry.defaultName();
+        SearchConstraints constraints = query.toSearchConstraints();
 
         if (query.getEndDate() == null) {
-            List<Itinerary> oneWayItineraries = findItineraries(filteredFlights, query.getStartAirport(), query.getDestinationAirport());
-            applySorting(oneWayItineraries, query.getFilter());
-            result.setOneWayItineraries(oneWayItineraries);
+            List<List<Flight>> oneWayPaths = findPaths(network, engine, searchDate, query.getStartAirport(), query.getDestinationAirport(), constraints, budget);
+            result.setOneWayItineraries(selectOneWay(oneWayPaths, query.getFilter(), query.getLimit()));
         } else {
-            // Round-trip logic
-            List<Flight> outboundFlights = filterFlights(allFlights, query.getStartAirport(), query.getDestinationAirport(), query.getStartDate());
-            List<Itinerary> outboundItineraries = findItineraries(outboundFlights, query.getStartAirport(), query.getDestinationAirport());
+            // Round-trip logic; the constraints apply to both directions
+            List<List<Flight>> outboundPaths = findPaths(network, engine, query.getStartDate(), query.getStartAirport(), query.getDestinationAirport(), constraints, budget);
+            List<List<Flight>> returnPaths = findPaths(network, engine, query.getEndDate(), query.getDestinationAirport(), query.getStartAirport(), constraints, budget);
 
-            List<Flight> returnFlights = filterFlights(allFlights, query.getDestinationAirport(), query.getStartAirport(), query.getEndDate());
-            List<Itinerary> returnItineraries = findItineraries(returnFlights, query.getDestinationAirport(), query.getStartAirport());
+            result.setRoundTripItineraries(combineRoundTrips(outboundPaths, returnPaths, query.getFilter(), query.getLimit()));
+        }
+
+        result.setPartial(budget.isExhausted());
+        return result;
+    }
 
-            List<RoundTripItinerary> roundTripItineraries = combineRoundTrips(outboundItineraries, returnItineraries);
-            applySortingForRoundTrip(roundTripItineraries, query.getFilter());
-            result.setRoundTripItineraries(roundTripItineraries);
+    // Streaming variant of findFlightsByRoute: itineraries (or round trips) are handed to the sink one at a
+    // time as they are produced. The sink returns false to stop the search, e.g. when the client disconnects.
+    // The search also stops when its budget runs out, so the stream then ends early.
+    public void streamFlightsByRoute(FlightRouteSearchQuery query, Predicate<Object> sink) {
+        validateRouteQuery(query);
+        FlightNetworkSnapshot network = flightNetworkIndex.snapshot();
+        SearchBudget budget = newSearchBudget();
+        int limit = query.getLimit() != null && query.getLimit() > 0 ? query.getLimit() : Integer.MAX_VALUE;
+        int[] emitted = {0};
+        Predicate<Object> limitedSink = itinerary -> sink.test(itinerary) && ++emitted[0] < limit;
+
+        if (isQueryEmpty(query)) {
+            for (Flight flight : network.allFlights()) {
+                if (!limitedSink.test(toItinerary(Collections.singletonList(flight)))) return;
+            }
+            return;
         }
 
+        // Default to March 12, 2025 if no startDate provided
+        LocalDate searchDate = query.getStartDate() != null ? query.getStartDate() : LocalDate.of(2025, 3, 12);
+        String engine = query.getEngine() != null ? query.getEngine() : searchEngineRegistry.defaultName();
+        SearchConstraints constraints = query.toSearchConstraints();
+
+        if (query.getEndDate() == null) {
+            if (query.getFilter() == null && "dfs".equalsIgnoreCase(engine)
+                    && query.getStartAirport() != null && query.getDestinationAirport() != null) {
+                // Unordered DFS: every path goes out the moment it is found
+                depthFirstRouteSearch.findPaths(network, new RouteRequest(query.getStartAirport(), query.getDestinationAirport(),
+                        searchDate, constraints.maxLegs(MAX_LEGS), constraints, budget), path -> limitedSink.test(toItinerary(path)));
+                return;
+            }
+            List<List<Flight>> paths = findPaths(network, engine, searchDate, query.getStartAirport(), query.getDestinationAirport(), constraints, budget);
+            // Ordered by the filter; itineraries are only built as they are written
+            for (List<Flight> path : rankPaths(paths, query.getFilter(), query.getLimit())) {
+                if (!limitedSink.test(toItinerary(path))) return;
+            }
+        } else {
+            List<List<Flight>> outboundPaths = findPaths(network, engine, query.getStartDate(), query.getStartAirport(), query.getDestinationAirport(), constraints, budget);
+            List<List<Flight>> returnPaths = findPaths(network, engine, query.getEndDate(), query.getDestinationAirport(), query.getStartAirport(), constraints, budget);
+            // The k-best join yields round trips in order, so the first one is written before the rest are paired
+            forEachRoundTrip(outboundPaths, returnPaths, query.getFilter(), limitedSink::test);
+        }
+    }
+
+    // Multi-city / open-jaw search: every segment is searched concurrently on the same snapshot, then the
+    // k-best join walks segment combinations in key order, keeping those where each segment departs after
+    // the previous one lands. The cross product of segment candidates is never built.
+    public FlightSearchResult findMultiCityItineraries(MultiCitySearchQuery query) {
+        return findMultiCityItineraries(query, newSearchBudget());
+    }
+
+    // The segments and the join share one budget
+    public FlightSearchResult findMultiCityItineraries(MultiCitySearchQuery query, SearchBudget budget) {
+        List<MultiCitySearchQuery.Segment> segments = query.getSegments();
+        if (segments == null || segments.size() < 2 || segments.size() > MAX_SEGMENTS) {
+            throw new IllegalArgumentException("A multi-city search needs between 2 and " + MAX_SEGMENTS + " segments");
+        }
+        int limit = query.getLimit() != null && query.getLimit() > 0 ? query.getLimit() : DEFAULT_MULTI_CITY_LIMIT;
+        if (limit > MAX_MULTI_CITY_LIMIT) {
+            throw new IllegalArgumentException("A multi-city search returns at most " + MAX_MULTI_CITY_LIMIT + " itineraries");
+        }
+        List<Object> keyParts = new ArrayList<>(List.of("segments"));
+        LocalDate[] segmentDates = new LocalDate[segments.size()];
+        for (int s = 0; s < segments.size(); s++) {
+            MultiCitySearchQuery.Segment segment = segments.get(s);
+            if (segment == null || segment.getStartAirport() == null || segment.getDestinationAirport() == null
+                    || segment.getDate() == null) {
+                throw new IllegalArgumentException("Every segment needs a start airport, destination airport, and date");
+            }
+            segmentDates[s] = segment.getDate();
+            keyParts.addAll(Arrays.asList(segment.getStartAirport(), segment.getDestinationAirport(), segment.getDate(),
+                    segment.getMaxStops(), segment.getDepartAfter(), segment.getDepartBefore()));
+        }
+
+        long generation = searchResultCache.generation();
+        FlightNetworkSnapshot network = flightNetworkIndex.snapshot();
+        String engine = query.getEngine() != null ? query.getEngine() : searchEngineRegistry.defaultName();
+        keyParts.addAll(Arrays.asList(query.getFilter(), engine, limit));
+        String key = SearchResultCache.key("multi-city", keyParts.toArray());
+        return searchResultCache.get(key, SearchResultCache.dates(segmentDates), generation, budget,
+                () -> searchMultiCity(network, engine, segments, query.getFilter(), limit, budget));
+    }
+
+    private FlightSearchResult searchMultiCity(FlightNetworkSnapshot network, String engine,
+                                               List<MultiCitySearchQuery.Segment> segments, String filter, int limit,
+                                               SearchBudget budget) {
+        List<CompletableFuture<List<List<Flight>>>> searches = new ArrayList<>();
+        for (MultiCitySearchQuery.Segment segment : segments) {
+            searches.add(CompletableFuture.supplyAsync(() -> segmentPaths(network, engine, segment, budget), ForkJoinPool.commonPool()));
+        }
+        List<List<List<Flight>>> candidates = new ArrayList<>();
+        for (CompletableFuture<List<List<Flight>>> search : searches) {
+            try {
+                candidates.add(search.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw e;
+            }
+        }
+
+        double[][] prices = new double[segments.size()][];
+        int[][] durations = new int[segments.size()][];
+        double[][] keys = new double[segments.size()][];
+        for (int s = 0; s < segments.size(); s++) {
+            List<List<Flight>> paths = candidates.get(s);
+            prices[s] = new double[paths.size()];
+            durations[s] = new int[paths.size()];
+            keys[s] = new double[paths.size()];
+            for (int i = 0; i < paths.size(); i++) {
+                prices[s][i] = totalPrice(paths.get(i));
+                durations[s][i] = totalDuration(paths.get(i));
+                keys[s][i] = sortKey(filter, prices[s][i], durations[s][i]);
+            }
+        }
+
+        // The join charges the budget per combination it tries, so a deadline also stops it
+        List<MultiCityItinerary> itineraries = new ArrayList<>();
+        KBestJoin.forEach(keys, budget,
+                chosen -> {
+                    for (int s = 1; s < chosen.length; s++) {
+                        if (!returnsAfterOutbound(candidates.get(s - 1).get(chosen[s - 1]), candidates.get(s).get(chosen[s]))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                },
+                chosen -> {
+                    List<Itinerary> legs = new ArrayList<>();
+                    double price = 0;
+                    int duration = 0;
+                    for (int s = 0; s < chosen.length; s++) {
+                        legs.add(toItinerary(candidates.get(s).get(chosen[s])));
+                        price += prices[s][chosen[s]];
+                        duration += durations[s][chosen[s]];
+                    }
+                    itineraries.add(new MultiCityItinerary(legs, price, duration));
+                    return itineraries.size() < limit;
+                });
+
+        FlightSearchResult result = new FlightSearchResult();
+        result.setMultiCityItineraries(itineraries);
+        result.setPartial(budget.isExhausted());
         return result;
     }
 
+    // Candidate paths of one segment; its own constraints are enforced by the engine
+    private List<List<Flight>> segmentPaths(FlightNetworkSnapshot network, String engine, MultiCitySearchQuery.Segment segment,
+                                            SearchBudget budget) {
+        SearchConstraints constraints = new SearchConstraints(segment.getMaxStops(), null, null,
+                segment.getDepartAfter(), segment.getDepartBefore(), null, null, null, null);
+        return findPaths(network, engine, segment.getDate(), segment.getStartAirport(), segment.getDestinationAirport(), constraints, budget);
+    }
+
+    // Earliest arrival at the destination when leaving the origin at or after the given time
+    public Optional<Itinerary> findEarliestArrival(String startAirport, String destinationAirport, LocalDateTime departAfter) {
+        return connectionScanSearch.earliestArrival(flightNetworkIndex.snapshot(), startAirport, destinationAirport,
+                        departAfter, null, minConnectionMinutes)
+                .map(this::toItinerary);
+    }
+
+    // Latest departure from the origin that still reaches the destination by the given time
+    public Optional<Itinerary> findLatestDeparture(String startAirport, String destinationAirport, LocalDateTime arriveBy) {
+        return connectionScanSearch.latestDeparture(flightNetworkIndex.snapshot(), startAirport, destinationAirport,
+                        arriveBy, minConnectionMinutes)
+                .map(this::toItinerary);
+    }
+
     public List<Flight> findFlightsByAirline(String airlineCode, String filterCriterion) {
-        List<Flight> flights = flightRepository.findByAirline_Code(airlineCode);
+        List<Flight> flights = flightRepository.findByAirlineWithRoute(airlineCode);
         if ("fastest".equals(filterCriterion)) {
             flights.sort(Comparator.comparingInt(Flight::getDuration));
         } else if ("cheapest".equals(filterCriterion)) {
@@ -105,89 +493,120 @@ public class FlightService {
         return flights;
     }
 
-    // Helper Methods
-    private boolean isQueryEmpty(FlightRouteSearchQuery query) {
-        return query.getStartAirport() == null && query.getDestinationAirport() == null &&
-                query.getStartDate() == null && query.getEndDate() == null && query.getFilter() == null;
-    }
-
-    private List<Flight> filterFlights(List<Flight> flights, String startAirport, String destinationAirport, LocalDate date) {
-        // Filter only by date to include all possible legs, let DFS handle start/destination
-        return flights.stream()
-                .filter(f -> date == null || (
-                        !f.getDeparture().isBefore(date.atStartOfDay()) &&
-                                !f.getDeparture().isAfter(date.atTime(LocalTime.MAX))))
-                .collect(Collectors.toList());
-    }
-
-    private List<Itinerary> findItineraries(List<Flight> flights, String startAirport, String destinationAirport) {
-        List<Itinerary> itineraries = new ArrayList<>();
-        if (startAirport == null || destinationAirport == null) {
-            return createOneWayItineraries(flights);
+    // One page of the airline's flights departing between from and to (inclusive dates; from defaults to
+    // today and to to a year later), ordered by price ("cheapest"), duration ("fastest") or departure.
+    // The order comes from the database, and the cursor holds the last sort key and id served.
+    public AirlineSchedulePage findAirlineSchedule(String airlineCode, String filterCriterion, LocalDate from,
+                                                   LocalDate to, Integer pageSize, String cursor) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusYears(1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Schedule window starts after it ends");
         }
-
-        // Build graph
-        Map<String, List<Flight>> graph = new HashMap<>();
-        for (Flight flight : flights) {
-            graph.computeIfAbsent(flight.getOrigin().getIataCode(), k -> new ArrayList<>()).add(flight);
+        int size = pageSize != null ? pageSize : DEFAULT_SCHEDULE_PAGE_SIZE;
+        if (size <= 0 || size > MAX_SCHEDULE_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SCHEDULE_PAGE_SIZE);
         }
-        System.out.println("Graph for " + startAirport + " to " + destinationAirport + ": " + graph);
 
-        // Find all paths
-        List<List<Flight>> allPaths = new ArrayList<>();
-        Set<String> visited = new HashSet<>();
-        findPathsDFS(graph, startAirport, destinationAirport, new ArrayList<>(), allPaths, visited, 3);
+        String order = "cheapest".equals(filterCriterion) ? "price"
+                : "fastest".equals(filterCriterion) ? "duration" : "departure";
+        LocalDateTime windowStart = start.atStartOfDay();
+        LocalDateTime windowEnd = end.plusDays(1).atStartOfDay();
+        // Without a cursor, start below every key; the id comparison then only rejects an empty id
+        String[] after = cursor != null ? decodeScheduleCursor(cursor, order) : null;
+        String afterId = after != null ? after[1] : "";
+        // One extra row tells whether another page follows
+        Pageable limit = PageRequest.ofSize(size + 1);
+
+        List<AirlineScheduleFlight> flights;
+        try {
+            flights = switch (order) {
+                case "price" -> flightRepository.findAirlineScheduleByPrice(airlineCode, windowStart, windowEnd,
+                        after != null ? Double.parseDouble(after[0]) : -Double.MAX_VALUE, afterId, limit);
+                case "duration" -> flightRepository.findAirlineScheduleByDuration(airlineCode, windowStart, windowEnd,
+                        after != null ? Integer.parseInt(after[0]) : Integer.MIN_VALUE, afterId, limit);
+                default -> flightRepository.findAirlineScheduleByDeparture(airlineCode, windowStart, windowEnd,
+                        after != null ? LocalDateTime.parse(after[0]) : windowStart, afterId, limit);
+            };
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
 
-        // Convert paths to itineraries
-        for (List<Flight> path : allPaths) {
-            Itinerary itinerary = new Itinerary();
-            itinerary.setFlights(path);
-            itinerary.calculateTotals();
-            itineraries.add(itinerary);
+        if (flights.size() <= size) {
+            return new AirlineSchedulePage(flights, null);
         }
-        System.out.println("Found itineraries: " + itineraries);
-        return itineraries;
+        List<AirlineScheduleFlight> page = new ArrayList<>(flights.subList(0, size));
+        AirlineScheduleFlight last = page.get(size - 1);
+        String key = switch (order) {
+            case "price" -> String.valueOf(last.price());
+            case "duration" -> String.valueOf(last.duration());
+            default -> last.departure().toString();
+        };
+        return new AirlineSchedulePage(page, encodeScheduleCursor(order, key, last.id()));
     }
 
-    private void findPathsDFS(Map<String, List<Flight>> graph, String currentAirport, String destinationAirport,
-                              List<Flight> currentPath, List<List<Flight>> allPaths, Set<String> visited, int maxLegs) {
-        if (currentPath.size() > maxLegs) return;
+    // Helper Methods
+    private static String encodeScheduleCursor(String order, String key, String id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((order + "|" + key + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
 
-        // Explore all flights from currentAirport
-        List<Flight> flights = graph.getOrDefault(currentAirport, Collections.emptyList());
-        for (Flight flight : flights) {
-            String nextAirport = flight.getDestination().getIataCode();
-            if (visited.contains(nextAirport)) continue;
-            if (!currentPath.isEmpty()) {
-                LocalDateTime lastArrival = currentPath.get(currentPath.size() - 1).getArrival();
-                if (!flight.getDeparture().isAfter(lastArrival)) continue;
-            }
+    // The sort key and id of the cursor, which must have been issued for the same order
+    private static String[] decodeScheduleCursor(String cursor, String order) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || !parts[0].equals(order)) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new String[]{parts[1], parts[2]};
+    }
 
-            currentPath.add(flight);
-            visited.add(nextAirport);
+    private boolean isQueryEmpty(FlightRouteSearchQuery query) {
+        return query.getStartAirport() == null && query.getDestinationAirport() == null &&
+                query.getStartDate() == null && query.getEndDate() == null && query.getFilter() == null;
+    }
 
-            // If we’ve reached the destination, add the path
-            if (nextAirport.equals(destinationAirport)) {
-                allPaths.add(new ArrayList<>(currentPath));
+    private List<List<Flight>> findPaths(FlightNetworkSnapshot network, String engine, LocalDate date,
+                                         String startAirport, String destinationAirport, SearchConstraints constraints,
+                                         SearchBudget budget) {
+        if (startAirport == null || destinationAirport == null) {
+            // Filter only by date, like the DFS does for its legs
+            List<List<Flight>> singleFlights = new ArrayList<>();
+            for (Flight flight : network.flightsDepartingOn(date)) {
+                singleFlights.add(Collections.singletonList(flight));
             }
+            return singleFlights;
+        }
 
-            // Continue exploring for more legs
-            findPathsDFS(graph, nextAirport, destinationAirport, currentPath, allPaths, visited, maxLegs);
+        // Any engine from the registry; see SearchEngine for how their results differ
+        return searchEngineRegistry.engine(engine).search(network,
+                new RouteRequest(startAirport, destinationAirport, date, constraints.maxLegs(MAX_LEGS), constraints, budget));
+    }
 
-            currentPath.remove(currentPath.size() - 1);
-            visited.remove(nextAirport);
+    // Keeps the best paths by primitive sort key; only the survivors become itineraries
+    private List<Itinerary> selectOneWay(List<List<Flight>> paths, String filter, Integer limit) {
+        List<Itinerary> itineraries = new ArrayList<>();
+        for (List<Flight> path : rankPaths(paths, filter, limit)) {
+            itineraries.add(toItinerary(path));
         }
+        return itineraries;
+    }
 
-        // Add direct flights only when starting from startAirport
-        if (currentPath.isEmpty()) {
-            List<Flight> directFlights = graph.getOrDefault(currentAirport, Collections.emptyList())
-                    .stream()
-                    .filter(f -> f.getDestination().getIataCode().equals(destinationAirport))
-                    .collect(Collectors.toList());
-            for (Flight direct : directFlights) {
-                allPaths.add(Collections.singletonList(direct));
+    private List<List<Flight>> rankPaths(List<List<Flight>> paths, String filter, Integer limit) {
+        TopKCollector<List<Flight>> topK = new TopKCollector<>(limit);
+        for (List<Flight> path : paths) {
+            double key = sortKey(filter, totalPrice(path), totalDuration(path));
+            if (topK.accepts(key)) {
+                topK.offer(key, path);
             }
         }
+        return topK.toSortedList();
+    }
+
+    private Itinerary toItinerary(List<Flight> path) {
+        Itinerary itinerary = new Itinerary();
+        itinerary.setFlights(path);
+        itinerary.calculateTotals();
+        return itinerary;
     }
 
     private List<Itinerary> createOneWayItineraries(List<Flight> flights) {
@@ -201,38 +620,86 @@ public class FlightService {
         return itineraries;
     }
 
-    private List<RoundTripItinerary> combineRoundTrips(List<Itinerary> outboundItineraries, List<Itinerary> returnItineraries) {
-        List<RoundTripItinerary> roundTripItineraries = new ArrayList<>();
-        for (Itinerary outbound : outboundItineraries) {
-            for (Itinerary returnItinerary : returnItineraries) {
-                Flight lastOutbound = outbound.getFlights().get(outbound.getFlights().size() - 1);
-                Flight firstReturn = returnItinerary.getFlights().get(0);
-                if (firstReturn.getDeparture().isAfter(lastOutbound.getArrival())) {
-                    RoundTripItinerary roundTrip = new RoundTripItinerary();
-                    roundTrip.setOutboundFlights(outbound.getFlights());
-                    roundTrip.setReturnFlights(returnItinerary.getFlights());
-                    roundTrip.setTotalPrice(outbound.getTotalPrice() + returnItinerary.getTotalPrice());
-                    roundTrip.setTotalDuration(outbound.getTotalDuration() + returnItinerary.getTotalDuration());
-                    roundTripItineraries.add(roundTrip);
-                }
-            }
+    // Pairs come out of the k-best join already in order, so only the returned round trips are built
+    private List<RoundTripItinerary> combineRoundTrips(List<List<Flight>> outboundPaths, List<List<Flight>> returnPaths,
+                                                       String filter, Integer limit) {
+        int k = limit != null && limit > 0 ? limit : Integer.MAX_VALUE;
+        List<RoundTripItinerary> roundTrips = new ArrayList<>();
+        forEachRoundTrip(outboundPaths, returnPaths, filter, roundTrip -> {
+            roundTrips.add(roundTrip);
+            return roundTrips.size() < k;
+        });
+        return roundTrips;
+    }
+
+    // Hands round trips to the sink in key order until it returns false
+    private void forEachRoundTrip(List<List<Flight>> outboundPaths, List<List<Flight>> returnPaths,
+                                  String filter, Predicate<RoundTripItinerary> sink) {
+        double[] outboundPrices = new double[outboundPaths.size()];
+        int[] outboundDurations = new int[outboundPaths.size()];
+        double[] outboundKeys = new double[outboundPaths.size()];
+        for (int o = 0; o < outboundPaths.size(); o++) {
+            outboundPrices[o] = totalPrice(outboundPaths.get(o));
+            outboundDurations[o] = totalDuration(outboundPaths.get(o));
+            outboundKeys[o] = sortKey(filter, outboundPrices[o], outboundDurations[o]);
+        }
+        double[] returnPrices = new double[returnPaths.size()];
+        int[] returnDurations = new int[returnPaths.size()];
+        double[] returnKeys = new double[returnPaths.size()];
+        for (int r = 0; r < returnPaths.size(); r++) {
+            returnPrices[r] = totalPrice(returnPaths.get(r));
+            returnDurations[r] = totalDuration(returnPaths.get(r));
+            returnKeys[r] = sortKey(filter, returnPrices[r], returnDurations[r]);
         }
-        return roundTripItineraries;
+
+        KBestJoin.forEach(outboundKeys, returnKeys,
+                (o, r) -> returnsAfterOutbound(outboundPaths.get(o), returnPaths.get(r)),
+                (o, r) -> {
+                    RoundTripItinerary roundTrip = new RoundTripItinerary();
+                    roundTrip.setOutboundFlights(outboundPaths.get(o));
+                    roundTrip.setReturnFlights(returnPaths.get(r));
+                    roundTrip.setTotalPrice(outboundPrices[o] + returnPrices[r]);
+                    roundTrip.setTotalDuration(outboundDurations[o] + returnDurations[r]);
+                    return sink.test(roundTrip);
+                });
+    }
+
+    private static boolean returnsAfterOutbound(List<Flight> outbound, List<Flight> returnFlights) {
+        Flight lastOutbound = outbound.get(outbound.size() - 1);
+        Flight firstReturn = returnFlights.get(0);
+        return firstReturn.getDeparture().isAfter(lastOutbound.getArrival());
+    }
+
+    private static LocalDate departureDate(Flight flight) {
+        return flight.getDeparture() != null ? flight.getDeparture().toLocalDate() : null;
+    }
+
+    private static String sortMode(String filter) {
+        if ("fastest".equals(filter)) return SearchResultPager.BY_DURATION;
+        if ("cheapest".equals(filter)) return SearchResultPager.BY_PRICE;
+        return SearchResultPager.UNSORTED;
+    }
+
+    // Without a filter every candidate gets the same key, so the search order is kept
+    private static double sortKey(String filter, double price, int duration) {
+        if ("fastest".equals(filter)) return duration;
+        if ("cheapest".equals(filter)) return price;
+        return 0;
     }
 
-    private void applySorting(List<Itinerary> itineraries, String filter) {
-        if ("fastest".equals(filter)) {
-            itineraries.sort(Comparator.comparingInt(Itinerary::getTotalDuration));
-        } else if ("cheapest".equals(filter)) {
-            itineraries.sort(Comparator.comparingDouble(Itinerary::getTotalPrice));
+    private static double totalPrice(List<Flight> path) {
+        double baseTotalPrice = 0;
+        for (Flight flight : path) {
+            baseTotalPrice += flight.getPrice();
         }
+        return Itinerary.discountedPrice(baseTotalPrice, path.size());
     }
 
-    private void applySortingForRoundTrip(List<RoundTripItinerary> itineraries, String filter) {
-        if ("fastest".equals(filter)) {
-            itineraries.sort(Comparator.comparingInt(RoundTripItinerary::getTotalDuration));
-        } else if ("cheapest".equals(filter)) {
-            itineraries.sort(Comparator.comparingDouble(RoundTripItinerary::getTotalPrice));
+    private static int totalDuration(List<Flight> path) {
+        int duration = 0;
+        for (Flight flight : path) {
+            duration += flight.getDuration();
         }
+        return duration;
     }
 }
\ No newline at end of file
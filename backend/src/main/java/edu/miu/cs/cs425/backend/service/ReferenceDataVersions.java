@@ -0,0 +1,34 @@
+package edu.miu.cs.cs425.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One counter per reference collection, bumped by the services after every write to it. Cached
+// responses remember the version they were built from and are rebuilt once it has moved on.
+// Flights embed their airports and airlines, so writes to those bump FLIGHTS as well.
+@Component
+public class ReferenceDataVersions {
+
+    public enum Collection { AIRPORTS, AIRLINES, FLIGHTS }
+
+    private final Map<Collection, AtomicLong> versions = new EnumMap<>(Collection.class);
+
+    public ReferenceDataVersions() {
+        for (Collection collection : Collection.values()) {
+            versions.put(collection, new AtomicLong());
+        }
+    }
+
+    public long current(Collection collection) {
+        return versions.get(collection).get();
+    }
+
+    public void bump(Collection... collections) {
+        for (Collection collection : collections) {
+            versions.get(collection).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Airport;
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Earliest-arrival and latest-departure queries against an enumeration of every journey that keeps the
+// minimum connection time
+class ConnectionScanSearchTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+    private static final int MIN_CONNECTION_MINUTES = 30;
+    // Deep enough for any journey within one day of this schedule
+    private static final int MAX_LEGS = 6;
+
+    private static ScheduleGenerator generator;
+    private static FlightNetworkSnapshot network;
+
+    private final ConnectionScanSearch connectionScanSearch = new ConnectionScanSearch();
+
+    @BeforeAll
+    static void generateNetwork() {
+        // 30 airports, 4 hubs
+        generator = new ScheduleGenerator(3, 30, 4, 3);
+        network = FlightNetworkSnapshot.build(generator.generateDay(DAY, 2, 3, 3), 1);
+    }
+
+    @Test
+    void earliestArrivalMatchesTheEarliestOfAllJourneys() {
+        LocalDateTime departAfter = DAY.atTime(6, 0);
+        LocalDateTime departBefore = DAY.atTime(12, 0);
+        for (Airport origin : generator.getAirports()) {
+            for (Airport destination : generator.getAirports()) {
+                if (origin == destination) continue;
+                String route = origin.getIataCode() + " -> " + destination.getIataCode();
+                Optional<LocalDateTime> expected = journeys(origin.getIataCode(), destination.getIataCode(),
+                        first -> !first.getDeparture().isBefore(departAfter) && first.getDeparture().isBefore(departBefore))
+                        .stream().map(ConnectionScanSearchTest::arrival).min(Comparator.naturalOrder());
+
+                Optional<List<Flight>> journey = connectionScanSearch.earliestArrival(network, origin.getIataCode(),
+                        destination.getIataCode(), departAfter, departBefore, MIN_CONNECTION_MINUTES);
+                assertEquals(expected.isPresent(), journey.isPresent(), route);
+                if (journey.isEmpty()) continue;
+                assertValidJourney(journey.get(), origin.getIataCode(), destination.getIataCode(), route);
+                assertFalse(journey.get().get(0).getDeparture().isBefore(departAfter), route);
+                assertTrue(journey.get().get(0).getDeparture().isBefore(departBefore), route);
+                assertEquals(expected.get(), arrival(journey.get()), route);
+            }
+        }
+    }
+
+    @Test
+    void latestDepartureMatchesTheLatestOfAllJourneys() {
+        LocalDateTime arriveBy = DAY.atTime(18, 0);
+        for (Airport origin : generator.getAirports()) {
+            for (Airport destination : generator.getAirports()) {
+                if (origin == destination) continue;
+                String route = origin.getIataCode() + " -> " + destination.getIataCode();
+                Optional<LocalDateTime> expected = journeys(origin.getIataCode(), destination.getIataCode(), first -> true)
+                        .stream()
+                        .filter(journey -> !arrival(journey).isAfter(arriveBy))
+                        .map(journey -> journey.get(0).getDeparture())
+                        .max(Comparator.naturalOrder());
+
+                Optional<List<Flight>> journey = connectionScanSearch.latestDeparture(network, origin.getIataCode(),
+                        destination.getIataCode(), arriveBy, MIN_CONNECTION_MINUTES);
+                assertEquals(expected.isPresent(), journey.isPresent(), route);
+                if (journey.isEmpty()) continue;
+                assertValidJourney(journey.get(), origin.getIataCode(), destination.getIataCode(), route);
+                assertFalse(arrival(journey.get()).isAfter(arriveBy), route);
+                assertEquals(expected.get(), journey.get().get(0).getDeparture(), route);
+            }
+        }
+    }
+
+    @Test
+    void unknownAirportsHaveNoJourney() {
+        String known = generator.hub(0).getIataCode();
+        assertTrue(connectionScanSearch.earliestArrival(network, "XXX", known, null, null, MIN_CONNECTION_MINUTES).isEmpty());
+        assertTrue(connectionScanSearch.earliestArrival(network, known, known, null, null, MIN_CONNECTION_MINUTES).isEmpty());
+        assertTrue(connectionScanSearch.latestDeparture(network, known, "XXX", DAY.atTime(23, 0), MIN_CONNECTION_MINUTES).isEmpty());
+    }
+
+    // Every journey without a repeated airport whose first leg passes the filter
+    private static List<List<Flight>> journeys(String origin, String destination, Predicate<Flight> firstLeg) {
+        List<List<Flight>> journeys = new ArrayList<>();
+        Set<String> visited = new HashSet<>(Set.of(origin));
+        for (Flight first : network.allFlights()) {
+            if (!first.getOrigin().getIataCode().equals(origin) || !firstLeg.test(first)) continue;
+            List<Flight> path = new ArrayList<>(List.of(first));
+            extend(path, visited, destination, journeys::add);
+        }
+        return journeys;
+    }
+
+    private static void extend(List<Flight> path, Set<String> visited, String destination, Consumer<List<Flight>> sink) {
+        Flight last = path.get(path.size() - 1);
+        String airport = last.getDestination().getIataCode();
+        if (visited.contains(airport)) return;
+        if (airport.equals(destination)) {
+            sink.accept(new ArrayList<>(path));
+            return;
+        }
+        if (path.size() == MAX_LEGS) return;
+        visited.add(airport);
+        for (Flight next : network.allFlights()) {
+            if (!next.getOrigin().getIataCode().equals(airport)) continue;
+            if (next.getDeparture().isBefore(last.getArrival().plusMinutes(MIN_CONNECTION_MINUTES))) continue;
+            path.add(next);
+            extend(path, visited, destination, sink);
+            path.remove(path.size() - 1);
+        }
+        visited.remove(airport);
+    }
+
+    private static void assertValidJourney(List<Flight> journey, String origin, String destination, String route) {
+        assertEquals(origin, journey.get(0).getOrigin().getIataCode(), route);
+        assertEquals(destination, journey.get(journey.size() - 1).getDestination().getIataCode(), route);
+        for (int leg = 1; leg < journey.size(); leg++) {
+            Flight previous = journey.get(leg - 1);
+            Flight next = journey.get(leg);
+            assertEquals(previous.getDestination().getIataCode(), next.getOrigin().getIataCode(), route);
+            assertFalse(next.getDeparture().isBefore(previous.getArrival().plusMinutes(MIN_CONNECTION_MINUTES)), route);
+        }
+    }
+
+    private static LocalDateTime arrival(List<Flight> journey) {
+        return journey.get(journey.size() - 1).getArrival();
+    }
+}
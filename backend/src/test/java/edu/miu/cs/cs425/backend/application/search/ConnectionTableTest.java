@@ -0,0 +1,178 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Airport;
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Incremental maintenance of the connection table: after any sequence of writes it must hold exactly what
+// a full build from the final snapshot holds, whether or not it was built before the writes
+class ConnectionTableTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+
+    private ScheduleGenerator generator;
+    private FlightNetworkSnapshot network;
+
+    @BeforeEach
+    void generateNetwork() {
+        // 40 airports, 6 hubs
+        generator = new ScheduleGenerator(11, 40, 6, 4);
+        network = FlightNetworkSnapshot.build(generator.generateDay(DAY, 2, 3, 3), 1);
+    }
+
+    @Test
+    void patchesMatchAFullBuild() {
+        ConnectionTable table = new ConnectionTable();
+        table.rebuild(network);
+
+        Random random = new Random(5);
+        List<Flight> flights = new ArrayList<>(network.allFlights());
+        for (int write = 0; write < 60; write++) {
+            Flight flight = flights.get(random.nextInt(flights.size()));
+            switch (write % 3) {
+                // Moved by up to two hours either way, which changes its connections
+                case 0 -> save(table, copy(flight, flight.getId(), random.nextInt(241) - 120));
+                case 1 -> {
+                    network = network.without(flight.getId(), network.getVersion() + 1);
+                    table.onFlightDeleted(flight.getId(), network);
+                    flights.remove(flight);
+                }
+                default -> {
+                    Flight added = copy(flight, "NEW" + write, random.nextInt(61) - 30);
+                    save(table, added);
+                    flights.add(added);
+                }
+            }
+        }
+
+        ConnectionTable rebuilt = new ConnectionTable();
+        rebuilt.rebuild(network);
+        for (Airport origin : generator.getAirports()) {
+            for (Airport destination : generator.getAirports()) {
+                if (origin == destination) continue;
+                for (int legs = 2; legs <= 3; legs++) {
+                    String route = origin.getIataCode() + " -> " + destination.getIataCode() + " in " + legs;
+                    assertEquals(ids(rebuilt.connections(network, origin.getIataCode(), destination.getIataCode(), DAY, legs)),
+                            ids(table.connections(network, origin.getIataCode(), destination.getIataCode(), DAY, legs)), route);
+                }
+            }
+        }
+    }
+
+    @Test
+    void writesBeforeTheFirstBuildAreKept() {
+        ConnectionTable table = new ConnectionTable();
+        // A search holds the old snapshot while a write lands and the table is not built yet
+        FlightNetworkSnapshot searchSnapshot = network;
+        List<Flight> connection = anyConnection(network);
+        save(table, copy(connection.get(1), "NEW", 0));
+        // A flight that is not part of the connection the new flight copies
+        Flight deleted = network.allFlights().stream().filter(flight -> !connection.contains(flight)).findFirst().orElseThrow();
+        network = network.without(deleted.getId(), network.getVersion() + 1);
+        table.onFlightDeleted(deleted.getId(), network);
+
+        // The old snapshot's search gets no flight it does not have
+        for (Flight flight : allConnectionLegs(table, searchSnapshot)) {
+            assertSame(searchSnapshot.findById(flight.getId()).orElseThrow(), flight);
+        }
+        // Both writes are in the table for the current snapshot
+        ConnectionTable rebuilt = new ConnectionTable();
+        rebuilt.rebuild(network);
+        assertEquals(allConnectionIds(rebuilt, network), allConnectionIds(table, network));
+        assertTrue(allConnectionIds(table, network).stream().anyMatch(path -> path.contains("NEW")));
+    }
+
+    @Test
+    void searchesOnAnOlderSnapshotSkipFlightsTheyDoNotHave() {
+        ConnectionTable table = new ConnectionTable();
+        table.rebuild(network);
+        FlightNetworkSnapshot older = network;
+        List<Flight> connection = anyConnection(network);
+        save(table, copy(connection.get(1), "NEW", 0));
+
+        // Constrained, so the legs are looked up in the older snapshot's schedule
+        SearchConstraints constraints = new SearchConstraints(null, 0, 24 * 60, LocalTime.MIN, LocalTime.MAX,
+                null, null, null, null);
+        RouteRequest request = new RouteRequest(connection.get(0).getOrigin().getIataCode(),
+                connection.get(1).getDestination().getIataCode(), DAY, 2, constraints);
+        List<List<Flight>> paths = table.search(older, request);
+        assertFalse(paths.isEmpty());
+        for (List<Flight> path : paths) {
+            for (Flight flight : path) {
+                assertSame(older.findById(flight.getId()).orElseThrow(), flight);
+            }
+        }
+        assertTrue(table.search(network, request).stream()
+                .anyMatch(path -> path.get(path.size() - 1).getId().equals("NEW")));
+    }
+
+    private void save(ConnectionTable table, Flight flight) {
+        network = network.withFlight(flight, network.getVersion() + 1);
+        table.onFlightSaved(flight, network);
+    }
+
+    // Some 1-stop connection of the current network
+    private List<Flight> anyConnection(FlightNetworkSnapshot snapshot) {
+        ConnectionTable table = new ConnectionTable();
+        table.rebuild(snapshot);
+        for (Airport origin : generator.getAirports()) {
+            for (Airport destination : generator.getAirports()) {
+                List<List<Flight>> found = table.connections(snapshot, origin.getIataCode(), destination.getIataCode(), DAY, 2);
+                if (!found.isEmpty()) return found.get(0);
+            }
+        }
+        throw new IllegalStateException("No connections in the generated network");
+    }
+
+    private List<Flight> allConnectionLegs(ConnectionTable table, FlightNetworkSnapshot snapshot) {
+        List<Flight> legs = new ArrayList<>();
+        for (Airport origin : generator.getAirports()) {
+            for (Airport destination : generator.getAirports()) {
+                RouteRequest request = new RouteRequest(origin.getIataCode(), destination.getIataCode(), DAY, 3);
+                table.search(snapshot, request).forEach(legs::addAll);
+            }
+        }
+        return legs;
+    }
+
+    private Set<String> allConnectionIds(ConnectionTable table, FlightNetworkSnapshot snapshot) {
+        Set<String> ids = new TreeSet<>();
+        for (Airport origin : generator.getAirports()) {
+            for (Airport destination : generator.getAirports()) {
+                for (int legs = 2; legs <= 3; legs++) {
+                    ids.addAll(ids(table.connections(snapshot, origin.getIataCode(), destination.getIataCode(), DAY, legs)));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static Flight copy(Flight flight, String id, int shiftMinutes) {
+        Flight copy = new Flight();
+        copy.setId(id);
+        copy.setFlightNumber(flight.getFlightNumber());
+        copy.setAirline(flight.getAirline());
+        copy.setOrigin(flight.getOrigin());
+        copy.setDestination(flight.getDestination());
+        copy.setDeparture(flight.getDeparture().plusMinutes(shiftMinutes));
+        copy.setArrival(flight.getArrival().plusMinutes(shiftMinutes));
+        copy.setDuration(flight.getDuration());
+        copy.setPrice(flight.getPrice());
+        copy.setSeatsAvailable(flight.getSeatsAvailable());
+        return copy;
+    }
+
+    private static List<String> ids(List<List<Flight>> paths) {
+        return paths.stream()
+                .map(path -> path.stream().map(Flight::getId).collect(Collectors.joining(",")))
+                .collect(Collectors.toList());
+    }
+}
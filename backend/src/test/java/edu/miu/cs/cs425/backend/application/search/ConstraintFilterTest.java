@@ -0,0 +1,142 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The compiled filter must accept exactly the paths a direct reading of the constraints accepts
+class ConstraintFilterTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+
+    private static ScheduleGenerator generator;
+    private static FlightNetworkSnapshot network;
+    private static List<List<Flight>> paths;
+
+    @BeforeAll
+    static void generateNetwork() {
+        // 30 airports, 4 hubs, over two days, so arrivals and layovers cross midnight
+        generator = new ScheduleGenerator(37, 30, 4, 4);
+        List<Flight> flights = new ArrayList<>(generator.generateDay(DAY, 2, 3, 3));
+        flights.addAll(generator.generateDay(DAY.plusDays(1), 2, 3, 3));
+        network = FlightNetworkSnapshot.build(flights, 1);
+
+        // Every flight, and every flight followed by a later departure from where it lands
+        paths = new ArrayList<>();
+        for (Flight first : network.allFlights()) {
+            paths.add(List.of(first));
+            for (LocalDate date : List.of(DAY, DAY.plusDays(1))) {
+                for (Flight second : network.departuresOn(first.getDestination().getIataCode(), date)) {
+                    if (second.getDeparture().isAfter(first.getArrival())) paths.add(List.of(first, second));
+                }
+            }
+        }
+    }
+
+    @Test
+    void constraintsAreNormalizedAndChecked() {
+        SearchConstraints constraints = new SearchConstraints(1, null, null, null, null, null, null,
+                Arrays.asList("AIR002", null, "AIR001", "AIR002"), null);
+        assertEquals(List.of("AIR001", "AIR002"), constraints.includedAirlines());
+        assertEquals(List.of(), constraints.excludedAirlines());
+        assertEquals(new SearchConstraints(1, null, null, null, null, null, null, List.of("AIR001", "AIR002"), List.of()),
+                constraints);
+        assertEquals(2, constraints.maxLegs(4));
+        assertEquals(4, SearchConstraints.NONE.maxLegs(4));
+        assertTrue(SearchConstraints.NONE.isEmpty());
+        assertTrue(new SearchConstraints(null, null, null, null, null, null, null, List.of(), null).isEmpty());
+        assertFalse(constraints.isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> new SearchConstraints(-1, null, null, null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SearchConstraints(SearchConstraints.MAX_STOPS + 1, null, null, null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new SearchConstraints(null, -5, null, null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> new SearchConstraints(null, 90, 60, null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SearchConstraints(null, null, null, LocalTime.of(12, 0), LocalTime.of(8, 0), null, null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SearchConstraints(null, null, null, null, null, LocalTime.of(20, 0), LocalTime.of(19, 59), null, null));
+    }
+
+    @Test
+    void filterAcceptsWhatTheConstraintsSay() {
+        List<SearchConstraints> cases = List.of(
+                new SearchConstraints(null, null, null, LocalTime.of(6, 0), LocalTime.of(14, 0), null, null,
+                        List.of("AIR001", "AIR002"), null),
+                new SearchConstraints(null, 45, 180, null, null, LocalTime.of(10, 0), LocalTime.of(22, 0),
+                        null, List.of("AIR003")),
+                // Carriers that fly nothing in this schedule include or exclude nothing
+                new SearchConstraints(null, null, null, null, null, null, LocalTime.of(23, 59), List.of("AIR002", "ZZZ"), null),
+                new SearchConstraints(null, null, 60, null, null, null, null, null, List.of("ZZZ")),
+                SearchConstraints.NONE);
+
+        ScheduleStore t = network.schedule();
+        for (SearchConstraints constraints : cases) {
+            ConstraintFilter filter = constraints.filter(t);
+            int allowed = 0;
+            for (List<Flight> path : paths) {
+                int[] indexes = path.stream().mapToInt(filter::indexOf).toArray();
+                boolean expected = allows(constraints, path);
+                assertEquals(expected, filter.allows(indexes), constraints + " " + ids(path));
+                if (expected) allowed++;
+            }
+            assertTrue(allowed > 0, constraints.toString());
+        }
+    }
+
+    @Test
+    void searchesUnderConstraintsKeepTheUnconstrainedPathsThatSatisfyThem() {
+        SearchConstraints constraints = new SearchConstraints(null, 45, 240, LocalTime.of(5, 0), LocalTime.of(15, 0),
+                null, LocalTime.of(23, 0), null, List.of("AIR004"));
+        DepthFirstRouteSearch search = new DepthFirstRouteSearch();
+        int kept = 0;
+        for (int i = 0; i < 20; i++) {
+            String origin = generator.spoke(i).getIataCode();
+            String destination = generator.spoke(25 - i).getIataCode();
+            List<List<Flight>> all = search.search(network, new RouteRequest(origin, destination, DAY, 3));
+            List<List<Flight>> expected = all.stream().filter(path -> allows(constraints, path)).collect(Collectors.toList());
+            assertEquals(expected.stream().map(ConstraintFilterTest::ids).toList(),
+                    search.search(network, new RouteRequest(origin, destination, DAY, 3, constraints)).stream()
+                            .map(ConstraintFilterTest::ids).toList(), origin + " -> " + destination);
+            kept += expected.size();
+        }
+        assertTrue(kept > 0);
+    }
+
+    // The constraints read straight off the flights
+    private static boolean allows(SearchConstraints constraints, List<Flight> path) {
+        for (Flight flight : path) {
+            String airline = flight.getAirline().getCode();
+            if (!constraints.includedAirlines().isEmpty() && !constraints.includedAirlines().contains(airline)) return false;
+            if (constraints.excludedAirlines().contains(airline)) return false;
+        }
+        Flight first = path.get(0);
+        LocalTime departure = first.getDeparture().toLocalTime();
+        if (constraints.departAfter() != null && departure.isBefore(constraints.departAfter())) return false;
+        if (constraints.departBefore() != null && departure.isAfter(constraints.departBefore())) return false;
+        for (int leg = 1; leg < path.size(); leg++) {
+            long layover = Duration.between(path.get(leg - 1).getArrival(), path.get(leg).getDeparture()).toMinutes();
+            if (constraints.minConnectionMinutes() != null && layover < constraints.minConnectionMinutes()) return false;
+            if (constraints.maxConnectionMinutes() != null && layover > constraints.maxConnectionMinutes()) return false;
+        }
+        // Counted from midnight of the first departure's day, so arriving the next day is late
+        long arrival = Duration.between(first.getDeparture().toLocalDate().atStartOfDay(),
+                path.get(path.size() - 1).getArrival()).toMinutes();
+        if (constraints.arriveAfter() != null && arrival < constraints.arriveAfter().toSecondOfDay() / 60) return false;
+        return constraints.arriveBefore() == null || arrival <= constraints.arriveBefore().toSecondOfDay() / 60;
+    }
+
+    private static String ids(List<Flight> path) {
+        return path.stream().map(Flight::getId).collect(Collectors.joining(","));
+    }
+}
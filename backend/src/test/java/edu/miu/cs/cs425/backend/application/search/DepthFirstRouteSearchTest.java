@@ -0,0 +1,81 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Forking first-leg subtrees must not change the result: same paths, same order, same constraints
+class DepthFirstRouteSearchTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+    private static final int QUERIES = 30;
+
+    private static ScheduleGenerator generator;
+    private static FlightNetworkSnapshot network;
+
+    @BeforeAll
+    static void generateNetwork() {
+        // 120 airports, 10 hubs
+        generator = new ScheduleGenerator(13, 120, 10, 6);
+        network = FlightNetworkSnapshot.build(generator.generateDay(DAY, 2, 4, 3), 1);
+    }
+
+    @Test
+    void parallelSearchReturnsTheSequentialPathsInOrder() {
+        DepthFirstRouteSearch sequential = new DepthFirstRouteSearch();
+        // Every origin goes parallel
+        DepthFirstRouteSearch parallel = new DepthFirstRouteSearch();
+        ReflectionTestUtils.setField(parallel, "parallelThreshold", 1);
+
+        SearchConstraints constraints = new SearchConstraints(null, 45, 240, LocalTime.of(6, 0), LocalTime.of(16, 0),
+                null, null, null, List.of("AIR002"));
+        int paths = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            String origin = i % 3 == 0 ? generator.hub(i % 10).getIataCode() : generator.spoke(i).getIataCode();
+            String destination = generator.spoke(100 - i).getIataCode();
+            for (int maxLegs = 1; maxLegs <= 4; maxLegs++) {
+                String route = origin + " -> " + destination + " in " + maxLegs;
+                RouteRequest request = new RouteRequest(origin, destination, DAY, maxLegs);
+                List<String> expected = ids(sequential.search(network, request));
+                assertEquals(expected, ids(parallel.search(network, request)), route);
+                paths += expected.size();
+
+                RouteRequest constrained = new RouteRequest(origin, destination, DAY, maxLegs, constraints);
+                assertEquals(ids(sequential.search(network, constrained)), ids(parallel.search(network, constrained)), route);
+            }
+        }
+        assertTrue(paths > 0);
+    }
+
+    @Test
+    void pathsHaveAtMostMaxLegsLegs() {
+        DepthFirstRouteSearch search = new DepthFirstRouteSearch();
+        for (int i = 0; i < QUERIES; i++) {
+            String origin = generator.spoke(i).getIataCode();
+            String destination = generator.spoke(100 - i).getIataCode();
+            List<List<Flight>> withinThree = search.findPaths(network, DAY, origin, destination, 3);
+            List<List<Flight>> withinFour = search.findPaths(network, DAY, origin, destination, 4);
+            assertTrue(withinThree.stream().allMatch(path -> path.size() <= 3));
+            assertTrue(withinFour.stream().allMatch(path -> path.size() <= 4));
+            // Raising the limit only adds the longer paths
+            assertEquals(ids(withinThree), ids(withinFour.stream().filter(path -> path.size() <= 3).collect(Collectors.toList())));
+        }
+    }
+
+    private static List<String> ids(List<List<Flight>> paths) {
+        List<String> ids = new ArrayList<>();
+        for (List<Flight> path : paths) {
+            ids.add(path.stream().map(Flight::getId).collect(Collectors.joining(",")));
+        }
+        return ids;
+    }
+}
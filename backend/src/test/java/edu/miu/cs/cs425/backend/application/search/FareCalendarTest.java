@@ -0,0 +1,101 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import edu.miu.cs.cs425.backend.domain.entity.Itinerary;
+import edu.miu.cs.cs425.backend.dto.FareCalendarDay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The one-sweep calendar must report, per day, what a separate 1-stop search for that day finds
+class FareCalendarTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 3, 12);
+    private static final int DAYS = 4;
+
+    private ScheduleGenerator generator;
+    private FlightNetworkSnapshot network;
+    private FareCalendar fareCalendar;
+
+    @BeforeEach
+    void generateNetwork() {
+        // 40 airports, 5 hubs, over four days
+        generator = new ScheduleGenerator(31, 40, 5, 4);
+        List<Flight> flights = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            flights.addAll(generator.generateDay(FIRST_DAY.plusDays(day), 2, 3, 3));
+        }
+        network = FlightNetworkSnapshot.build(flights, 1);
+        fareCalendar = new FareCalendar();
+        ReflectionTestUtils.setField(fareCalendar, "maxCachedRoutes", 16);
+    }
+
+    @Test
+    void everyDayMatchesItsOwnSearch() {
+        int daysWithFares = 0;
+        for (int i = 0; i < 30; i++) {
+            String origin = generator.getAirports().get(i).getIataCode();
+            String destination = generator.getAirports().get((i * 7 + 3) % 40).getIataCode();
+            if (origin.equals(destination)) continue;
+            List<FareCalendarDay> expected = perDaySearches(network, origin, destination, FIRST_DAY, FIRST_DAY.plusDays(DAYS - 1));
+            assertEquals(expected, fareCalendar.calendar(network, origin, destination, FIRST_DAY, FIRST_DAY.plusDays(DAYS - 1)),
+                    origin + " -> " + destination);
+            daysWithFares += (int) expected.stream().filter(day -> day.cheapestPrice() != null).count();
+        }
+        assertTrue(daysWithFares > 10);
+    }
+
+    @Test
+    void overlappingWindowsReuseComputedDaysAndAWriteRecomputesThem() {
+        String origin = generator.hub(0).getIataCode();
+        String destination = generator.spoke(3).getIataCode();
+        fareCalendar.calendar(network, origin, destination, FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(2));
+        assertEquals(perDaySearches(network, origin, destination, FIRST_DAY, FIRST_DAY.plusDays(DAYS - 1)),
+                fareCalendar.calendar(network, origin, destination, FIRST_DAY, FIRST_DAY.plusDays(DAYS - 1)));
+
+        // Drop a flight of the first day, the cheapest direct one if there is one; the new version must not
+        // be served the old days
+        Flight cheapest = network.departuresOn(origin, FIRST_DAY).stream()
+                .filter(flight -> flight.getDestination().getIataCode().equals(destination))
+                .min((a, b) -> Double.compare(a.getPrice(), b.getPrice()))
+                .orElse(network.departuresOn(origin, FIRST_DAY).get(0));
+        FlightNetworkSnapshot next = network.without(cheapest.getId(), 2);
+        assertEquals(perDaySearches(next, origin, destination, FIRST_DAY, FIRST_DAY.plusDays(DAYS - 1)),
+                fareCalendar.calendar(next, origin, destination, FIRST_DAY, FIRST_DAY.plusDays(DAYS - 1)));
+    }
+
+    @Test
+    void daysWithoutItinerariesAreEmptyAndBadWindowsAreRejected() {
+        List<FareCalendarDay> days = fareCalendar.calendar(network, "XXX", generator.hub(0).getIataCode(),
+                FIRST_DAY, FIRST_DAY.plusDays(1));
+        assertEquals(List.of(new FareCalendarDay(FIRST_DAY, null, null), new FareCalendarDay(FIRST_DAY.plusDays(1), null, null)), days);
+        assertThrows(IllegalArgumentException.class,
+                () -> fareCalendar.calendar(network, "AAA", "AAB", FIRST_DAY.plusDays(1), FIRST_DAY));
+    }
+
+    // Direct flights and 1-stop connections under the same layover rules, one search per day
+    private static List<FareCalendarDay> perDaySearches(FlightNetworkSnapshot network, String origin, String destination,
+                                                        LocalDate from, LocalDate to) {
+        ConnectionTable connections = new ConnectionTable();
+        List<FareCalendarDay> days = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Double cheapest = null;
+            Integer fastest = null;
+            for (List<Flight> path : connections.search(network, new RouteRequest(origin, destination, date, 2))) {
+                Itinerary itinerary = new Itinerary();
+                itinerary.setFlights(path);
+                itinerary.calculateTotals();
+                if (cheapest == null || itinerary.getTotalPrice() < cheapest) cheapest = itinerary.getTotalPrice();
+                if (fastest == null || itinerary.getTotalDuration() < fastest) fastest = itinerary.getTotalDuration();
+            }
+            days.add(new FareCalendarDay(date, cheapest, fastest));
+        }
+        return days;
+    }
+}
@@ -0,0 +1,126 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GeoRouteSearchBenchmarkTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+    private static final int MAX_LEGS = 3;
+    private static final int QUERIES = 30;
+    private static final double MAX_DETOUR_RATIO = 1.5;
+
+    private static ScheduleGenerator generator;
+    private static FlightNetworkSnapshot network;
+
+    private final DepthFirstRouteSearch depthFirstRouteSearch = new DepthFirstRouteSearch();
+    private final GeoRouteSearch geoRouteSearch = new GeoRouteSearch();
+
+    @BeforeAll
+    static void generateNetwork() {
+        // 500 airports, 20 hubs
+        generator = new ScheduleGenerator(42, 500, 20, 8);
+        network = FlightNetworkSnapshot.build(generator.generateDay(DAY, 3, 6, 4), 1);
+    }
+
+    @Test
+    void geoSearchReturnsEverySimplePathWithinTheDetourBound() {
+        for (int i = 0; i < QUERIES; i++) {
+            String origin = origin(i);
+            String destination = destination(i);
+
+            Set<String> expected = depthFirstRouteSearch.findPaths(network, DAY, origin, destination, MAX_LEGS).stream()
+                    .filter(GeoRouteSearchBenchmarkTest::isSimplePath)
+                    .filter(path -> withinDetourBound(path, origin, destination))
+                    .map(GeoRouteSearchBenchmarkTest::ids)
+                    .collect(Collectors.toCollection(TreeSet::new));
+            Set<String> actual = geoRouteSearch.findPaths(network, DAY, origin, destination, MAX_LEGS, MAX_DETOUR_RATIO).stream()
+                    .map(GeoRouteSearchBenchmarkTest::ids)
+                    .collect(Collectors.toCollection(TreeSet::new));
+
+            assertEquals(expected, actual, origin + " -> " + destination);
+        }
+    }
+
+    // Timing only, so it is not part of the regular build; the times go to the test report
+    @Test
+    @Tag("benchmark")
+    @Disabled("Benchmark, run by hand")
+    void timeGeoSearchAgainstDepthFirstEnumeration(TestReporter reporter) {
+        // Warm up both searches before measuring
+        runDepthFirst();
+        runGeo();
+
+        long depthFirstNanos = runDepthFirst();
+        long geoNanos = runGeo();
+
+        reporter.publishEntry("network", network.size() + " flights / 500 airports, " + QUERIES + " queries");
+        reporter.publishEntry("dfs-ms", String.format("%.1f", depthFirstNanos / 1e6));
+        reporter.publishEntry("geo-ms", String.format("%.1f (detour <= %.1f)", geoNanos / 1e6, MAX_DETOUR_RATIO));
+    }
+
+    private long runDepthFirst() {
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            depthFirstRouteSearch.findPaths(network, DAY, origin(i), destination(i), MAX_LEGS);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long runGeo() {
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            geoRouteSearch.findPaths(network, DAY, origin(i), destination(i), MAX_LEGS, MAX_DETOUR_RATIO);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static String origin(int query) {
+        return generator.spoke(query).getIataCode();
+    }
+
+    private static String destination(int query) {
+        return generator.spoke(200 + query * 7).getIataCode();
+    }
+
+    // Every prefix must stay within the bound, measured the same way the search does
+    private static boolean withinDetourBound(List<Flight> path, String origin, String destination) {
+        ScheduleStore t = network.schedule();
+        int target = t.airportId(destination);
+        double budget = MAX_DETOUR_RATIO * t.distanceKm(t.airportId(origin), target);
+        double flown = 0;
+        for (Flight flight : path) {
+            int from = t.airportId(flight.getOrigin().getIataCode());
+            int to = t.airportId(flight.getDestination().getIataCode());
+            flown += t.distanceKm(from, to);
+            if (flown + t.distanceKm(to, target) > budget) return false;
+        }
+        return true;
+    }
+
+    private static boolean isSimplePath(List<Flight> path) {
+        Set<String> airports = new HashSet<>();
+        airports.add(path.get(0).getOrigin().getIataCode());
+        for (Flight flight : path) {
+            if (!airports.add(flight.getDestination().getIataCode())) return false;
+        }
+        return true;
+    }
+
+    private static String ids(List<Flight> path) {
+        return path.stream().map(Flight::getId).collect(Collectors.joining(","));
+    }
+}
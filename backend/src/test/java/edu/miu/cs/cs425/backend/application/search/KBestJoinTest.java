@@ -0,0 +1,173 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The frontier joins must produce the sorted, filtered cross product: same pairs or tuples, same order on ties
+class KBestJoinTest {
+
+    @Test
+    void pairsComeOutLikeTheSortedCrossProduct() {
+        Random random = new Random(9);
+        for (int run = 0; run < 20; run++) {
+            // Whole-number keys from a small range, so many sums tie
+            double[] left = keys(random, 1 + random.nextInt(25));
+            double[] right = keys(random, 1 + random.nextInt(25));
+            KBestJoin.PairFilter filter = (l, r) -> (l + 2 * r) % 3 != 0;
+
+            List<String> expected = crossProduct(left, right, filter);
+            assertEquals(expected, KBestJoin.join(left, right, null, filter, KBestJoinTest::pair), "run " + run);
+            for (int limit : new int[]{1, 5, expected.size(), expected.size() + 3}) {
+                assertEquals(expected.subList(0, Math.min(limit, expected.size())),
+                        KBestJoin.join(left, right, limit, filter, KBestJoinTest::pair), "run " + run + " limit " + limit);
+            }
+        }
+    }
+
+    @Test
+    void theVisitorCanStopTheEnumeration() {
+        double[] left = {3, 1, 2};
+        double[] right = {2, 0};
+        List<String> visited = new ArrayList<>();
+        KBestJoin.forEach(left, right, (l, r) -> true, (l, r) -> {
+            visited.add(pair(l, r));
+            return visited.size() < 4;
+        });
+        // Sums 1, 2, 3, 3 in that order; the tie keeps (left, right) input order
+        assertEquals(List.of("1:1", "2:1", "0:1", "1:0"), visited);
+    }
+
+    @Test
+    void anEmptySideHasNoPairs() {
+        assertTrue(KBestJoin.join(new double[0], new double[]{1}, null, (l, r) -> true, KBestJoinTest::pair).isEmpty());
+        assertTrue(KBestJoin.join(new double[]{1}, new double[0], 3, (l, r) -> true, KBestJoinTest::pair).isEmpty());
+    }
+
+    @Test
+    void tuplesComeOutLikeTheSortedCrossProduct() {
+        Random random = new Random(21);
+        for (int run = 0; run < 20; run++) {
+            double[][] keys = new double[2 + random.nextInt(3)][];
+            for (int s = 0; s < keys.length; s++) {
+                keys[s] = keys(random, 1 + random.nextInt(6));
+            }
+            // Segments chain like multi-city legs: each candidate of segment s departs at time s * 10 + index
+            // and lands 8 later, so a later segment only fits after the earlier one lands
+            KBestJoin.TupleFilter chained = chosen -> {
+                for (int s = 1; s < chosen.length; s++) {
+                    if (s * 10 + chosen[s] <= (s - 1) * 10 + chosen[s - 1] + 8) return false;
+                }
+                return true;
+            };
+
+            List<String> expected = crossProduct(keys, chained);
+            List<String> joined = new ArrayList<>();
+            KBestJoin.forEach(keys, chained, chosen -> joined.add(tuple(chosen)));
+            assertEquals(expected, joined, "run " + run);
+
+            List<String> all = crossProduct(keys, chosen -> true);
+            List<String> unfiltered = new ArrayList<>();
+            KBestJoin.forEach(keys, chosen -> true, chosen -> unfiltered.add(tuple(chosen)));
+            assertEquals(all, unfiltered, "run " + run);
+        }
+    }
+
+    @Test
+    void theTupleVisitorCanStopTheEnumeration() {
+        double[][] keys = {{1, 0}, {2, 0}, {0, 1}};
+        List<String> visited = new ArrayList<>();
+        KBestJoin.forEach(keys, chosen -> true, chosen -> {
+            visited.add(tuple(chosen));
+            return visited.size() < 4;
+        });
+        // Sums 0, 1, 1, 2; ties in lexicographic index order, so 0:1:1 comes before 1:0:0
+        assertEquals(List.of("1:1:0", "0:1:0", "1:1:1", "0:1:1"), visited);
+
+        List<String> none = new ArrayList<>();
+        KBestJoin.forEach(new double[][]{{1}, {}, {2}}, chosen -> true, chosen -> none.add(tuple(chosen)));
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    void theBudgetStopsTheTupleEnumeration() {
+        double[][] keys = new double[4][];
+        Random random = new Random(5);
+        for (int s = 0; s < keys.length; s++) {
+            keys[s] = keys(random, 10);
+        }
+        // Rejected tuples are charged too, so a filter that accepts nothing cannot walk the whole product
+        SearchBudget budget = new SearchBudget(0, 50);
+        List<String> visited = new ArrayList<>();
+        int[] tried = {0};
+        KBestJoin.forEach(keys, budget, chosen -> ++tried[0] % 2 == 0, chosen -> visited.add(tuple(chosen)));
+        assertTrue(budget.isExhausted());
+        assertEquals(50, tried[0]);
+        // What it did produce is the start of the unbounded order
+        List<String> unbounded = new ArrayList<>();
+        int[] triedUnbounded = {0};
+        KBestJoin.forEach(keys, chosen -> ++triedUnbounded[0] % 2 == 0, chosen -> unbounded.add(tuple(chosen)));
+        assertEquals(unbounded.subList(0, visited.size()), visited);
+        assertEquals(25, visited.size());
+    }
+
+    private static List<String> crossProduct(double[] left, double[] right, KBestJoin.PairFilter filter) {
+        List<int[]> pairs = new ArrayList<>();
+        for (int l = 0; l < left.length; l++) {
+            for (int r = 0; r < right.length; r++) {
+                if (filter.test(l, r)) pairs.add(new int[]{l, r});
+            }
+        }
+        // Stable, so equal sums stay in nested-loop order
+        return pairs.stream()
+                .sorted(Comparator.comparingDouble(pair -> left[pair[0]] + right[pair[1]]))
+                .map(pair -> pair(pair[0], pair[1]))
+                .collect(Collectors.toList());
+    }
+
+    // Every tuple in lexicographic index order, then stably sorted by the sum of its keys
+    private static List<String> crossProduct(double[][] keys, KBestJoin.TupleFilter filter) {
+        List<int[]> tuples = new ArrayList<>();
+        int[] chosen = new int[keys.length];
+        while (true) {
+            if (filter.test(chosen)) tuples.add(chosen.clone());
+            int s = keys.length - 1;
+            while (s >= 0 && ++chosen[s] == keys[s].length) {
+                chosen[s] = 0;
+                s--;
+            }
+            if (s < 0) break;
+        }
+        return tuples.stream()
+                .sorted(Comparator.comparingDouble(tuple -> {
+                    double sum = 0;
+                    for (int s = 0; s < tuple.length; s++) sum += keys[s][tuple[s]];
+                    return sum;
+                }))
+                .map(KBestJoinTest::tuple)
+                .collect(Collectors.toList());
+    }
+
+    private static String tuple(int[] chosen) {
+        return Arrays.stream(chosen).mapToObj(String::valueOf).collect(Collectors.joining(":"));
+    }
+
+    private static double[] keys(Random random, int count) {
+        double[] keys = new double[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = random.nextInt(10);
+        }
+        return keys;
+    }
+
+    private static String pair(int left, int right) {
+        return left + ":" + right;
+    }
+}
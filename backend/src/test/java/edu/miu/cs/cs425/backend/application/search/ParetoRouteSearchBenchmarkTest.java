@@ -0,0 +1,136 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import edu.miu.cs.cs425.backend.domain.entity.Itinerary;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ParetoRouteSearchBenchmarkTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+    private static final int MAX_LEGS = 3;
+    private static final int QUERIES = 30;
+
+    private static ScheduleGenerator generator;
+    private static FlightNetworkSnapshot network;
+
+    private final DepthFirstRouteSearch depthFirstRouteSearch = new DepthFirstRouteSearch();
+    private final ParetoRouteSearch paretoRouteSearch = new ParetoRouteSearch();
+
+    @BeforeAll
+    static void generateNetwork() {
+        // 500 airports, 20 hubs
+        generator = new ScheduleGenerator(42, 500, 20, 8);
+        network = FlightNetworkSnapshot.build(generator.generateDay(DAY, 3, 6, 4), 1);
+    }
+
+    @Test
+    void paretoSearchReturnsTheEfficientFrontierOfAllSimplePaths() {
+        for (int i = 0; i < QUERIES; i++) {
+            String origin = origin(i);
+            String destination = destination(i);
+
+            List<List<Flight>> allPaths = depthFirstRouteSearch.findPaths(network, DAY, origin, destination, MAX_LEGS).stream()
+                    .filter(ParetoRouteSearchBenchmarkTest::isSimplePath)
+                    .collect(Collectors.toList());
+            Set<String> expected = allPaths.stream()
+                    .filter(path -> allPaths.stream().noneMatch(other -> strictlyDominates(other, path)))
+                    .map(ParetoRouteSearchBenchmarkTest::criteria)
+                    .collect(Collectors.toCollection(TreeSet::new));
+            Set<String> actual = paretoRouteSearch.findParetoPaths(network, DAY, origin, destination, MAX_LEGS).stream()
+                    .map(ParetoRouteSearchBenchmarkTest::criteria)
+                    .collect(Collectors.toCollection(TreeSet::new));
+
+            assertEquals(expected, actual, origin + " -> " + destination);
+        }
+    }
+
+    // Timing only, so it is not part of the regular build; the times go to the test report
+    @Test
+    @Tag("benchmark")
+    @Disabled("Benchmark, run by hand")
+    void timeParetoSearchAgainstDepthFirstEnumeration(TestReporter reporter) {
+        // Warm up both searches before measuring
+        runDepthFirst();
+        runPareto();
+
+        long depthFirstNanos = runDepthFirst();
+        long paretoNanos = runPareto();
+
+        reporter.publishEntry("network", network.size() + " flights / 500 airports, " + QUERIES + " queries");
+        reporter.publishEntry("dfs-ms", String.format("%.1f", depthFirstNanos / 1e6));
+        reporter.publishEntry("pareto-ms", String.format("%.1f", paretoNanos / 1e6));
+    }
+
+    private long runDepthFirst() {
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            depthFirstRouteSearch.findPaths(network, DAY, origin(i), destination(i), MAX_LEGS);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long runPareto() {
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            paretoRouteSearch.findParetoPaths(network, DAY, origin(i), destination(i), MAX_LEGS);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static String origin(int query) {
+        return generator.spoke(query).getIataCode();
+    }
+
+    private static String destination(int query) {
+        return generator.spoke(200 + query * 7).getIataCode();
+    }
+
+    // The DFS also reports paths that come back through the origin
+    private static boolean isSimplePath(List<Flight> path) {
+        Set<String> airports = new HashSet<>();
+        airports.add(path.get(0).getOrigin().getIataCode());
+        for (Flight flight : path) {
+            if (!airports.add(flight.getDestination().getIataCode())) return false;
+        }
+        return path.size() <= MAX_LEGS;
+    }
+
+    private static boolean strictlyDominates(List<Flight> a, List<Flight> b) {
+        return dominates(a, b) && !dominates(b, a);
+    }
+
+    private static boolean dominates(List<Flight> a, List<Flight> b) {
+        Itinerary x = itinerary(a);
+        Itinerary y = itinerary(b);
+        return !a.get(a.size() - 1).getArrival().isAfter(b.get(b.size() - 1).getArrival())
+                && x.getTotalPrice() <= y.getTotalPrice()
+                && x.getTotalDuration() <= y.getTotalDuration()
+                && a.size() <= b.size();
+    }
+
+    private static String criteria(List<Flight> path) {
+        Itinerary itinerary = itinerary(path);
+        return path.get(path.size() - 1).getArrival() + "|" + itinerary.getTotalPrice() + "|"
+                + itinerary.getTotalDuration() + "|" + path.size();
+    }
+
+    private static Itinerary itinerary(List<Flight> path) {
+        Itinerary itinerary = new Itinerary();
+        itinerary.setFlights(path);
+        itinerary.calculateTotals();
+        return itinerary;
+    }
+}
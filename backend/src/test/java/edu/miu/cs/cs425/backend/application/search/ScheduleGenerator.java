@@ -0,0 +1,100 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Airline;
+import edu.miu.cs.cs425.backend.domain.entity.Airport;
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Generates hub-and-spoke schedules for search tests and benchmarks
+public class ScheduleGenerator {
+
+    private final Random random;
+    private final List<Airport> airports = new ArrayList<>();
+    private final List<Airline> airlines = new ArrayList<>();
+    private final int hubCount;
+
+    public ScheduleGenerator(long seed, int airportCount, int hubCount, int airlineCount) {
+        this.random = new Random(seed);
+        this.hubCount = hubCount;
+        // Coordinates come from their own generator so the flights stay the same for a given seed
+        Random locations = new Random(seed + 1);
+        for (int i = 0; i < airportCount; i++) {
+            Airport airport = new Airport();
+            airport.setIataCode(code(i));
+            airport.setName("Airport " + code(i));
+            airport.setCity("City " + i);
+            airport.setCountry("Country " + (i % 20));
+            airport.setLatitude(-50 + locations.nextDouble() * 110);
+            airport.setLongitude(-180 + locations.nextDouble() * 360);
+            airports.add(airport);
+        }
+        for (int i = 0; i < airlineCount; i++) {
+            Airline airline = new Airline();
+            airline.setCode("AIR" + String.format("%03d", i + 1));
+            airline.setName("Airline " + i);
+            airlines.add(airline);
+        }
+    }
+
+    public List<Airport> getAirports() {
+        return airports;
+    }
+
+    public Airport hub(int index) {
+        return airports.get(index);
+    }
+
+    public Airport spoke(int index) {
+        return airports.get(hubCount + index);
+    }
+
+    // Every spoke connects to a few hubs in both directions, hubs are densely connected to each other
+    public List<Flight> generateDay(LocalDate date, int spokeLinks, int hubLinks, int departuresPerLink) {
+        List<Flight> flights = new ArrayList<>();
+        for (int s = hubCount; s < airports.size(); s++) {
+            for (int l = 0; l < spokeLinks; l++) {
+                Airport hub = airports.get(random.nextInt(hubCount));
+                for (int d = 0; d < departuresPerLink; d++) {
+                    flights.add(flight(date, airports.get(s), hub));
+                    flights.add(flight(date, hub, airports.get(s)));
+                }
+            }
+        }
+        for (int h = 0; h < hubCount; h++) {
+            for (int l = 0; l < hubLinks; l++) {
+                int other = random.nextInt(hubCount);
+                if (other == h) continue;
+                for (int d = 0; d < departuresPerLink; d++) {
+                    flights.add(flight(date, airports.get(h), airports.get(other)));
+                }
+            }
+        }
+        return flights;
+    }
+
+    private Flight flight(LocalDate date, Airport origin, Airport destination) {
+        LocalDateTime departure = date.atStartOfDay().plusMinutes(random.nextInt(20 * 60));
+        int duration = 45 + random.nextInt(300);
+        Flight flight = new Flight();
+        flight.setId("F" + origin.getIataCode() + destination.getIataCode() + departure.toLocalTime() + random.nextInt(1_000_000));
+        flight.setFlightNumber("FL" + random.nextInt(10_000));
+        flight.setAirline(airlines.get(random.nextInt(airlines.size())));
+        flight.setOrigin(origin);
+        flight.setDestination(destination);
+        flight.setDeparture(departure);
+        flight.setArrival(departure.plusMinutes(duration));
+        flight.setDuration(duration);
+        flight.setPrice(50 + random.nextInt(950));
+        flight.setSeatsAvailable(100);
+        return flight;
+    }
+
+    private static String code(int index) {
+        return "" + (char) ('A' + index / 676) + (char) ('A' + (index / 26) % 26) + (char) ('A' + index % 26);
+    }
+}
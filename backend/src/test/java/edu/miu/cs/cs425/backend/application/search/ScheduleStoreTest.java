@@ -0,0 +1,126 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Airport;
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The columnar copy must describe exactly the flights of the snapshot it was built from, and its
+// binary-searched time windows must select what a scan would
+class ScheduleStoreTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+
+    private static ScheduleGenerator generator;
+    private static FlightNetworkSnapshot network;
+    private static ScheduleStore t;
+
+    @BeforeAll
+    static void generateNetwork() {
+        // 60 airports, 6 hubs, over two days
+        generator = new ScheduleGenerator(23, 60, 6, 4);
+        List<Flight> flights = new ArrayList<>(generator.generateDay(DAY, 2, 3, 3));
+        flights.addAll(generator.generateDay(DAY.plusDays(1), 2, 3, 3));
+        network = FlightNetworkSnapshot.build(flights, 7);
+        t = network.schedule();
+    }
+
+    @Test
+    void columnsMatchTheSnapshotsFlights() {
+        List<Flight> flights = network.allFlights();
+        assertEquals(flights.size(), t.size());
+        assertEquals(7, t.getVersion());
+        for (int i = 0; i < t.size(); i++) {
+            Flight flight = flights.get(i);
+            assertSame(flight, t.flight(i));
+            assertEquals(i, t.indexOf(flight.getId()));
+            assertEquals(flight.getOrigin().getIataCode(), t.airportCode(t.origin[i]));
+            assertEquals(flight.getDestination().getIataCode(), t.airportCode(t.destination[i]));
+            assertEquals(t.airlineId(flight.getAirline().getCode()), t.airline[i]);
+            assertEquals(ScheduleStore.minutes(flight.getDeparture()), t.departure[i]);
+            assertEquals(ScheduleStore.minutes(flight.getArrival()), t.arrival[i]);
+            assertEquals(flight.getPrice(), t.price[i], 0.0);
+            assertEquals(flight.getDuration(), t.duration[i]);
+            // Departure order
+            if (i > 0) assertTrue(t.departure[i - 1] <= t.departure[i]);
+        }
+        assertEquals(ScheduleStore.UNKNOWN, t.indexOf("no such flight"));
+        assertEquals(ScheduleStore.UNKNOWN, t.airportId("XXX"));
+    }
+
+    @Test
+    void groupsHoldEachAirportsFlightsInTimeOrder() {
+        for (int airport = 0; airport < t.airportCount; airport++) {
+            String code = t.airportCode(airport);
+            List<Flight> departures = new ArrayList<>();
+            for (int pos = t.originStart[airport]; pos < t.originStart[airport + 1]; pos++) {
+                departures.add(t.flight(t.byOrigin[pos]));
+                if (pos > t.originStart[airport]) assertTrue(t.departure[t.byOrigin[pos - 1]] <= t.departure[t.byOrigin[pos]]);
+            }
+            assertEquals(network.allFlights().stream().filter(f -> f.getOrigin().getIataCode().equals(code)).toList(), departures);
+
+            int arrivals = 0;
+            for (int pos = t.destinationStart[airport]; pos < t.destinationStart[airport + 1]; pos++) {
+                assertEquals(code, t.flight(t.byDestination[pos]).getDestination().getIataCode());
+                if (pos > t.destinationStart[airport]) assertTrue(t.arrival[t.byDestination[pos - 1]] <= t.arrival[t.byDestination[pos]]);
+                arrivals++;
+            }
+            assertEquals(network.allFlights().stream().filter(f -> f.getDestination().getIataCode().equals(code)).count(), arrivals);
+        }
+        for (int k = 1; k < t.size(); k++) {
+            assertTrue(t.arrival[t.byArrival[k - 1]] <= t.arrival[t.byArrival[k]]);
+        }
+    }
+
+    @Test
+    void binarySearchesMatchALinearScan() {
+        int from = ScheduleStore.minutes(DAY.atStartOfDay()) - 60;
+        int to = ScheduleStore.minutes(DAY.plusDays(2).atStartOfDay()) + 60;
+        for (int minute = from; minute <= to; minute += 7) {
+            int overall = 0;
+            while (overall < t.size() && t.departure[overall] < minute) overall++;
+            assertEquals(overall, t.firstDepartureOverall(minute), "minute " + minute);
+
+            int last = -1;
+            for (int k = 0; k < t.size(); k++) {
+                if (t.arrival[t.byArrival[k]] <= minute) last = k;
+            }
+            assertEquals(last, t.lastArrival(minute), "minute " + minute);
+
+            for (int airport = 0; airport < t.airportCount; airport++) {
+                int departure = t.originStart[airport];
+                while (departure < t.originStart[airport + 1] && t.departure[t.byOrigin[departure]] < minute) departure++;
+                assertEquals(departure, t.firstDeparture(airport, minute), "airport " + airport + " minute " + minute);
+
+                int arrival = t.destinationStart[airport];
+                while (arrival < t.destinationStart[airport + 1] && t.arrival[t.byDestination[arrival]] < minute) arrival++;
+                assertEquals(arrival, t.firstArrival(airport, minute), "airport " + airport + " minute " + minute);
+            }
+        }
+    }
+
+    @Test
+    void coordinatesAreCopiedPerAirport() {
+        for (Airport airport : generator.getAirports()) {
+            int id = t.airportId(airport.getIataCode());
+            if (id == ScheduleStore.UNKNOWN) continue;
+            assertEquals(airport.getLatitude(), t.latitude[id], 0.0);
+            assertEquals(airport.getLongitude(), t.longitude[id], 0.0);
+        }
+    }
+
+    @Test
+    void theStoreIsBuiltOncePerSnapshot() {
+        assertSame(t, network.schedule());
+        FlightNetworkSnapshot next = network.without(network.allFlights().get(0).getId(), 8);
+        assertNotSame(t, next.schedule());
+        assertEquals(t.size() - 1, next.schedule().size());
+        assertEquals(8, next.schedule().getVersion());
+    }
+}
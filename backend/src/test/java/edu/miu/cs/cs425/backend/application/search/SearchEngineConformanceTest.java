@@ -0,0 +1,290 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import edu.miu.cs.cs425.backend.domain.entity.Itinerary;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs every registered engine against the same generated schedule. The exhaustive DFS, restricted to
+// simple paths, is the reference each engine's documented subset is checked against.
+class SearchEngineConformanceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+    private static final int MAX_LEGS = 3;
+    private static final int QUERIES = 40;
+    private static final List<SearchConstraints> CONSTRAINTS = List.of(
+            new SearchConstraints(1, null, null, null, null, null, null, null, List.of("AIR001")),
+            new SearchConstraints(null, null, null, LocalTime.of(6, 0), LocalTime.of(14, 0), null, null,
+                    List.of("AIR002", "AIR003", "AIR004"), null),
+            new SearchConstraints(null, 45, 180, null, null, LocalTime.of(8, 0), LocalTime.of(20, 0), null, null));
+
+    private static ScheduleGenerator generator;
+    private static FlightNetworkSnapshot network;
+    private static SearchEngineRegistry registry;
+
+    @BeforeAll
+    static void generateNetwork() {
+        // 120 airports, 10 hubs
+        generator = new ScheduleGenerator(7, 120, 10, 6);
+        network = FlightNetworkSnapshot.build(generator.generateDay(DAY, 2, 4, 3), 1);
+        registry = new SearchEngineRegistry(List.of(new DepthFirstRouteSearch(), new ParetoRouteSearch(),
+                new ConnectionScanSearch(), new ConnectionTable(), new DirectFlightSearch(), new GeoRouteSearch()));
+    }
+
+    @Test
+    void everyEngineReturnsValidPaths() {
+        for (String name : registry.names()) {
+            SearchEngine engine = registry.engine(name);
+            for (int i = 0; i < QUERIES; i++) {
+                RouteRequest request = request(i);
+                for (List<Flight> path : engine.search(network, request)) {
+                    assertValidPath(name, request, path);
+                }
+            }
+        }
+    }
+
+    @Test
+    void enginesReturnTheirSubsetOfTheExhaustiveSearch() {
+        for (int i = 0; i < QUERIES; i++) {
+            RouteRequest request = request(i);
+            String route = request.origin() + " -> " + request.destination();
+            List<List<Flight>> reference = registry.engine("dfs").search(network, request).stream()
+                    .filter(SearchEngineConformanceTest::isSimplePath)
+                    .collect(Collectors.toList());
+
+            assertEquals(ids(reference.stream().filter(path -> path.size() == 1)),
+                    ids(registry.engine("direct").search(network, request).stream()), "direct " + route);
+            assertEquals(ids(reference.stream().filter(SearchEngineConformanceTest::hasValidLayovers)),
+                    ids(registry.engine("connections").search(network, request).stream()), "connections " + route);
+            // Unconfigured, so without a detour bound
+            assertEquals(ids(reference.stream()), ids(registry.engine("geo").search(network, request).stream()), "geo " + route);
+
+            Set<String> frontier = reference.stream()
+                    .filter(path -> reference.stream().noneMatch(other -> strictlyDominates(other, path)))
+                    .map(SearchEngineConformanceTest::criteria)
+                    .collect(Collectors.toCollection(TreeSet::new));
+            assertEquals(frontier, registry.engine("pareto").search(network, request).stream()
+                    .map(SearchEngineConformanceTest::criteria)
+                    .collect(Collectors.toCollection(TreeSet::new)), "pareto " + route);
+
+            // CSA is not bounded in legs, so it arrives no later than any reference path
+            List<List<Flight>> earliest = registry.engine("csa").search(network, request);
+            Optional<LocalDateTime> referenceArrival = reference.stream().map(SearchEngineConformanceTest::arrival).min(Comparator.naturalOrder());
+            if (referenceArrival.isPresent()) {
+                assertEquals(1, earliest.size(), "csa " + route);
+                assertFalse(arrival(earliest.get(0)).isAfter(referenceArrival.get()), "csa " + route);
+            }
+        }
+    }
+
+    @Test
+    void enginesEnforceSearchConstraints() {
+        for (SearchConstraints constraints : CONSTRAINTS) {
+            for (int i = 0; i < QUERIES; i++) {
+                RouteRequest unconstrained = request(i);
+                RouteRequest request = new RouteRequest(unconstrained.origin(), unconstrained.destination(), DAY,
+                        constraints.maxLegs(MAX_LEGS), constraints);
+                String route = request.origin() + " -> " + request.destination() + " " + constraints;
+                // Brute force: the unconstrained search, filtered afterwards
+                List<List<Flight>> reference = registry.engine("dfs").search(network, unconstrained).stream()
+                        .filter(SearchEngineConformanceTest::isSimplePath)
+                        .filter(path -> path.size() <= request.maxLegs() && satisfies(path, constraints))
+                        .collect(Collectors.toList());
+
+                assertEquals(ids(reference.stream()), ids(registry.engine("dfs").search(network, request).stream()
+                        .filter(SearchEngineConformanceTest::isSimplePath)), "dfs " + route);
+                assertEquals(ids(reference.stream().filter(path -> path.size() == 1)),
+                        ids(registry.engine("direct").search(network, request).stream()), "direct " + route);
+                assertEquals(ids(reference.stream().filter(SearchEngineConformanceTest::hasValidLayovers)),
+                        ids(registry.engine("connections").search(network, request).stream()), "connections " + route);
+                assertEquals(ids(reference.stream()), ids(registry.engine("geo").search(network, request).stream()), "geo " + route);
+
+                Set<String> frontier = reference.stream()
+                        .filter(path -> reference.stream().noneMatch(other -> strictlyDominates(other, path)))
+                        .map(SearchEngineConformanceTest::criteria)
+                        .collect(Collectors.toCollection(TreeSet::new));
+                assertEquals(frontier, registry.engine("pareto").search(network, request).stream()
+                        .map(SearchEngineConformanceTest::criteria)
+                        .collect(Collectors.toCollection(TreeSet::new)), "pareto " + route);
+
+                // CSA keeps one journey per airport, so only check that what it returns is allowed
+                for (List<Flight> path : registry.engine("csa").search(network, request)) {
+                    assertTrue(satisfies(path, constraints), "csa " + route);
+                }
+            }
+        }
+    }
+
+    @Test
+    void enginesStopWhenTheBudgetRunsOut() {
+        for (String name : List.of("dfs", "pareto", "geo", "csa")) {
+            SearchEngine engine = registry.engine(name);
+            boolean cutShort = false;
+            for (int i = 0; i < QUERIES; i++) {
+                RouteRequest unlimited = request(i);
+                SearchBudget budget = new SearchBudget(0, 50);
+                RouteRequest request = new RouteRequest(unlimited.origin(), unlimited.destination(), DAY, MAX_LEGS,
+                        SearchConstraints.NONE, budget);
+                String route = name + " " + request.origin() + " -> " + request.destination();
+
+                List<List<Flight>> partial = engine.search(network, request);
+                for (List<Flight> path : partial) {
+                    assertValidPath(name, request, path);
+                }
+                assertTrue(budget.expansions() <= 51, route);
+                cutShort |= budget.isExhausted();
+                // Enumerating engines return part of what an unlimited search finds
+                if (name.equals("dfs") || name.equals("geo")) {
+                    assertTrue(ids(engine.search(network, unlimited).stream()).containsAll(ids(partial.stream())), route);
+                }
+
+                SearchBudget cancelled = new SearchBudget(0, 0);
+                cancelled.cancel();
+                assertTrue(engine.search(network, new RouteRequest(request.origin(), request.destination(), DAY, MAX_LEGS,
+                        SearchConstraints.NONE, cancelled)).isEmpty(), route);
+            }
+            assertTrue(cutShort, name);
+        }
+    }
+
+    @Test
+    void registryResolvesEnginesByName() {
+        assertEquals(new TreeSet<>(List.of("connections", "csa", "dfs", "direct", "geo", "pareto")), new TreeSet<>(registry.names()));
+        assertEquals("pareto", registry.engine("PARETO").name());
+        assertThrows(IllegalArgumentException.class, () -> registry.engine("bogus"));
+    }
+
+    @Test
+    void benchmarkEveryEngineOnTheSameQueries() {
+        Map<String, Long> nanosByEngine = new LinkedHashMap<>();
+        for (String name : registry.names()) {
+            // Warm up before measuring
+            run(registry.engine(name));
+            nanosByEngine.put(name, run(registry.engine(name)));
+        }
+
+        StringBuilder report = new StringBuilder(String.format("Route search over %d flights, %d queries:", network.size(), QUERIES));
+        nanosByEngine.forEach((name, nanos) -> report.append(String.format(" %s %.1f ms", name, nanos / 1e6)));
+        System.out.println(report);
+        assertEquals(registry.names().size(), nanosByEngine.size());
+    }
+
+    private long run(SearchEngine engine) {
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            engine.search(network, request(i));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static RouteRequest request(int query) {
+        // Mix of spoke-to-spoke, spoke-to-hub and hub-to-spoke routes
+        String origin = query % 4 == 3 ? generator.hub(query % 10).getIataCode() : generator.spoke(query).getIataCode();
+        String destination = query % 4 == 2 ? generator.hub((query + 3) % 10).getIataCode() : generator.spoke(50 + query).getIataCode();
+        return new RouteRequest(origin, destination, DAY, MAX_LEGS);
+    }
+
+    private static void assertValidPath(String engine, RouteRequest request, List<Flight> path) {
+        String label = engine + " " + request.origin() + " -> " + request.destination() + ": " + ids(List.of(path).stream());
+        assertFalse(path.isEmpty(), label);
+        assertEquals(request.origin(), path.get(0).getOrigin().getIataCode(), label);
+        assertEquals(request.destination(), path.get(path.size() - 1).getDestination().getIataCode(), label);
+        assertEquals(request.date(), path.get(0).getDeparture().toLocalDate(), label);
+        if (!"csa".equals(engine)) {
+            assertTrue(path.size() <= request.maxLegs(), label);
+        }
+        for (int leg = 1; leg < path.size(); leg++) {
+            Flight previous = path.get(leg - 1);
+            Flight next = path.get(leg);
+            assertEquals(previous.getDestination().getIataCode(), next.getOrigin().getIataCode(), label);
+            assertFalse(next.getDeparture().isBefore(previous.getArrival()), label);
+        }
+    }
+
+    // The DFS also reports paths that come back through an airport it has already visited
+    private static boolean isSimplePath(List<Flight> path) {
+        Set<String> airports = new HashSet<>();
+        airports.add(path.get(0).getOrigin().getIataCode());
+        for (Flight flight : path) {
+            if (!airports.add(flight.getDestination().getIataCode())) return false;
+        }
+        return path.size() <= MAX_LEGS;
+    }
+
+    // Layovers of more than 30 minutes and less than 6 hours, every leg on the first leg's day
+    private static boolean hasValidLayovers(List<Flight> path) {
+        LocalDate day = path.get(0).getDeparture().toLocalDate();
+        for (int leg = 1; leg < path.size(); leg++) {
+            long layover = Duration.between(path.get(leg - 1).getArrival(), path.get(leg).getDeparture()).toMinutes();
+            if (layover <= 30 || layover >= 6 * 60 || !path.get(leg).getDeparture().toLocalDate().equals(day)) return false;
+        }
+        return true;
+    }
+
+    // Reference check on the Flight objects, independent of ConstraintFilter
+    private static boolean satisfies(List<Flight> path, SearchConstraints constraints) {
+        LocalDateTime midnight = path.get(0).getDeparture().toLocalDate().atStartOfDay();
+        LocalTime departure = path.get(0).getDeparture().toLocalTime();
+        if (constraints.maxStops() != null && path.size() - 1 > constraints.maxStops()) return false;
+        if (constraints.departAfter() != null && departure.isBefore(constraints.departAfter())) return false;
+        if (constraints.departBefore() != null && departure.isAfter(constraints.departBefore())) return false;
+        LocalDateTime arrival = arrival(path);
+        if (constraints.arriveAfter() != null && arrival.isBefore(midnight.with(constraints.arriveAfter()))) return false;
+        if (constraints.arriveBefore() != null && arrival.isAfter(midnight.with(constraints.arriveBefore()))) return false;
+        for (int leg = 0; leg < path.size(); leg++) {
+            String airline = path.get(leg).getAirline().getCode();
+            if (!constraints.includedAirlines().isEmpty() && !constraints.includedAirlines().contains(airline)) return false;
+            if (constraints.excludedAirlines().contains(airline)) return false;
+            if (leg == 0) continue;
+            long layover = Duration.between(path.get(leg - 1).getArrival(), path.get(leg).getDeparture()).toMinutes();
+            if (constraints.minConnectionMinutes() != null && layover < constraints.minConnectionMinutes()) return false;
+            if (constraints.maxConnectionMinutes() != null && layover > constraints.maxConnectionMinutes()) return false;
+        }
+        return true;
+    }
+
+    // Flight ids of each path; the DFS reports direct flights twice, so compare as sets
+    private static Set<String> ids(java.util.stream.Stream<List<Flight>> paths) {
+        return paths.map(path -> path.stream().map(Flight::getId).collect(Collectors.joining(",")))
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static LocalDateTime arrival(List<Flight> path) {
+        return path.get(path.size() - 1).getArrival();
+    }
+
+    private static boolean strictlyDominates(List<Flight> a, List<Flight> b) {
+        return dominates(a, b) && !dominates(b, a);
+    }
+
+    private static boolean dominates(List<Flight> a, List<Flight> b) {
+        Itinerary x = itinerary(a);
+        Itinerary y = itinerary(b);
+        return !arrival(a).isAfter(arrival(b))
+                && x.getTotalPrice() <= y.getTotalPrice()
+                && x.getTotalDuration() <= y.getTotalDuration()
+                && a.size() <= b.size();
+    }
+
+    private static String criteria(List<Flight> path) {
+        Itinerary itinerary = itinerary(path);
+        return arrival(path) + "|" + itinerary.getTotalPrice() + "|" + itinerary.getTotalDuration() + "|" + path.size();
+    }
+
+    private static Itinerary itinerary(List<Flight> path) {
+        Itinerary itinerary = new Itinerary();
+        itinerary.setFlights(path);
+        itinerary.calculateTotals();
+        return itinerary;
+    }
+}
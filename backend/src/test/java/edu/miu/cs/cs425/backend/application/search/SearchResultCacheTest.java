@@ -0,0 +1,180 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.FlightSearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Hits, date-scoped invalidation on write, the generation check that keeps results computed from an
+// outdated schedule out of the cache, and coalesced callers whose leader gave up
+class SearchResultCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+
+    private SearchResultCache cache;
+    private AtomicInteger searches;
+
+    @BeforeEach
+    void createCache() {
+        cache = new SearchResultCache(new SearchRequestCoalescer());
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        searches = new AtomicInteger();
+    }
+
+    @Test
+    void equalQueriesShareAnEntry() {
+        assertEquals(SearchResultCache.key("route", "JFK", "LAX", DAY), SearchResultCache.key("route", "JFK", "LAX", DAY));
+        FlightSearchResult first = cache.get(SearchResultCache.key("route", "JFK"), SearchResultCache.dates(DAY), search());
+        assertSame(first, cache.get(SearchResultCache.key("route", "JFK"), SearchResultCache.dates(DAY), search()));
+        assertEquals(1, searches.get());
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    void queriesThatOnlyDifferInCaseOrSpacingDoNotShareAnEntry() {
+        // The searches match codes exactly, so "jfk" finds nothing that "JFK" would
+        assertNotEquals(SearchResultCache.key("route", "jfk", DAY), SearchResultCache.key("route", "JFK", DAY));
+        assertNotEquals(SearchResultCache.key("route", " JFK", DAY), SearchResultCache.key("route", "JFK", DAY));
+        FlightSearchResult lowerCase = cache.get(SearchResultCache.key("route", "jfk"), SearchResultCache.dates(DAY), search());
+        assertNotSame(lowerCase, cache.get(SearchResultCache.key("route", "JFK"), SearchResultCache.dates(DAY), search()));
+        assertEquals(2, searches.get());
+        assertEquals(0, cache.hits());
+    }
+
+    @Test
+    void aWriteOnlyEvictsEntriesForItsDates() {
+        cache.get("today", SearchResultCache.dates(DAY), search());
+        cache.get("tomorrow", SearchResultCache.dates(DAY.plusDays(1)), search());
+        cache.get("round trip", SearchResultCache.dates(DAY.plusDays(1), DAY.plusDays(3)), search());
+        cache.get("any day", null, search());
+        assertEquals(4, cache.size());
+
+        cache.invalidate(DAY.plusDays(3));
+        // The other day's entry survives; the undated entry may contain any flight
+        assertEquals(2, cache.size());
+        cache.get("today", SearchResultCache.dates(DAY), search());
+        cache.get("tomorrow", SearchResultCache.dates(DAY.plusDays(1)), search());
+        assertEquals(4, searches.get());
+        cache.get("round trip", SearchResultCache.dates(DAY.plusDays(1), DAY.plusDays(3)), search());
+        cache.get("any day", null, search());
+        assertEquals(6, searches.get());
+    }
+
+    @Test
+    void anAirportWriteEvictsEverything() {
+        cache.get("today", SearchResultCache.dates(DAY), search());
+        cache.get("any day", null, search());
+        long generation = cache.generation();
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        cache.get("today", SearchResultCache.dates(DAY), generation, search());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void aResultFromBeforeAWriteIsReturnedButNotStored() {
+        // The caller read the generation and then its snapshot; a write lands before the search finishes
+        long generation = cache.generation();
+        cache.invalidate(LocalDate.of(2030, 1, 1));
+        FlightSearchResult outdated = cache.get("route", SearchResultCache.dates(DAY), generation, search());
+        assertNotNull(outdated);
+        assertEquals(0, cache.size());
+
+        // A write during the search itself is caught the same way
+        cache.get("route", SearchResultCache.dates(DAY), () -> {
+            cache.invalidate(LocalDate.of(2030, 1, 1));
+            return search().get();
+        });
+        assertEquals(0, cache.size());
+
+        cache.get("route", SearchResultCache.dates(DAY), cache.generation(), search());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void partialResultsAreNotStored() {
+        FlightSearchResult partial = cache.get("route", SearchResultCache.dates(DAY), () -> {
+            FlightSearchResult result = search().get();
+            result.setPartial(true);
+            return result;
+        });
+        assertTrue(partial.isPartial());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void aCallerDoesNotTakeTheResultOfASearchItsLeaderCancelled() throws Exception {
+        SearchRequestCoalescer coalescer = new SearchRequestCoalescer();
+        cache = new SearchResultCache(coalescer);
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        long generation = cache.generation();
+
+        // The first caller's search runs until its budget is cancelled
+        SearchBudget leaderBudget = SearchBudget.unlimited();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CompletableFuture<FlightSearchResult> leader = CompletableFuture.supplyAsync(() ->
+                cache.get("route", SearchResultCache.dates(DAY), generation, leaderBudget, () -> {
+                    searches.incrementAndGet();
+                    leaderStarted.countDown();
+                    while (leaderBudget.spend()) Thread.onSpinWait();
+                    FlightSearchResult result = new FlightSearchResult();
+                    result.setPartial(leaderBudget.isExhausted());
+                    return result;
+                }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        // A second caller with the same query joins it
+        SearchBudget followerBudget = SearchBudget.unlimited();
+        CompletableFuture<FlightSearchResult> follower = CompletableFuture.supplyAsync(() ->
+                cache.get("route", SearchResultCache.dates(DAY), generation, followerBudget, () -> {
+                    searches.incrementAndGet();
+                    FlightSearchResult result = new FlightSearchResult();
+                    result.setPartial(followerBudget.isExhausted());
+                    return result;
+                }));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescer.collapsed() == 0 && System.nanoTime() < deadline) Thread.sleep(1);
+        assertEquals(1, coalescer.collapsed());
+
+        leaderBudget.cancel();
+        assertTrue(leader.get(5, TimeUnit.SECONDS).isPartial());
+        // The second caller searched again and got a complete result, which is stored
+        assertFalse(follower.get(5, TimeUnit.SECONDS).isPartial());
+        assertEquals(2, searches.get());
+        assertEquals(1, cache.size());
+        assertFalse(cache.get("route", SearchResultCache.dates(DAY), search()).isPartial());
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesGoFirst() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        cache.get("a", null, search());
+        cache.get("b", null, search());
+        cache.get("a", null, search());
+        cache.get("c", null, search());
+        assertEquals(2, cache.size());
+        cache.get("a", null, search());
+        assertEquals(3, searches.get());
+        cache.get("b", null, search());
+        assertEquals(4, searches.get());
+    }
+
+    private Supplier<FlightSearchResult> search() {
+        return () -> {
+            searches.incrementAndGet();
+            return new FlightSearchResult();
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import edu.miu.cs.cs425.backend.domain.entity.FlightSearchResult;
+import edu.miu.cs.cs425.backend.domain.entity.Itinerary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Paging through a stored result, resuming after the stored result is gone, and cursors that do not
+// belong to the search they are sent with
+class SearchResultPagerTest {
+
+    private static final String QUERY = SearchResultCache.key("route", "JFK", "LAX");
+
+    private SearchResultPager pager;
+
+    @BeforeEach
+    void createPager() {
+        pager = new SearchResultPager();
+        ReflectionTestUtils.setField(pager, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(pager, "maxStoredResults", 100);
+    }
+
+    @Test
+    void pagesCoverTheResultOnce() {
+        // Prices with ties across page boundaries
+        List<Itinerary> itineraries = itineraries(100, 100, 100, 120, 150, 150, 150, 150, 200, 210);
+        List<Itinerary> served = servePages(null, 3, 1, () -> result(itineraries));
+        assertEquals(itineraries, served);
+    }
+
+    @Test
+    void afterEvictionTheNextPageResumesAfterTheLastItemServed() {
+        List<Itinerary> before = itineraries(100, 100, 100, 120, 150, 150, 150, 150, 200, 210);
+        FlightSearchResult first = pager.page(null, 4, QUERY, 1, SearchResultPager.BY_PRICE, () -> result(before));
+        assertEquals(before.subList(0, 4), first.getOneWayItineraries());
+
+        // The stored result expires and the schedule changes: a cheaper itinerary appears before the last
+        // price served, so a plain offset would serve the 120 itinerary again
+        ReflectionTestUtils.setField(pager, "ttlSeconds", -1L);
+        List<Itinerary> after = new ArrayList<>(before);
+        after.add(0, itinerary(90));
+        List<Itinerary> rest = servePages(first.getNextCursor(), 4, 2, () -> result(after));
+        assertEquals(before.subList(4, before.size()), rest);
+
+        // On an unchanged schedule the offset is reused as is
+        ReflectionTestUtils.setField(pager, "ttlSeconds", 300L);
+        first = pager.page(null, 4, QUERY, 1, SearchResultPager.BY_PRICE, () -> result(before));
+        ReflectionTestUtils.setField(pager, "ttlSeconds", -1L);
+        assertEquals(before.subList(4, before.size()), servePages(first.getNextCursor(), 4, 1, () -> result(before)));
+    }
+
+    @Test
+    void aCursorOnlyContinuesItsOwnSearch() {
+        List<Itinerary> itineraries = itineraries(100, 120, 150, 200);
+        String cursor = pager.page(null, 2, QUERY, 1, SearchResultPager.BY_PRICE, () -> result(itineraries)).getNextCursor();
+        assertNotNull(cursor);
+
+        assertThrows(IllegalArgumentException.class, () -> pager.page(cursor, 2, SearchResultCache.key("route", "JFK", "SFO"),
+                1, SearchResultPager.BY_PRICE, () -> result(itineraries)));
+        assertThrows(IllegalArgumentException.class, () -> pager.page(cursor, 2, QUERY, 1, SearchResultPager.BY_DURATION,
+                () -> result(itineraries)));
+        assertThrows(IllegalArgumentException.class, () -> pager.page(cursor, 2, SearchResultCache.key("route", "jfk", "lax"),
+                1, SearchResultPager.BY_PRICE, () -> result(itineraries)));
+        // The same query again
+        FlightSearchResult next = pager.page(cursor, 2, SearchResultCache.key("route", "JFK", "LAX"), 1,
+                SearchResultPager.BY_PRICE, () -> result(itineraries));
+        assertEquals(itineraries.subList(2, 4), next.getOneWayItineraries());
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String hash = "AAAAAAAAAAAAAAAA";
+        for (String raw : List.of(
+                "v2|id|" + hash + "|-1|1|price|100.0|0|2",
+                "v2|id|" + hash + "|2|1|price|100.0|-1|2",
+                "v2|id|" + hash + "|2|1|price|100.0|0|-2",
+                "v2|id|" + hash + "|2|1|price|100.0|0|0",
+                "v2|id|" + hash + "|x|1|price|100.0|0|2",
+                "v1|id|2|1|price|100.0|0|2")) {
+            String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+            assertThrows(IllegalArgumentException.class,
+                    () -> pager.page(cursor, null, QUERY, 1, SearchResultPager.BY_PRICE, () -> result(itineraries(100))), raw);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> pager.page("not a cursor", null, QUERY, 1, SearchResultPager.BY_PRICE, () -> result(itineraries(100))));
+    }
+
+    private List<Itinerary> servePages(String cursor, int pageSize, long version, Supplier<FlightSearchResult> search) {
+        List<Itinerary> served = new ArrayList<>();
+        do {
+            FlightSearchResult page = pager.page(cursor, pageSize, QUERY, version, SearchResultPager.BY_PRICE, search);
+            assertTrue(page.getOneWayItineraries().size() <= pageSize);
+            served.addAll(page.getOneWayItineraries());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return served;
+    }
+
+    private static FlightSearchResult result(List<Itinerary> itineraries) {
+        return new FlightSearchResult(new ArrayList<>(itineraries), null);
+    }
+
+    private static List<Itinerary> itineraries(double... prices) {
+        List<Itinerary> itineraries = new ArrayList<>();
+        for (double price : prices) {
+            itineraries.add(itinerary(price));
+        }
+        return itineraries;
+    }
+
+    private static Itinerary itinerary(double price) {
+        return new Itinerary(Collections.emptyList(), price, 60);
+    }
+}
@@ -0,0 +1,71 @@
+package edu.miu.cs.cs425.backend.application.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The collector must return what a stable sort of every candidate, cut to the limit, returns
+class TopKCollectorTest {
+
+    @Test
+    void keepsTheSmallestKeysInStableOrder() {
+        Random random = new Random(17);
+        for (int limit : new int[]{1, 2, 5, 16, 17, 100, 1000}) {
+            // Few distinct keys, so most candidates tie
+            List<double[]> candidates = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                candidates.add(new double[]{random.nextInt(20), i});
+            }
+
+            TopKCollector<double[]> collector = new TopKCollector<>(limit);
+            for (double[] candidate : candidates) {
+                collector.offer(candidate[0], candidate);
+            }
+            List<double[]> expected = candidates.stream()
+                    .sorted(Comparator.comparingDouble(candidate -> candidate[0]))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+
+            assertEquals(expected.size(), collector.size(), "limit " + limit);
+            assertEquals(expected, collector.toSortedList(), "limit " + limit);
+            assertEquals(0, collector.size(), "limit " + limit);
+        }
+    }
+
+    @Test
+    void acceptsOnlyWhatCanStillMakeTheTop() {
+        TopKCollector<String> collector = new TopKCollector<>(2);
+        assertTrue(collector.accepts(50));
+        collector.offer(50, "a");
+        collector.offer(30, "b");
+        // Full: a tie with the worst kept key arrived later, so it cannot displace it
+        assertFalse(collector.accepts(50));
+        assertFalse(collector.accepts(60));
+        assertTrue(collector.accepts(40));
+        collector.offer(50, "c");
+        collector.offer(10, "d");
+        assertEquals(List.of("d", "b"), collector.toSortedList());
+    }
+
+    @Test
+    void noLimitKeepsEveryCandidate() {
+        for (Integer limit : new Integer[]{null, 0, -1}) {
+            TopKCollector<Integer> collector = new TopKCollector<>(limit);
+            for (int i = 0; i < 100; i++) {
+                assertTrue(collector.accepts(100 - i));
+                collector.offer(100 - i, i);
+            }
+            List<Integer> sorted = collector.toSortedList();
+            assertEquals(100, sorted.size());
+            for (int i = 0; i < sorted.size(); i++) {
+                assertEquals(99 - i, sorted.get(i).intValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package edu.miu.cs.cs425.backend.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.miu.cs.cs425.backend.application.search.DepthFirstRouteSearch;
+import edu.miu.cs.cs425.backend.application.search.FlightNetworkSnapshot;
+import edu.miu.cs.cs425.backend.application.search.ScheduleGenerator;
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import edu.miu.cs.cs425.backend.domain.entity.FlightSearchResult;
+import edu.miu.cs.cs425.backend.domain.entity.RoundTripItinerary;
+import edu.miu.cs.cs425.backend.dto.CompactSearchResult;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Encodes realistic responses as JSON and as Smile and decodes the Smile: the full flight list, a round-trip
+// search result, and its compact form
+class SmileWireFormatBenchmarkTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+    private static final int MAX_ROUND_TRIPS = 2000;
+
+    private static List<Flight> flights;
+    private static FlightSearchResult result;
+    private static ObjectMapper json;
+    private static ObjectMapper smile;
+
+    @BeforeAll
+    static void generateResponses() {
+        // 500 airports, 20 hubs, outbound on DAY and return the day after
+        ScheduleGenerator generator = new ScheduleGenerator(42, 500, 20, 8);
+        flights = new ArrayList<>(generator.generateDay(DAY, 3, 6, 4));
+        flights.addAll(generator.generateDay(DAY.plusDays(1), 3, 6, 4));
+        FlightNetworkSnapshot network = FlightNetworkSnapshot.build(flights, 1);
+
+        DepthFirstRouteSearch search = new DepthFirstRouteSearch();
+        String origin = generator.hub(0).getIataCode();
+        String destination = generator.hub(1).getIataCode();
+        List<RoundTripItinerary> roundTrips = new ArrayList<>();
+        for (List<Flight> out : search.findPaths(network, DAY, origin, destination, 3)) {
+            for (List<Flight> back : search.findPaths(network, DAY.plusDays(1), destination, origin, 3)) {
+                if (roundTrips.size() == MAX_ROUND_TRIPS) break;
+                RoundTripItinerary roundTrip = new RoundTripItinerary();
+                roundTrip.setOutboundFlights(out);
+                roundTrip.setReturnFlights(back);
+                roundTrip.calculateTotals();
+                roundTrips.add(roundTrip);
+            }
+        }
+        result = new FlightSearchResult(null, roundTrips);
+
+        json = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        smile = SmileConfig.objectMapper();
+    }
+
+    @Test
+    void smileDecodesToTheSameFlights() throws Exception {
+        List<Flight> decoded = smile.readValue(smile.writeValueAsBytes(flights), new TypeReference<List<Flight>>() {});
+        assertEquals(flights.size(), decoded.size());
+        for (int i = 0; i < flights.size(); i++) {
+            assertEquals(flights.get(i).getId(), decoded.get(i).getId());
+            assertEquals(flights.get(i).getDeparture(), decoded.get(i).getDeparture());
+            assertEquals(flights.get(i).getOrigin().getIataCode(), decoded.get(i).getOrigin().getIataCode());
+            assertEquals(flights.get(i).getAirline().getCode(), decoded.get(i).getAirline().getCode());
+        }
+
+        // Times that are not on a whole minute are kept exactly
+        LocalDateTime bookedAt = LocalDateTime.of(2025, 3, 12, 9, 41, 27, 5000);
+        assertEquals(bookedAt, smile.readValue(smile.writeValueAsBytes(bookedAt), LocalDateTime.class));
+    }
+
+    @Test
+    void smileIsSmallerThanJsonForRealisticResponses() throws Exception {
+        assertSmaller("flights", flights);
+        assertSmaller("round trips", result);
+        assertSmaller("compact round trips", CompactSearchResult.from(result));
+    }
+
+    private static void assertSmaller(String name, Object value) throws Exception {
+        assertTrue(smile.writeValueAsBytes(value).length < json.writeValueAsBytes(value).length, name + " should be smaller as Smile");
+    }
+}
@@ -0,0 +1,197 @@
+package edu.miu.cs.cs425.backend.data.repository;
+
+import edu.miu.cs.cs425.backend.domain.entity.Airline;
+import edu.miu.cs.cs425.backend.domain.entity.Airport;
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import edu.miu.cs.cs425.backend.dto.AirlineScheduleFlight;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Counts the SQL statements the search loads issue on H2. Run against MySQL by pointing
+// spring.datasource at it and disabling the embedded test database.
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class FlightRepositoryQueryCountTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 12, 0, 0);
+    private static final String[] AIRPORTS = {"JFK", "YYZ", "LHR", "CDG", "ORD", "LAX"};
+    private static final String[] AIRLINES = {"AIR001", "AIR002", "AIR003"};
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void populate() {
+        for (String code : AIRPORTS) {
+            Airport airport = new Airport();
+            airport.setIataCode(code);
+            airport.setName(code);
+            entityManager.persist(airport);
+        }
+        for (String code : AIRLINES) {
+            Airline airline = new Airline();
+            airline.setCode(code);
+            airline.setName(code);
+            entityManager.persist(airline);
+        }
+        // Two days of flights between every pair of airports
+        int id = 0;
+        for (int day = 0; day < 2; day++) {
+            for (String origin : AIRPORTS) {
+                for (String destination : AIRPORTS) {
+                    if (origin.equals(destination)) continue;
+                    Flight flight = new Flight();
+                    flight.setId("F" + id);
+                    flight.setFlightNumber("FL" + id);
+                    flight.setOrigin(entityManager.find(Airport.class, origin));
+                    flight.setDestination(entityManager.find(Airport.class, destination));
+                    flight.setAirline(entityManager.find(Airline.class, AIRLINES[id % AIRLINES.length]));
+                    flight.setDeparture(DAY.plusDays(day).plusMinutes(10L * id));
+                    // Few distinct durations, so the duration order has ties for the id to break
+                    flight.setDuration(60 + 15 * (id % 4));
+                    flight.setArrival(flight.getDeparture().plusMinutes(flight.getDuration()));
+                    flight.setPrice(100 + id);
+                    entityManager.persist(flight);
+                    id++;
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void allFlightsLoadWithTheirRoutesInOneStatement() {
+        List<Flight> flights = flightRepository.findAllWithRoute();
+        touchAssociations(flights);
+
+        assertEquals(60, flights.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void plainFindAllNeedsExtraStatementsForAirportsAndAirlines() {
+        List<Flight> flights = flightRepository.findAll();
+        touchAssociations(flights);
+
+        assertEquals(60, flights.size());
+        assertTrue(statistics.getPrepareStatementCount() > 1, "findAll() resolves each association separately");
+    }
+
+    @Test
+    void airlineScheduleLoadsWithItsRoutesInOneStatement() {
+        List<Flight> flights = flightRepository.findByAirlineWithRoute("AIR001");
+        touchAssociations(flights);
+
+        assertEquals(20, flights.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void airlineSchedulePagesFollowTheKeyWithOneStatementEach() {
+        List<AirlineScheduleFlight> served = new ArrayList<>();
+        double afterPrice = -Double.MAX_VALUE;
+        String afterId = "";
+        List<AirlineScheduleFlight> page;
+        do {
+            page = flightRepository.findAirlineScheduleByPrice("AIR001", DAY, DAY.plusDays(2), afterPrice, afterId,
+                    PageRequest.ofSize(6));
+            served.addAll(page);
+            if (!page.isEmpty()) {
+                afterPrice = page.get(page.size() - 1).price();
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == 6);
+
+        assertEquals(20, served.size());
+        List<AirlineScheduleFlight> sorted = new ArrayList<>(served);
+        sorted.sort(Comparator.comparingDouble(AirlineScheduleFlight::price).thenComparing(AirlineScheduleFlight::id));
+        assertEquals(sorted, served);
+        // Four pages, no airport or airline loads
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void airlineSchedulePagesByDurationAndDepartureStayInTheirWindow() {
+        // AIR001 flies every third flight, ten of them on the first day
+        LocalDateTime from = DAY;
+        LocalDateTime to = DAY.plusDays(1);
+        List<Flight> window = flightRepository.findByAirlineWithRoute("AIR001").stream()
+                .filter(f -> !f.getDeparture().isBefore(from) && f.getDeparture().isBefore(to))
+                .toList();
+        statistics.clear();
+
+        List<AirlineScheduleFlight> byDuration = new ArrayList<>();
+        int afterDuration = Integer.MIN_VALUE;
+        String afterId = "";
+        List<AirlineScheduleFlight> page;
+        do {
+            page = flightRepository.findAirlineScheduleByDuration("AIR001", from, to, afterDuration, afterId,
+                    PageRequest.ofSize(4));
+            byDuration.addAll(page);
+            if (!page.isEmpty()) {
+                afterDuration = page.get(page.size() - 1).duration();
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == 4);
+        assertEquals(window.stream()
+                .sorted(Comparator.comparingInt(Flight::getDuration).thenComparing(Flight::getId))
+                .map(Flight::getId).toList(), byDuration.stream().map(AirlineScheduleFlight::id).toList());
+
+        List<AirlineScheduleFlight> byDeparture = new ArrayList<>();
+        LocalDateTime afterDeparture = from;
+        afterId = "";
+        do {
+            page = flightRepository.findAirlineScheduleByDeparture("AIR001", from, to, afterDeparture, afterId,
+                    PageRequest.ofSize(4));
+            byDeparture.addAll(page);
+            if (!page.isEmpty()) {
+                afterDeparture = page.get(page.size() - 1).departure();
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == 4);
+        assertEquals(window.stream()
+                .sorted(Comparator.comparing(Flight::getDeparture).thenComparing(Flight::getId))
+                .map(Flight::getId).toList(), byDeparture.stream().map(AirlineScheduleFlight::id).toList());
+
+        assertEquals(10, window.size());
+        // Three pages per order
+        assertEquals(6, statistics.getPrepareStatementCount());
+    }
+
+    private static void touchAssociations(List<Flight> flights) {
+        for (Flight flight : flights) {
+            flight.getOrigin().getName();
+            flight.getDestination().getName();
+            flight.getAirline().getName();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package edu.miu.cs.cs425.backend.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.miu.cs.cs425.backend.application.search.DepthFirstRouteSearch;
+import edu.miu.cs.cs425.backend.application.search.FlightNetworkSnapshot;
+import edu.miu.cs.cs425.backend.application.search.ScheduleGenerator;
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import edu.miu.cs.cs425.backend.domain.entity.FlightSearchResult;
+import edu.miu.cs.cs425.backend.domain.entity.RoundTripItinerary;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Serializes the same round-trip search result in the full and the compact shape, and decodes the compact one
+class CompactSearchResultBenchmarkTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+    private static final int MAX_ROUND_TRIPS = 2000;
+
+    private static FlightSearchResult result;
+    private static ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void searchRoundTrips() {
+        // 500 airports, 20 hubs, outbound on DAY and return the day after
+        ScheduleGenerator generator = new ScheduleGenerator(42, 500, 20, 8);
+        List<Flight> flights = new ArrayList<>(generator.generateDay(DAY, 3, 6, 4));
+        flights.addAll(generator.generateDay(DAY.plusDays(1), 3, 6, 4));
+        FlightNetworkSnapshot network = FlightNetworkSnapshot.build(flights, 1);
+
+        DepthFirstRouteSearch search = new DepthFirstRouteSearch();
+        String origin = generator.hub(0).getIataCode();
+        String destination = generator.hub(1).getIataCode();
+        List<List<Flight>> outbound = search.findPaths(network, DAY, origin, destination, 3);
+        List<List<Flight>> inbound = search.findPaths(network, DAY.plusDays(1), destination, origin, 3);
+
+        List<RoundTripItinerary> roundTrips = new ArrayList<>();
+        for (List<Flight> out : outbound) {
+            for (List<Flight> back : inbound) {
+                if (roundTrips.size() == MAX_ROUND_TRIPS) break;
+                RoundTripItinerary roundTrip = new RoundTripItinerary();
+                roundTrip.setOutboundFlights(out);
+                roundTrip.setReturnFlights(back);
+                roundTrip.calculateTotals();
+                roundTrips.add(roundTrip);
+            }
+        }
+        result = new FlightSearchResult(null, roundTrips);
+        objectMapper = new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Test
+    void compactResultReferencesTheSameFlights() {
+        CompactSearchResult compact = CompactSearchResult.from(result);
+        assertEquals(result.getRoundTripItineraries().size(), compact.roundTripItineraries().size());
+        for (int i = 0; i < compact.roundTripItineraries().size(); i++) {
+            RoundTripItinerary full = result.getRoundTripItineraries().get(i);
+            CompactSearchResult.CompactRoundTrip roundTrip = compact.roundTripItineraries().get(i);
+            assertLegs(compact, full.getOutboundFlights(), roundTrip.outboundFlights());
+            assertLegs(compact, full.getReturnFlights(), roundTrip.returnFlights());
+            assertEquals(full.getTotalPrice(), roundTrip.totalPrice());
+        }
+    }
+
+    @Test
+    void compactResultIsSmallerAndDecodesToTheSameResult() throws Exception {
+        CompactSearchResult compact = CompactSearchResult.from(result);
+        byte[] full = objectMapper.writeValueAsBytes(result);
+        byte[] encoded = objectMapper.writeValueAsBytes(compact);
+        assertTrue(encoded.length * 10L < full.length, "Compact response should be an order of magnitude smaller");
+
+        CompactSearchResult decoded = objectMapper.readValue(encoded, CompactSearchResult.class);
+        assertEquals(compact.roundTripItineraries().size(), decoded.roundTripItineraries().size());
+        for (int i = 0; i < decoded.roundTripItineraries().size(); i++) {
+            RoundTripItinerary original = result.getRoundTripItineraries().get(i);
+            CompactSearchResult.CompactRoundTrip roundTrip = decoded.roundTripItineraries().get(i);
+            assertLegs(decoded, original.getOutboundFlights(), roundTrip.outboundFlights());
+            assertLegs(decoded, original.getReturnFlights(), roundTrip.returnFlights());
+            assertEquals(original.getTotalPrice(), roundTrip.totalPrice());
+        }
+        assertArrayEquals(encoded, objectMapper.writeValueAsBytes(decoded));
+    }
+
+    private static void assertLegs(CompactSearchResult compact, List<Flight> flights, int[] indexes) {
+        assertEquals(flights.size(), indexes.length);
+        for (int leg = 0; leg < indexes.length; leg++) {
+            CompactSearchResult.CompactFlight flight = compact.flights().get(indexes[leg]);
+            assertEquals(flights.get(leg).getId(), flight.id());
+            assertEquals(flights.get(leg).getOrigin().getIataCode(), compact.airports().get(flight.origin()).getIataCode());
+            assertEquals(flights.get(leg).getDestination().getIataCode(), compact.airports().get(flight.destination()).getIataCode());
+            assertEquals(flights.get(leg).getAirline().getCode(), compact.airlines().get(flight.airline()).getCode());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package edu.miu.cs.cs425.backend.presentation.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.miu.cs.cs425.backend.config.SmileConfig;
+import edu.miu.cs.cs425.backend.service.ReferenceDataVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A list is serialized once per collection version; its ETag follows the content, and each encoding and
+// format is a representation of its own
+class ReferenceResponseCacheTest {
+
+    private static final ReferenceDataVersions.Collection AIRPORTS = ReferenceDataVersions.Collection.AIRPORTS;
+
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules();
+    private ReferenceDataVersions versions;
+    private ReferenceResponseCache cache;
+    private List<Map<String, Object>> airports;
+    private AtomicInteger loads;
+    private Supplier<List<Map<String, Object>>> load;
+
+    @BeforeEach
+    void createCache() {
+        versions = new ReferenceDataVersions();
+        cache = new ReferenceResponseCache(json, versions);
+        airports = new ArrayList<>(List.of(Map.of("iataCode", "JFK", "name", "John F. Kennedy"),
+                Map.of("iataCode", "LHR", "name", "Heathrow")));
+        loads = new AtomicInteger();
+        load = () -> {
+            loads.incrementAndGet();
+            return airports;
+        };
+    }
+
+    @Test
+    void theETagStaysUntilTheCollectionChanges() throws IOException {
+        ResponseEntity<byte[]> first = cache.get(AIRPORTS, null, null, load);
+        ResponseEntity<byte[]> second = cache.get(AIRPORTS, MediaType.APPLICATION_JSON_VALUE, null, load);
+        assertEquals(1, loads.get());
+        assertNotNull(first.getHeaders().getETag());
+        assertEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, first.getHeaders().getContentType());
+        assertEquals(airports, json.readValue(first.getBody(), new TypeReference<List<Map<String, Object>>>() {}));
+
+        // Another collection's write leaves this one alone
+        versions.bump(ReferenceDataVersions.Collection.FLIGHTS);
+        assertEquals(first.getHeaders().getETag(), cache.get(AIRPORTS, null, null, load).getHeaders().getETag());
+        assertEquals(1, loads.get());
+
+        airports.add(Map.of("iataCode", "CDG", "name", "Charles de Gaulle"));
+        versions.bump(AIRPORTS);
+        ResponseEntity<byte[]> changed = cache.get(AIRPORTS, null, null, load);
+        assertEquals(2, loads.get());
+        assertNotEquals(first.getHeaders().getETag(), changed.getHeaders().getETag());
+        assertEquals(airports, json.readValue(changed.getBody(), new TypeReference<List<Map<String, Object>>>() {}));
+
+        // Same content under a new version, same ETag
+        versions.bump(AIRPORTS);
+        assertEquals(changed.getHeaders().getETag(), cache.get(AIRPORTS, null, null, load).getHeaders().getETag());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void gzipIsServedOnlyWhenAccepted() throws IOException {
+        ResponseEntity<byte[]> identity = cache.get(AIRPORTS, null, null, load);
+        String etag = identity.getHeaders().getETag();
+        assertNull(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        for (String acceptEncoding : new String[]{"gzip", "deflate, gzip;q=0.5", "*", "GZIP"}) {
+            ResponseEntity<byte[]> gzipped = cache.get(AIRPORTS, null, acceptEncoding, load);
+            assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), acceptEncoding);
+            assertEquals(etag.substring(0, etag.length() - 1) + "-gzip\"", gzipped.getHeaders().getETag(), acceptEncoding);
+            assertArrayEquals(identity.getBody(), gunzip(gzipped.getBody()), acceptEncoding);
+        }
+        for (String acceptEncoding : new String[]{"gzip;q=0", "gzip; q=0.0", "br", "identity", ""}) {
+            ResponseEntity<byte[]> response = cache.get(AIRPORTS, null, acceptEncoding, load);
+            assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), acceptEncoding);
+            assertEquals(etag, response.getHeaders().getETag(), acceptEncoding);
+            assertArrayEquals(identity.getBody(), response.getBody(), acceptEncoding);
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void smileIsCachedApartFromJson() throws IOException {
+        ResponseEntity<byte[]> asJson = cache.get(AIRPORTS, null, null, load);
+        ResponseEntity<byte[]> asSmile = cache.get(AIRPORTS, SmileConfig.SMILE_VALUE + ", application/json;q=0.5", null, load);
+
+        assertEquals(SmileConfig.SMILE, asSmile.getHeaders().getContentType());
+        assertNotEquals(asJson.getHeaders().getETag(), asSmile.getHeaders().getETag());
+        assertEquals(airports, SmileConfig.objectMapper().readValue(asSmile.getBody(),
+                new TypeReference<List<Map<String, Object>>>() {}));
+        assertEquals(asSmile.getHeaders().getETag(), cache.get(AIRPORTS, SmileConfig.SMILE_VALUE, null, load).getHeaders().getETag());
+        // One load per format
+        assertEquals(2, loads.get());
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package edu.miu.cs.cs425.backend.service;
+
+import edu.miu.cs.cs425.backend.application.query.FlightRouteSearchQuery;
+import edu.miu.cs.cs425.backend.application.query.MultiCitySearchQuery;
+import edu.miu.cs.cs425.backend.application.search.*;
+import edu.miu.cs.cs425.backend.domain.entity.Flight;
+import edu.miu.cs.cs425.backend.domain.entity.Itinerary;
+import edu.miu.cs.cs425.backend.domain.entity.MultiCityItinerary;
+import edu.miu.cs.cs425.backend.dto.BatchSearchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A failing batch entry fails only itself, and multi-city segments chain like a brute-force walk of every combination
+class FlightServiceSearchTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+
+    private ScheduleGenerator generator;
+    private FlightNetworkSnapshot network;
+    private FlightService flightService;
+
+    @BeforeEach
+    void buildService() {
+        // 40 airports, 5 hubs, over two days
+        generator = new ScheduleGenerator(41, 40, 5, 4);
+        List<Flight> flights = new ArrayList<>(generator.generateDay(DAY, 2, 3, 3));
+        flights.addAll(generator.generateDay(DAY.plusDays(1), 2, 3, 3));
+        network = FlightNetworkSnapshot.build(flights, 1);
+        flightService = serviceFor(network);
+    }
+
+    // A service with empty caches over the given schedule
+    private static FlightService serviceFor(FlightNetworkSnapshot network) {
+        // The index serves the generated schedule instead of loading it from the database
+        FlightNetworkIndex index = new FlightNetworkIndex(null) {
+            @Override
+            public FlightNetworkSnapshot snapshot() {
+                return network;
+            }
+        };
+        DepthFirstRouteSearch dfs = new DepthFirstRouteSearch();
+        ConnectionScanSearch csa = new ConnectionScanSearch();
+        ReflectionTestUtils.setField(csa, "minConnectionMinutes", 30);
+        SearchEngineRegistry registry = new SearchEngineRegistry(List.of(dfs, csa));
+        ReflectionTestUtils.setField(registry, "defaultEngine", "dfs");
+        SearchRequestCoalescer coalescer = new SearchRequestCoalescer();
+        SearchResultCache cache = new SearchResultCache(coalescer);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        SearchResultPager pager = new SearchResultPager();
+        ReflectionTestUtils.setField(pager, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(pager, "maxStoredResults", 1000);
+        FareCalendar fareCalendar = new FareCalendar();
+        ReflectionTestUtils.setField(fareCalendar, "maxCachedRoutes", 16);
+        // No deadline or expansion cap, so no result is partial
+        SearchBudgetFactory budgets = new SearchBudgetFactory();
+
+        return new FlightService(null, index, dfs, csa, pager, cache, new ConnectionTable(), fareCalendar,
+                registry, coalescer, budgets, new ReferenceDataVersions());
+    }
+
+    @Test
+    void aFailingBatchEntryOnlyFailsItself() {
+        FlightRouteSearchQuery hubToSpoke = routeQuery(generator.hub(0).getIataCode(), generator.spoke(3).getIataCode());
+        FlightRouteSearchQuery unknownEngine = routeQuery(generator.hub(1).getIataCode(), generator.spoke(4).getIataCode());
+        unknownEngine.setEngine("no-such-engine");
+        FlightRouteSearchQuery returnsEarly = routeQuery(generator.hub(0).getIataCode(), generator.spoke(5).getIataCode());
+        returnsEarly.setEndDate(DAY.minusDays(1));
+        // Same date and origin as the first query, so it runs in the group that has the failure
+        FlightRouteSearchQuery sameGroup = routeQuery(generator.hub(0).getIataCode(), generator.spoke(3).getIataCode());
+        sameGroup.setFilter("fastest");
+        sameGroup.setLimit(2);
+
+        List<FlightRouteSearchQuery> queries = Arrays.asList(hubToSpoke, unknownEngine, returnsEarly, sameGroup);
+        List<BatchSearchResult> results = flightService.findFlightsByRouteBatch(queries);
+
+        assertEquals(queries.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).index());
+        }
+        assertTrue(results.get(1).error().contains("no-such-engine"));
+        assertNull(results.get(1).result());
+        assertNotNull(results.get(2).error());
+        assertNull(results.get(2).result());
+
+        for (int i : new int[]{0, 3}) {
+            assertNull(results.get(i).error(), "query " + i);
+            List<String> batched = ids(results.get(i).result().getOneWayItineraries());
+            assertFalse(batched.isEmpty(), "query " + i);
+            assertEquals(ids(flightService.findFlightsByRoute(queries.get(i)).getOneWayItineraries()), batched, "query " + i);
+        }
+    }
+
+    @Test
+    void aLowerCaseQueryDoesNotCacheItsResultForTheCorrectOne() {
+        String origin = generator.hub(0).getIataCode();
+        String destination = generator.spoke(3).getIataCode();
+        FlightRouteSearchQuery lowerCase = routeQuery(origin.toLowerCase(), destination.toLowerCase());
+        lowerCase.setFilter("Cheapest");
+        assertTrue(flightService.findFlightsByRoute(lowerCase).getOneWayItineraries().isEmpty());
+
+        List<String> found = ids(flightService.findFlightsByRoute(routeQuery(origin, destination)).getOneWayItineraries());
+        assertFalse(found.isEmpty());
+        // What a service that never saw the lower-case query finds
+        assertEquals(ids(serviceFor(network).findFlightsByRoute(routeQuery(origin, destination)).getOneWayItineraries()), found);
+    }
+
+    @Test
+    void aBatchOutsideTheSizeLimitIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> flightService.findFlightsByRouteBatch(List.of()));
+        List<FlightRouteSearchQuery> tooMany = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            tooMany.add(routeQuery(generator.hub(0).getIataCode(), generator.spoke(3).getIataCode()));
+        }
+        assertThrows(IllegalArgumentException.class, () -> flightService.findFlightsByRouteBatch(tooMany));
+    }
+
+    @Test
+    void multiCityItinerariesMatchEveryChainedCombinationInDurationOrder() {
+        List<MultiCitySearchQuery.Segment> segments = List.of(
+                segment(generator.spoke(2).getIataCode(), generator.hub(1).getIataCode(), DAY),
+                segment(generator.hub(1).getIataCode(), generator.hub(3).getIataCode(), DAY),
+                segment(generator.hub(3).getIataCode(), generator.spoke(2).getIataCode(), DAY.plusDays(1)));
+        MultiCitySearchQuery query = new MultiCitySearchQuery();
+        query.setSegments(segments);
+        query.setFilter("fastest");
+
+        List<String> expected = chainedCombinations(segments);
+        List<MultiCityItinerary> itineraries = flightService.findMultiCityItineraries(query).getMultiCityItineraries();
+        assertEquals(expected, itineraries.stream().map(FlightServiceSearchTest::ids).collect(Collectors.toList()));
+
+        for (MultiCityItinerary itinerary : itineraries) {
+            List<Itinerary> legs = itinerary.getSegments();
+            for (int s = 1; s < legs.size(); s++) {
+                List<Flight> previous = legs.get(s - 1).getFlights();
+                assertTrue(legs.get(s).getFlights().get(0).getDeparture().isAfter(previous.get(previous.size() - 1).getArrival()));
+            }
+        }
+
+        query.setLimit(3);
+        assertEquals(expected.subList(0, Math.min(3, expected.size())), flightService.findMultiCityItineraries(query)
+                .getMultiCityItineraries().stream().map(FlightServiceSearchTest::ids).collect(Collectors.toList()));
+    }
+
+    @Test
+    void multiCityResultsStopAtTheDefaultLimitWithoutOne() {
+        // Out one day and back the next, so every pair of paths chains
+        List<MultiCitySearchQuery.Segment> segments = List.of(
+                segment(generator.hub(0).getIataCode(), generator.hub(2).getIataCode(), DAY),
+                segment(generator.hub(2).getIataCode(), generator.hub(0).getIataCode(), DAY.plusDays(1)));
+        MultiCitySearchQuery query = new MultiCitySearchQuery();
+        query.setSegments(segments);
+        query.setFilter("fastest");
+
+        List<String> expected = chainedCombinations(segments);
+        assertTrue(expected.size() > 100 && expected.size() <= 1000, "combinations: " + expected.size());
+        assertEquals(expected.subList(0, 100), flightService.findMultiCityItineraries(query)
+                .getMultiCityItineraries().stream().map(FlightServiceSearchTest::ids).collect(Collectors.toList()));
+        query.setLimit(1000);
+        assertEquals(expected, flightService.findMultiCityItineraries(query)
+                .getMultiCityItineraries().stream().map(FlightServiceSearchTest::ids).collect(Collectors.toList()));
+    }
+
+    @Test
+    void multiCityQueriesNeedTwoToSixCompleteSegments() {
+        MultiCitySearchQuery query = new MultiCitySearchQuery();
+        query.setSegments(List.of(segment("AAA", "AAB", DAY)));
+        assertThrows(IllegalArgumentException.class, () -> flightService.findMultiCityItineraries(query));
+        query.setSegments(List.of(segment("AAA", "AAB", DAY), segment("AAB", null, DAY)));
+        assertThrows(IllegalArgumentException.class, () -> flightService.findMultiCityItineraries(query));
+        query.setSegments(List.of(segment("AAA", "AAB", DAY), segment("AAB", "AAC", DAY)));
+        query.setLimit(1001);
+        assertThrows(IllegalArgumentException.class, () -> flightService.findMultiCityItineraries(query));
+        query.setLimit(null);
+        List<MultiCitySearchQuery.Segment> seven = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            seven.add(segment("AAA", "AAB", DAY));
+        }
+        query.setSegments(seven);
+        assertThrows(IllegalArgumentException.class, () -> flightService.findMultiCityItineraries(query));
+    }
+
+    // Every combination of the segments' 1-stop paths, in lexicographic order, kept when each segment departs
+    // after the previous one lands, then stably sorted by total duration
+    private List<String> chainedCombinations(List<MultiCitySearchQuery.Segment> segments) {
+        DepthFirstRouteSearch dfs = new DepthFirstRouteSearch();
+        List<List<List<Flight>>> candidates = new ArrayList<>();
+        for (MultiCitySearchQuery.Segment segment : segments) {
+            candidates.add(dfs.search(network, new RouteRequest(segment.getStartAirport(), segment.getDestinationAirport(),
+                    segment.getDate(), 2)));
+        }
+
+        List<List<List<Flight>>> combinations = new ArrayList<>();
+        combine(candidates, new ArrayList<>(), combinations);
+        return combinations.stream()
+                .sorted(Comparator.comparingInt(combination -> combination.stream()
+                        .flatMap(List::stream).mapToInt(Flight::getDuration).sum()))
+                .map(combination -> combination.stream()
+                        .map(path -> path.stream().map(Flight::getId).collect(Collectors.joining(",")))
+                        .collect(Collectors.joining("|")))
+                .collect(Collectors.toList());
+    }
+
+    private static void combine(List<List<List<Flight>>> candidates, List<List<Flight>> chosen,
+                                List<List<List<Flight>>> combinations) {
+        if (chosen.size() == candidates.size()) {
+            combinations.add(new ArrayList<>(chosen));
+            return;
+        }
+        for (List<Flight> path : candidates.get(chosen.size())) {
+            if (!chosen.isEmpty()) {
+                List<Flight> previous = chosen.get(chosen.size() - 1);
+                if (!path.get(0).getDeparture().isAfter(previous.get(previous.size() - 1).getArrival())) continue;
+            }
+            chosen.add(path);
+            combine(candidates, chosen, combinations);
+            chosen.remove(chosen.size() - 1);
+        }
+    }
+
+    private static FlightRouteSearchQuery routeQuery(String origin, String destination) {
+        FlightRouteSearchQuery query = new FlightRouteSearchQuery();
+        query.setStartAirport(origin);
+        query.setDestinationAirport(destination);
+        query.setStartDate(DAY);
+        query.setMaxStops(1);
+        query.setFilter("cheapest");
+        return query;
+    }
+
+    private static MultiCitySearchQuery.Segment segment(String origin, String destination, LocalDate date) {
+        MultiCitySearchQuery.Segment segment = new MultiCitySearchQuery.Segment();
+        segment.setStartAirport(origin);
+        segment.setDestinationAirport(destination);
+        segment.setDate(date);
+        segment.setMaxStops(1);
+        return segment;
+    }
+
+    private static List<String> ids(List<Itinerary> itineraries) {
+        return itineraries.stream()
+                .map(itinerary -> itinerary.getFlights().stream().map(Flight::getId).collect(Collectors.joining(",")))
+                .collect(Collectors.toList());
+    }
+
+    private static String ids(MultiCityItinerary itinerary) {
+        return String.join("|", ids(itinerary.getSegments()));
+    }
+}